@@ -0,0 +1,100 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Zero-copy {@link CharSequence} view of the bytes [{@code start}, {@code end}) of a
+ * {@link ByteBuffer}, one {@code char} per byte.  Only absolute {@code get}s are used, so
+ * any number of views of the same (read-only) buffer may be used concurrently, and
+ * {@link #subSequence(int, int)} returns another view rather than a copy; only
+ * {@link #toString()} copies.
+ *
+ * <p> A view reflects the current content of its buffer, so it should only be used
+ * with buffers whose content doesn't change (e.g., a read-only mapping of a WordNet data file).
+ * {@link #hashCode()} is consistent with {@link String#hashCode()} of the same chars and
+ * {@link #equals(Object)} compares the content of {@code AsciiCharSequence}s.
+ */
+public final class AsciiCharSequence implements CharSequence {
+  private final ByteBuffer buffer;
+  private final int start;
+  private final int end;
+
+  /**
+   * @throws IndexOutOfBoundsException if [{@code start}, {@code end}) isn't within {@code buffer}'s capacity
+   */
+  public AsciiCharSequence(final ByteBuffer buffer, final int start, final int end) {
+    if (start < 0 || end < start || end > buffer.capacity()) {
+      throw new IndexOutOfBoundsException("start: "+start+" end: "+end+" capacity: "+buffer.capacity());
+    }
+    this.buffer = buffer;
+    this.start = start;
+    this.end = end;
+  }
+
+  @Override
+  public int length() {
+    return end - start;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    if (index < 0 || index >= end - start) {
+      throw new IndexOutOfBoundsException("index: "+index+" length: "+(end - start));
+    }
+    return (char) buffer.get(start + index);
+  }
+
+  @Override
+  public AsciiCharSequence subSequence(final int s, final int e) {
+    if (s < 0 || e < s || e > end - start) {
+      throw new IndexOutOfBoundsException("s: "+s+" e: "+e+" length: "+(end - start));
+    }
+    return new AsciiCharSequence(buffer, start + s, start + e);
+  }
+
+  @Override
+  public String toString() {
+    final char[] chars = new char[end - start];
+    for (int i = start; i < end; i++) {
+      chars[i - start] = (char) buffer.get(i);
+    }
+    return new String(chars);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + (char) buffer.get(i);
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (! (obj instanceof AsciiCharSequence)) {
+      return false;
+    }
+    final AsciiCharSequence that = (AsciiCharSequence) obj;
+    return CharSequences.equals(this, that);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with fixed, logarithmic buckets: each power of 2 is
+ * divided into {@value #SUB_BUCKETS} linear sub-buckets, so any percentile is reported within 25% of its
+ * true value regardless of magnitude, using a fixed 2KB of counters.  Recording is a few atomic increments,
+ * so it's cheap enough to leave enabled on hot paths in production.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int NUM_BUCKETS = 64 * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /** Records a duration of {@code nanos}; negative values are recorded as 0. */
+  public void record(long nanos) {
+    nanos = Math.max(0, nanos);
+    buckets.incrementAndGet(bucketOf(nanos));
+    sum.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  /** Discards all recorded values; concurrent {@link #record(long)}s may be partially discarded. */
+  public void reset() {
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      buckets.set(i, 0);
+    }
+    sum.reset();
+    max.reset();
+  }
+
+  /** @return a consistent-enough copy of the current statistics */
+  public Summary summary() {
+    final long[] counts = new long[NUM_BUCKETS];
+    long total = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      total += counts[i] = buckets.get(i);
+    }
+    return new Summary(counts, total, sum.sum(), max.get());
+  }
+
+  static int bucketOf(final long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    final int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+    final int sub = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return ((magnitude - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+  }
+
+  /** @return largest value which maps to {@code bucket} */
+  static long upperBoundOf(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int magnitude = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+    final long sub = bucket & (SUB_BUCKETS - 1);
+    final long lowerBound = (SUB_BUCKETS + sub) << (magnitude - SUB_BUCKET_BITS);
+    return lowerBound + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return summary().toString();
+  }
+
+  /**
+   * Immutable statistics of a {@link LatencyHistogram}.  Its getters make it
+   * usable as an attribute type of JMX MXBeans.
+   */
+  public static final class Summary {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Summary(final long[] counts, final long count, final long sum, final long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public double getMeanNanos() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getMaxNanos() {
+      return max;
+    }
+
+    public long getP50Nanos() {
+      return percentile(0.5);
+    }
+
+    public long getP90Nanos() {
+      return percentile(0.9);
+    }
+
+    public long getP99Nanos() {
+      return percentile(0.99);
+    }
+
+    public long getP999Nanos() {
+      return percentile(0.999);
+    }
+
+    /**
+     * @param quantile in [0, 1]
+     * @return upper bound of the bucket containing the {@code quantile} value (capped at
+     * {@link #getMaxNanos()}), or 0 if there are no values
+     */
+    public long percentile(final double quantile) {
+      if (quantile < 0 || quantile > 1) {
+        throw new IllegalArgumentException("quantile "+quantile+" not in [0, 1]");
+      }
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(upperBoundOf(i), max);
+        }
+      }
+      return max;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("[count: %d mean: %.0fns p50: %dns p99: %dns max: %dns]",
+        count, getMeanNanos(), getP50Nanos(), getP99Nanos(), max);
+    }
+  } // end class Summary
+}
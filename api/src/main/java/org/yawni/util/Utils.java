@@ -16,11 +16,6 @@
  */
 package org.yawni.util;
 
-import com.google.common.base.Stopwatch;
-import com.google.common.base.Suppliers;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
@@ -28,7 +23,6 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
-import com.google.common.collect.Streams;
 import com.google.common.primitives.Ints;
 
 import java.util.Arrays;
@@ -42,11 +36,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.yawni.wordnet.POS;
-import org.yawni.wordnet.Relation;
 import org.yawni.wordnet.RelationType;
 import org.yawni.wordnet.Synset;
 import org.yawni.wordnet.WordNet;
@@ -346,6 +338,12 @@ public class Utils {
     }
   }
 
+  /**
+   * @return the shortest path from {@code source} to each {@code Synset} connected to it
+   * @deprecated computes paths to every {@code Synset} of the {@code POS}; use
+   * {@link WordNet#distance(Synset, Synset)} or {@link WordNet#leastCommonSubsumer(Synset, Synset)}
+   */
+  @Deprecated
   public static ListMultimap<Synset, Synset> dijkstraPath(Synset source) {
     // standard algorithm copy/ported from https://github.com/gengoai/hermes/blob/987e7a05f9919476a86ce0af3d527a18fae8336c/wordnet/src/main/java/com/gengoai/hermes/wordnet/WordNet.java#L109
     //    Counter<Synset> dist = Counters.newCounter();
@@ -411,70 +409,41 @@ public class Utils {
     return path.build();
   }
 
-  private static final LoadingCache<Synset, ListMultimap<Synset, Synset>> shortestPathCache =
-      CacheBuilder.newBuilder().maximumSize(200_000)
-          .build(CacheLoader.from(
-              input -> input == null
-                  ? null
-                  : dijkstraPath(input)
-              ));
-
-  private static List<Synset> shortestPath(Synset synset1, Synset synset2) {
-    return shortestPathCache
-            .getUnchecked(synset1)
-            .get(synset2);
-  }
-
   /**
-   * Calculates the distance between synsets.
+   * Calculates the distance between synsets of {@link WordNet#getInstance()}.
    *
    * @param synset1 Synset 1
    * @param synset2 Synset 2
-   * @return The distance
+   * @return The distance, or {@code Integer.MAX_VALUE} if they aren't connected
+   * @see WordNet#distance(Synset, Synset)
    */
   public static int distance(Synset synset1, Synset synset2) {
     checkNotNull(synset1);
     checkNotNull(synset2);
-    if (synset1.equals(synset2)) {
-      return 0;
-    }
-    List<Synset> path = shortestPath(synset1, synset2);
-    return path.isEmpty()
-        ? Integer.MAX_VALUE
-        : path.size() - 1;
+    final int distance = WordNet.getInstance().distance(synset1, synset2);
+    return distance < 0 ? Integer.MAX_VALUE : distance;
   }
 
-  private static final Supplier<Set<Synset>> ROOT_CACHE =
-      Suppliers.memoize(Utils::findRoots);
-
   /**
    * Find the "root" {@code Synset}s: those with no {@link RelationType#HYPERNYM} or
    * {@link RelationType#INSTANCE_HYPERNYM}.
+   * @see WordNet#roots(POS)
    */
   public static Set<Synset> findRoots() {
-    final Stopwatch stopwatch = Stopwatch.createStarted();
-    try {
-      return Streams.stream(WordNet.getInstance().synsets(POS.ALL))
-          .filter(synset -> synset.getRelations().stream()
-              .filter(Relation::isSemantic)
-              .noneMatch(relation ->
-                  relation.getType() == RelationType.HYPERNYM ||
-                      relation.getType() == RelationType.INSTANCE_HYPERNYM))
-          .collect(toImmutableSet());
-    } finally {
-      stopwatch.stop();
-      System.err.println("findRoots took "+stopwatch);
-    }
+    final WordNet wordNet = WordNet.getInstance();
+    return POS.CATS.stream()
+        .flatMap(pos -> wordNet.roots(pos).stream())
+        .collect(toImmutableSet());
   }
 
   /**
    * The shortest distance from {@code synset} to a "root" {@code Synset} (one with no
-   * {@link RelationType#HYPERNYM} or {@link RelationType#INSTANCE_HYPERNYM}
+   * {@link RelationType#HYPERNYM} or {@link RelationType#INSTANCE_HYPERNYM}) following only these relations
+   * @see WordNet#depth(Synset)
    */
   public static int depth(Synset synset) {
-    return ROOT_CACHE.get().stream()
-        .mapToInt(root -> distance(synset, root))
-        .min().orElse(-1);
+    checkNotNull(synset);
+    return WordNet.getInstance().depth(synset);
   }
 
   /**
@@ -484,48 +453,12 @@ public class Utils {
    * @param synset1 The first node
    * @param synset2 The second node
    * @return The least common subsumer or null
+   * @see WordNet#leastCommonSubsumer(Synset, Synset)
    */
   public static Synset getLeastCommonSubsumer(Synset synset1, Synset synset2) {
     checkNotNull(synset1);
     checkNotNull(synset2);
-
-    if (synset1.equals(synset2)) {
-      return synset1;
-    }
-
-    Stopwatch stopwatch = Stopwatch.createStarted();
-    List<Synset> path = shortestPath(synset1, synset2);
-    stopwatch.stop();
-    System.err.println("  shortestPath took "+stopwatch);
-    if (path.isEmpty()) {
-      return null;
-    }
-
-    stopwatch.reset().start();
-    int node1Height = Utils.depth(synset1);
-    int node2Height = Utils.depth(synset2);
-//    stopwatch.stop();
-//    System.err.println("  depth finding took "+stopwatch);
-    int minHeight = Math.min(node1Height, node2Height);
-    int maxHeight = Integer.MIN_VALUE;
-    Synset lcs = null;
-    for (Synset s : path) {
-      if (s.equals(synset1) || s.equals(synset2)) {
-        continue;
-      }
-      int height = Utils.depth(s);
-      if (height < minHeight && height > maxHeight) {
-        maxHeight = height;
-        lcs = s;
-      }
-    }
-    if (lcs == null) {
-      if (node1Height < node2Height) {
-        return synset1;
-      }
-      return synset2;
-    }
-    return lcs;
+    return WordNet.getInstance().leastCommonSubsumer(synset1, synset2).orElse(null);
   }
 
   /**
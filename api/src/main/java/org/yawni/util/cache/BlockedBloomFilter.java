@@ -0,0 +1,381 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import static java.lang.Long.bitCount;
+import static java.lang.Math.abs;
+import static java.lang.Math.ceil;
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A cache-line blocked <a href="https://en.wikipedia.org/wiki/Bloom_filter">Bloom filter</a> which, like
+ * {@link BloomFilter}, uses a restricted version of the {@link Set} interface: it does not support traversal
+ * or removal and may report false positives on membership queries.
+ * <p>
+ * Whereas each of the {@code k} bits of an element of a {@code BloomFilter} is anywhere in its bit array,
+ * the bits of an element of a {@code BlockedBloomFilter} are all in one 512 bit (64 byte, i.e., a typical
+ * cache line) block chosen by its hash, so a membership query costs at most one cache miss rather than up
+ * to {@code k}.  The price is a slightly higher false positive probability for a given number of bits
+ * (elements aren't spread evenly over blocks), which this filter compensates for by sizing itself
+ * somewhat larger (typically 5-15%).  This suits filters which are mostly queried for non-members, as
+ * each such query of a {@code BloomFilter} typically probes more than one word before it finds an unset bit.
+ * <p>
+ * Like {@code BloomFilter}, the bits are stored in a {@link LongBuffer} on or off the heap, and a filter
+ * can be {@link #write(OutputStream) written} in a compact binary format (which differs only in its magic)
+ * and {@link #read(InputStream, Hasher) read}, {@link #map(Path, Hasher) memory-mapped} or
+ * {@link #wrap(ByteBuffer, Hasher) wrapped}.
+ *
+ * @see <a href="https://algo2.iti.kit.edu/documents/cacheefficientbloomfilters-jea.pdf">Putze, Sanders
+ * and Singler, Cache-, Hash- and Space-Efficient Bloom Filters</a>
+ */
+public final class BlockedBloomFilter<E> extends AbstractSet<E> {
+  /** "YBBF" */
+  private static final int MAGIC = 0x59424246;
+  private static final int BLOCK_BITS = 512;
+  private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+  /** odd multiplier which derives each successive bit of an element from its hash */
+  private static final long PROBE = 0x9e3779b97f4a7c15L;
+
+  private final Hasher<E> hasher;
+  private LongBuffer words;
+  private int size;
+  private final double probability;
+  private final int capacity;
+  private final int blocks;
+  private final int hashes;
+  private final int bits;
+
+  /**
+   * Creates a blocked Bloom filter that can store up to an expected maximum capacity with an acceptable
+   * probability that a membership query will result in a false positive. The filter will size itself
+   * based on the given parameters.
+   *
+   * @param capacity    The expected maximum number of elements to be inserted into the Bloom filter.
+   * @param probability The acceptable false positive probability for membership queries.
+   * @param hasher
+   */
+  public BlockedBloomFilter(final int capacity, final double probability, final Hasher<E> hasher) {
+    this(capacity, probability, hasher, false);
+  }
+
+  /**
+   * Creates a blocked Bloom filter that can store up to an expected maximum capacity with an acceptable
+   * probability that a membership query will result in a false positive. The filter will size itself
+   * based on the given parameters.
+   *
+   * @param capacity    The expected maximum number of elements to be inserted into the Bloom filter.
+   * @param probability The acceptable false positive probability for membership queries.
+   * @param hasher
+   * @param offHeap     If {@code true}, store the bits in a direct buffer.
+   */
+  public BlockedBloomFilter(final int capacity, final double probability, final Hasher<E> hasher, final boolean offHeap) {
+    if ((capacity <= 0) || (probability <= 0) || (probability >= 1)) {
+      throw new IllegalArgumentException();
+    }
+    this.hasher = hasher;
+    this.capacity = max(capacity, Long.SIZE);
+    // start with the bits of an unblocked filter and add blocks until the blocked probability is low enough
+    int blocks = (int) ceil(abs(this.capacity * log(probability) / pow(log(2), 2)) / BLOCK_BITS);
+    int hashes = numberOfHashes(this.capacity, blocks * BLOCK_BITS);
+    while (probability(hashes, this.capacity, blocks) > probability) {
+      blocks += max(1, blocks / 32);
+      hashes = numberOfHashes(this.capacity, blocks * BLOCK_BITS);
+    }
+    this.blocks = blocks;
+    this.bits = blocks * BLOCK_BITS;
+    this.hashes = hashes;
+    this.probability = probability(hashes, this.capacity, blocks);
+    this.words = BloomFilterCodec.allocate(blocks * BLOCK_WORDS, offHeap);
+  }
+
+  private BlockedBloomFilter(final Hasher<E> hasher, final LongBuffer words, final int size, final double probability,
+      final int capacity, final int hashes, final int bits) {
+    this.hasher = hasher;
+    this.words = words;
+    this.size = size;
+    this.probability = probability;
+    this.capacity = capacity;
+    this.blocks = bits / BLOCK_BITS;
+    this.hashes = hashes;
+    this.bits = bits;
+  }
+
+  private BlockedBloomFilter(final BlockedBloomFilter<E> that, final boolean offHeap) {
+    this(that.hasher, BloomFilterCodec.copy(that.words, offHeap), that.size, that.probability, that.capacity,
+      that.hashes, that.bits);
+  }
+
+  /**
+   * Calculates the <tt>false positive probability</tt> of a blocked Bloom filter: the probability
+   * of each possible number of elements in a block (Poisson distributed) times the false positive
+   * probability of a block of {@value #BLOCK_BITS} bits holding that many elements.
+   *
+   * @param hashes   The number of hashing algorithms applied to an element.
+   * @param capacity The estimated number of elements to be inserted into the Bloom filter.
+   * @param blocks   The number of blocks.
+   * @return         The estimated false positive probability.
+   */
+  private static double probability(final int hashes, final int capacity, final int blocks) {
+    final double mean = (double) capacity / blocks;
+    // log of the Poisson probability of i elements, which would underflow for large means
+    double logPoisson = -mean;
+    double probability = 0;
+    for (int i = 0; i < mean + 10 * sqrt(mean) + 64; i++) {
+      probability += exp(logPoisson) * pow(1 - pow(1 - 1.0 / BLOCK_BITS, (double) hashes * i), hashes);
+      logPoisson += log(mean / (i + 1));
+    }
+    return probability;
+  }
+
+  /**
+   * Calculates the optimal number of hashing algorithms, k, at a given sizing to
+   * minimize the probability.
+   *
+   * @param capacity The estimated number of elements to be inserted into the Bloom filter.
+   * @param bits     The number of bits that can be used for storing membership.
+   * @return         The optimal number of hashing functions.
+   */
+  private static int numberOfHashes(final int capacity, final int bits) {
+    return max(1, (int) ceil((((double) bits) / capacity) * log(2)));
+  }
+
+  /**
+   * Returns the <tt>false positive probability</tt> of the {@link #contains(Object)}
+   * method returning <tt>true</tt> for an object that had not been inserted into the
+   * Bloom filter.
+   *
+   * @return The false positive probability for membership queries.
+   */
+  public double probability() {
+    return probability;
+  }
+
+  /**
+   * Returns the expected maximum number of elements that may be inserted into the Bloom filter.
+   *
+   * @return The expected maximum number of elements to be inserted into the Bloom filter.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @return {@code true} if this filter's bits are stored off-heap
+   */
+  public boolean isOffHeap() {
+    return words.isDirect();
+  }
+
+  /**
+   * @return this filter if its bits are stored off-heap, otherwise an equal copy of it with its bits
+   * stored off-heap
+   */
+  public BlockedBloomFilter<E> offHeap() {
+    return isOffHeap() ? this : new BlockedBloomFilter<>(this, true);
+  }
+
+  /**
+   * @return {@code true} if this filter can't be {@link #add(Object) added} to (e.g., it's
+   * {@link #map(Path, Hasher) memory-mapped})
+   */
+  public boolean isReadOnly() {
+    return words.isReadOnly();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    checkWritable();
+    words = BloomFilterCodec.allocate(blocks * BLOCK_WORDS, isOffHeap());
+    size = 0;
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    if (size == 0) {
+      return false;
+    }
+    long h = mix(hasher.hashCode(o));
+    final int block = block(h);
+    for (int i = 0; i < hashes; i++) {
+      h *= PROBE;
+      final int bit = bit(h);
+      if ((words.get(block + (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean add(final E o) {
+    checkWritable();
+    long h = mix(hasher.hashCode(o));
+    final int block = block(h);
+    boolean added = false;
+    for (int i = 0; i < hashes; i++) {
+      h *= PROBE;
+      final int bit = bit(h);
+      final int index = block + (bit >>> 6);
+      final long word = words.get(index);
+      final long mask = 1L << bit;
+      if ((word & mask) == 0) {
+        words.put(index, word | mask);
+        added = true;
+      }
+    }
+    if (added) {
+      size++;
+    }
+    return added;
+  }
+
+  private void checkWritable() {
+    BloomFilterCodec.checkWritable(words);
+  }
+
+  /**
+   * @return index of the first word of the block of an element with hash {@code h}
+   */
+  private int block(final long h) {
+    return (int) (((h >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+  }
+
+  /**
+   * @return the index, within its block, of a bit of an element: the top 9 bits of {@code h}, which is
+   * the element's hash times a successive power of {@link #PROBE} for each of its bits
+   */
+  private static int bit(final long h) {
+    return (int) (h >>> (Long.SIZE - 9));
+  }
+
+  /**
+   * Spreads the 32 bit {@code hashCode} over 64 bits (MurmurHash3's 64 bit finalizer).
+   */
+  private static long mix(final int hashCode) {
+    long h = hashCode * 0x9e3779b97f4a7c15L;
+    h ^= (h >>> 33);
+    h *= 0xff51afd7ed558ccdL;
+    h ^= (h >>> 33);
+    h *= 0xc4ceb9fe1a85ec53L;
+    return h ^ (h >>> 33);
+  }
+
+  /**
+   * Writes this filter in its compact binary format, which is that of {@link BloomFilter#write(OutputStream)}
+   * with a different magic.
+   */
+  public void write(final OutputStream output) throws IOException {
+    BloomFilterCodec.write(output, MAGIC, capacity, size, hashes, bits, probability, hasher, words);
+  }
+
+  /**
+   * Reads a filter written by {@link #write(OutputStream)} onto the heap.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code input} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BlockedBloomFilter<E> read(final InputStream input, final Hasher<E> hasher) throws IOException {
+    return new BlockedBloomFilter<>(wrap(BloomFilterCodec.toBuffer(input), hasher), false);
+  }
+
+  /**
+   * Memory-maps {@code path}, a filter written by {@link #write(OutputStream)}, as a read-only filter.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code path} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BlockedBloomFilter<E> map(final Path path, final Hasher<E> hasher) throws IOException {
+    return wrap(BloomFilterCodec.map(path), hasher);
+  }
+
+  /**
+   * Views the remaining bytes of {@code buffer}, a filter written by {@link #write(OutputStream)}, as a
+   * read-only filter; its bits aren't copied.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code buffer} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BlockedBloomFilter<E> wrap(final ByteBuffer buffer, final Hasher<E> hasher) throws IOException {
+    final BloomFilterCodec.Header header =
+      BloomFilterCodec.read(buffer, MAGIC, BLOCK_BITS, hasher, "blocked Bloom filter");
+    return new BlockedBloomFilter<>(hasher, header.words, header.size, header.probability, header.capacity,
+      header.hashes, header.bits);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (!(o instanceof BlockedBloomFilter<?>)) {
+      return false;
+    }
+    final BlockedBloomFilter<?> that = (BlockedBloomFilter<?>) o;
+    return (this.size == that.size) && (this.hashes == that.hashes) && this.words.equals(that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return words.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    int population = 0;
+    for (int i = 0, n = words.capacity(); i < n; i++) {
+      population += bitCount(words.get(i));
+    }
+    return new StringBuilder("{").
+      append(String.format("probability=%.5f", probability)).
+      append(", ").
+      append("hashes=").
+      append(hashes).
+      append(", ").
+      append("capacity=").
+      append(capacity).
+      append(", ").
+      append("size=").
+      append(size).
+      append(", ").
+      append("bits=").
+      append(bits).
+      append(", ").
+      append("set-bit-count=").
+      append(population).
+      append('}').
+      toString();
+  }
+}
@@ -18,6 +18,12 @@
 // with last update Oct  04, 2009
 package org.yawni.util.cache;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
 import java.io.Serializable;
 import static java.lang.Long.bitCount;
 import static java.lang.Math.abs;
@@ -27,8 +33,10 @@ import static java.lang.Math.log;
 import static java.lang.Math.max;
 import static java.lang.Math.pow;
 
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
 import java.util.AbstractSet;
-import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Set;
@@ -44,20 +52,42 @@ import java.util.Set;
  * that are added to the set, the larger the probability of false positives. While risking
  * false positives, Bloom filters have a tunable space advantage over other data structures for
  * representing sets by not storing the data items.
+ * <p>
+ * The bits are stored in a {@link LongBuffer} which is either on the heap or, to keep large filters out of
+ * the garbage collector's way, off-heap (i.e., a direct buffer).
+ * <p>
+ * Besides its serialized form, a filter can be {@link #write(OutputStream) written} in a compact binary format
+ * which can be {@link #read(InputStream, Hasher) read} much faster or, as a read-only filter,
+ * {@link #map(Path, Hasher) memory-mapped} (so processes on a host share its pages) or
+ * {@link #wrap(ByteBuffer, Hasher) wrapped} without copying its bits.
  *
  * @author <a href="mailto:ben.manes@gmail.com">Ben Manes</a>
  */
 public final class BloomFilter<E> extends AbstractSet<E> implements Serializable {
   private static final long serialVersionUID = 3;
+  /** "YBLM" */
+  private static final int MAGIC = 0x59424c4d;
+  /** the serialized form is that of the original {@code long[] words} implementation */
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("hasher", Hasher.class),
+    new ObjectStreamField("words", long[].class),
+    new ObjectStreamField("size", int.class),
+    new ObjectStreamField("probability", double.class),
+    new ObjectStreamField("capacity", int.class),
+    new ObjectStreamField("length", int.class),
+    new ObjectStreamField("hashes", int.class),
+    new ObjectStreamField("bits", int.class),
+  };
 
-  private final Hasher<E> hasher;
-  private long[] words;
+  // not final only so readObject() can assign them
+  private Hasher<E> hasher;
+  private transient LongBuffer words;
   private int size;
-  private final double probability;
-  private final int capacity;
-  private final int length;
-  private final int hashes;
-  private final int bits;
+  private double probability;
+  private int capacity;
+  private int length;
+  private int hashes;
+  private int bits;
 
   /**
    * The number of times this has been structurally modified.
@@ -72,6 +102,10 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
     public int hashCode(Object e) {
       return e.hashCode();
     }
+    @Override
+    public String id() {
+      return "object";
+    }
   } // end class DefaultHasher
 
   private static final Hasher DEFAULT_HASHER = new DefaultHasher();
@@ -104,6 +138,20 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
    * @param hasher
    */
   public BloomFilter(final int capacity, final double probability, final Hasher<E> hasher) {
+    this(capacity, probability, hasher, false);
+  }
+
+  /**
+   * Creates a Bloom filter that can store up to an expected maximum capacity with an acceptable probability
+   * that a membership query will result in a false positive. The filter will size itself based on the given
+   * parameters.
+   *
+   * @param capacity    The expected maximum number of elements to be inserted into the Bloom filter.
+   * @param probability The acceptable false positive probability for membership queries.
+   * @param hasher
+   * @param offHeap     If {@code true}, store the bits in a direct buffer.
+   */
+  public BloomFilter(final int capacity, final double probability, final Hasher<E> hasher, final boolean offHeap) {
     if ((capacity <= 0) || (probability <= 0) || (probability >= 1)) {
       throw new IllegalArgumentException();
     }
@@ -113,7 +161,92 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
     this.length = bits / Long.SIZE;
     this.hashes = numberOfHashes(capacity, bits);
     this.probability = probability(hashes, capacity, bits);
-    this.words = new long[length];
+    this.words = BloomFilterCodec.allocate(length, offHeap);
+  }
+
+  private BloomFilter(final BloomFilter<E> that, final boolean offHeap) {
+    this.hasher = that.hasher;
+    this.size = that.size;
+    this.probability = that.probability;
+    this.capacity = that.capacity;
+    this.length = that.length;
+    this.hashes = that.hashes;
+    this.bits = that.bits;
+    this.words = BloomFilterCodec.copy(that.words, offHeap);
+  }
+
+  private BloomFilter(final Hasher<E> hasher, final LongBuffer words, final int size, final double probability,
+      final int capacity, final int hashes, final int bits) {
+    this.hasher = hasher;
+    this.words = words;
+    this.size = size;
+    this.probability = probability;
+    this.capacity = capacity;
+    this.length = bits / Long.SIZE;
+    this.hashes = hashes;
+    this.bits = bits;
+  }
+
+  /**
+   * @return {@code true} if this filter's bits are stored off-heap
+   */
+  public boolean isOffHeap() {
+    return words.isDirect();
+  }
+
+  /**
+   * @return this filter if its bits are stored off-heap, otherwise an equal copy of it with its bits
+   * stored off-heap
+   */
+  public BloomFilter<E> offHeap() {
+    return isOffHeap() ? this : new BloomFilter<>(this, true);
+  }
+
+  /**
+   * @return {@code true} if this filter can't be {@link #add(Object) added} to (e.g., it's
+   * {@link #map(Path, Hasher) memory-mapped})
+   */
+  public boolean isReadOnly() {
+    return words.isReadOnly();
+  }
+
+  /**
+   * Writes this filter in its compact binary format: big-endian magic, version, capacity, size, number
+   * of hashes, number of bits and probability, the length and UTF-8 bytes of its {@link Hasher#id()},
+   * padding to a multiple of 8 bytes and then the words of its bits.
+   */
+  public void write(final OutputStream output) throws IOException {
+    BloomFilterCodec.write(output, MAGIC, capacity, size, hashes, bits, probability, hasher, words);
+  }
+
+  /**
+   * Reads a filter written by {@link #write(OutputStream)} onto the heap.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code input} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BloomFilter<E> read(final InputStream input, final Hasher<E> hasher) throws IOException {
+    return new BloomFilter<>(wrap(BloomFilterCodec.toBuffer(input), hasher), false);
+  }
+
+  /**
+   * Memory-maps {@code path}, a filter written by {@link #write(OutputStream)}, as a read-only filter.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code path} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BloomFilter<E> map(final Path path, final Hasher<E> hasher) throws IOException {
+    return wrap(BloomFilterCodec.map(path), hasher);
+  }
+
+  /**
+   * Views the remaining bytes of {@code buffer}, a filter written by {@link #write(OutputStream)}, as a
+   * read-only filter; its bits aren't copied.
+   * @param hasher hash function of the written filter
+   * @throws IOException if {@code buffer} isn't a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  public static <E> BloomFilter<E> wrap(final ByteBuffer buffer, final Hasher<E> hasher) throws IOException {
+    final BloomFilterCodec.Header header = BloomFilterCodec.read(buffer, MAGIC, Long.SIZE, hasher, "Bloom filter");
+    return new BloomFilter<>(hasher, header.words, header.size, header.probability, header.capacity, header.hashes,
+      header.bits);
   }
 
   /**
@@ -185,8 +318,9 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
 
   @Override
   public void clear() {
+    checkWritable();
     modCount++;
-    words = new long[length];
+    words = BloomFilterCodec.allocate(length, isOffHeap());
     size = 0;
   }
 
@@ -212,6 +346,7 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
 
   @Override
   public boolean add(final E o) {
+    checkWritable();
     boolean added = false;
     final int h = objectHash(o);
     final int expectedModCount = modCount + 1;
@@ -226,6 +361,10 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
     return added;
   }
 
+  private void checkWritable() {
+    BloomFilterCodec.checkWritable(words);
+  }
+
   /**
    * Retrieves the flag stored at the index location in the given array.
    *
@@ -233,14 +372,14 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
    * @param words The array to lookup in.
    * @return      The flag's value.
    */
-  private static boolean getAt(final int index, final long[] words) {
+  private static boolean getAt(final int index, final LongBuffer words) {
 //    final int i = index / Long.SIZE;
 //    assert i == index >>> 6;
 //    final int bitIndex = index % Long.SIZE;
 //    final int altBitIndex = index & ((1 << 6) - 1);
     final int i = index >>> 6;
     final int bitIndex = index & ((1 << 6) - 1);
-    return (words[i] & (1L << bitIndex)) != 0;
+    return (words.get(i) & (1L << bitIndex)) != 0;
   }
 
   /**
@@ -250,7 +389,7 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
    * @param words The array to update.
    * @return      If updated.
    */
-  private static boolean setAt(final int index, final long[] words) {
+  private static boolean setAt(final int index, final LongBuffer words) {
 //    final int i = index / Long.SIZE;
 //    assert i == index >>> 6;
 //    final int bitIndex = index % Long.SIZE;
@@ -259,8 +398,9 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
     final int i = index >>> 6;
     final int bitIndex = index & ((1 << 6) - 1);
     final long mask = (1L << bitIndex);
-    if ((words[i] & mask) == 0) {
-      words[i] |= mask;
+    final long word = words.get(i);
+    if ((word & mask) == 0) {
+      words.put(i, word | mask);
       return true;
     }
     return false;
@@ -298,12 +438,44 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
       return false;
     }
     final BloomFilter<?> that = (BloomFilter<?>) o;
-    return (this.size == that.size) && Arrays.equals(this.words, that.words);
+    return (this.size == that.size) && this.words.equals(that.words);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(words);
+    return words.hashCode();
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("hasher", hasher);
+    fields.put("words", toArray(words));
+    fields.put("size", size);
+    fields.put("probability", probability);
+    fields.put("capacity", capacity);
+    fields.put("length", length);
+    fields.put("hashes", hashes);
+    fields.put("bits", bits);
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final ObjectInputStream.GetField fields = in.readFields();
+    hasher = (Hasher<E>) fields.get("hasher", null);
+    words = LongBuffer.wrap((long[]) fields.get("words", null));
+    size = fields.get("size", 0);
+    probability = fields.get("probability", 0.0);
+    capacity = fields.get("capacity", 0);
+    length = fields.get("length", 0);
+    hashes = fields.get("hashes", 0);
+    bits = fields.get("bits", 0);
+  }
+
+  private static long[] toArray(final LongBuffer words) {
+    final long[] array = new long[words.capacity()];
+    words.duplicate().get(array);
+    return array;
   }
 
   @Override
@@ -345,10 +517,10 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
    * @param words The consistent view of the data.
    * @return      The number of one-bits in the two's complement binary representation.
    */
-  private static int toBitCount(final long[] words) {
+  private static int toBitCount(final LongBuffer words) {
     int population = 0;
-    for (final long word : words) {
-      population += bitCount(word);
+    for (int i = 0, n = words.capacity(); i < n; i++) {
+      population += bitCount(words.get(i));
     }
     return population;
   }
@@ -359,14 +531,14 @@ public final class BloomFilter<E> extends AbstractSet<E> implements Serializable
    * @param words The consistent view of the data.
    * @return      A binary string representation.
    */
-  private static String toBinaryArrayString(long[] words) {
-    final StringBuilder buffer = new StringBuilder(words.length);
+  private static String toBinaryArrayString(final LongBuffer words) {
+    final StringBuilder buffer = new StringBuilder(words.capacity());
     final int maxWords = 1;
-    for (int i = words.length - 1, wordNum = 0; i >= 0 && wordNum < maxWords; i--, wordNum++) {
-      final long word = words[i];
+    for (int i = words.capacity() - 1, wordNum = 0; i >= 0 && wordNum < maxWords; i--, wordNum++) {
+      final long word = words.get(i);
       appendBinaryString(word, buffer);
     }
-    if (words.length > maxWords) {
+    if (words.capacity() > maxWords) {
       buffer.append("...");
     }
     return buffer.toString();
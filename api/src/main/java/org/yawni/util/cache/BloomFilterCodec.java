@@ -0,0 +1,167 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import com.google.common.io.ByteStreams;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The storage of the bits of {@link BloomFilter}s and {@link BlockedBloomFilter}s, and their compact binary
+ * format: big-endian magic (distinct for each kind of filter), version, capacity, size, number of hashes,
+ * number of bits and probability, the length and UTF-8 bytes of the filter's {@link Hasher#id()}, padding to
+ * a multiple of 8 bytes and then the words of its bits.
+ */
+final class BloomFilterCodec {
+  private static final int VERSION = 1;
+  /** magic, version, capacity, size, hashes, bits, probability, hasher id length */
+  private static final int HEADER_LENGTH = 6 * Integer.BYTES + Double.BYTES + Short.BYTES;
+
+  private BloomFilterCodec() {}
+
+  /** The fields of a written filter; its {@code words} are a read-only view of the buffer it was read from. */
+  static final class Header {
+    final int capacity;
+    final int size;
+    final int hashes;
+    final int bits;
+    final double probability;
+    final LongBuffer words;
+
+    private Header(final int capacity, final int size, final int hashes, final int bits, final double probability,
+        final LongBuffer words) {
+      this.capacity = capacity;
+      this.size = size;
+      this.hashes = hashes;
+      this.bits = bits;
+      this.probability = probability;
+      this.words = words;
+    }
+  } // end class Header
+
+  /**
+   * @return {@code length} zeroed words, in a direct buffer if {@code offHeap}
+   */
+  static LongBuffer allocate(final int length, final boolean offHeap) {
+    if (offHeap) {
+      return ByteBuffer.allocateDirect(length * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    } else {
+      return LongBuffer.wrap(new long[length]);
+    }
+  }
+
+  /**
+   * @return a writable copy of {@code words}, in a direct buffer if {@code offHeap}
+   */
+  static LongBuffer copy(final LongBuffer words, final boolean offHeap) {
+    final LongBuffer copy = allocate(words.capacity(), offHeap);
+    copy.put(words.duplicate());
+    copy.rewind();
+    return copy;
+  }
+
+  static void checkWritable(final LongBuffer words) {
+    if (words.isReadOnly()) {
+      throw new UnsupportedOperationException("read-only Bloom filter");
+    }
+  }
+
+  static void write(final OutputStream output, final int magic, final int capacity, final int size,
+      final int hashes, final int bits, final double probability, final Hasher<?> hasher, final LongBuffer words)
+      throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(magic);
+    data.writeInt(VERSION);
+    data.writeInt(capacity);
+    data.writeInt(size);
+    data.writeInt(hashes);
+    data.writeInt(bits);
+    data.writeDouble(probability);
+    final byte[] hasherId = hasher.id().getBytes(UTF_8);
+    data.writeShort(hasherId.length);
+    data.write(hasherId);
+    while (data.size() % Long.BYTES != 0) {
+      data.writeByte(0);
+    }
+    for (int i = 0, n = bits / Long.SIZE; i < n; i++) {
+      data.writeLong(words.get(i));
+    }
+    data.flush();
+  }
+
+  /** @return all of {@code input}, to be {@link #read(ByteBuffer, int, int, Hasher, String) read} */
+  static ByteBuffer toBuffer(final InputStream input) throws IOException {
+    return ByteBuffer.wrap(ByteStreams.toByteArray(input));
+  }
+
+  /** @return {@code path} memory-mapped, to be {@link #read(ByteBuffer, int, int, Hasher, String) read} */
+  static ByteBuffer map(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Reads the remaining bytes of {@code buffer}, a filter written by
+   * {@link #write(OutputStream, int, int, int, int, int, double, Hasher, LongBuffer) write} with {@code magic};
+   * its bits aren't copied.
+   * @param bitsMultiple the number of bits of such filters is a multiple of this
+   * @param kind description of such filters for error messages
+   * @throws IOException if {@code buffer} isn't such a filter written with a {@code Hasher} of the same {@link Hasher#id()}
+   */
+  static Header read(final ByteBuffer buffer, final int magic, final int bitsMultiple, final Hasher<?> hasher,
+      final String kind) throws IOException {
+    final ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    final int start = data.position();
+    if (data.remaining() < HEADER_LENGTH || data.getInt() != magic) {
+      throw new IOException("not a "+kind);
+    }
+    final int version = data.getInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported "+kind+" version "+version);
+    }
+    final int capacity = data.getInt();
+    final int size = data.getInt();
+    final int hashes = data.getInt();
+    final int bits = data.getInt();
+    final double probability = data.getDouble();
+    final byte[] hasherId = new byte[data.getShort() & 0xffff];
+    if (data.remaining() < hasherId.length) {
+      throw new IOException("truncated "+kind);
+    }
+    data.get(hasherId);
+    if (! hasher.id().equals(new String(hasherId, UTF_8))) {
+      throw new IOException("Bloom filter hashed by "+new String(hasherId, UTF_8)+", not "+hasher.id());
+    }
+    data.position(data.position() + (Long.BYTES - (data.position() - start) % Long.BYTES) % Long.BYTES);
+    if (bits <= 0 || bits % bitsMultiple != 0 || data.remaining() < bits / Byte.SIZE) {
+      throw new IOException("truncated "+kind);
+    }
+    data.limit(data.position() + bits / Byte.SIZE);
+    final LongBuffer words = data.slice().order(ByteOrder.BIG_ENDIAN).asLongBuffer().asReadOnlyBuffer();
+    return new Header(capacity, size, hashes, bits, probability, words);
+  }
+}
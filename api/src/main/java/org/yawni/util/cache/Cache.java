@@ -47,4 +47,12 @@ public interface Cache<K, V> {
    * will return {@code null}.
    */
   void clear();
+
+  /**
+   * Returns the cumulative hit, miss and eviction counts of this cache.
+   * Implementations which don't record statistics return {@link CacheStats#NONE}.
+   */
+  default CacheStats stats() {
+    return CacheStats.NONE;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+/**
+ * Eviction strategies of the {@link Cache} implementations available via {@link Caches}.
+ */
+public enum CachePolicy {
+  /**
+   * Bounded by capacity and by memory pressure: values are softly referenced
+   * so the garbage collector may reclaim them; the default.
+   */
+  SOFT {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new ConcurrentSoftCache<>(capacity);
+    }
+  },
+  /**
+   * Window TinyLFU: admission based on estimated frequency of use, which resists
+   * pollution by one-off keys; typically the best hit rate for a given capacity.
+   */
+  TINY_LFU {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new TinyLFUCache<>(capacity);
+    }
+  },
+  /** Strict least recently used, backed by {@link ConcurrentLinkedHashMap}. */
+  LRU {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new ConcurrentLRUCache<>(capacity, ConcurrentLinkedHashMap.EvictionPolicy.LRU);
+    }
+  },
+  /** Approximate LRU ("clock"), backed by {@link ConcurrentLinkedHashMap}; cheaper reads than {@link #LRU}. */
+  SECOND_CHANCE {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new ConcurrentLRUCache<>(capacity, ConcurrentLinkedHashMap.EvictionPolicy.SECOND_CHANCE);
+    }
+  },
+  /** First in, first out, backed by {@link ConcurrentLinkedHashMap}. */
+  FIFO {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new ConcurrentLRUCache<>(capacity, ConcurrentLinkedHashMap.EvictionPolicy.FIFO);
+    }
+  },
+  /**
+   * Never evicts; capacity is only the initial capacity.
+   * <em>Use this at your own risk; expect {@link OutOfMemoryError}.</em>
+   */
+  UNBOUNDED {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new UnboundedCache<>(capacity);
+    }
+  },
+  /** Caches nothing; capacity is ignored. */
+  DISABLED {
+    @Override
+    <K, V> Cache<K, V> newCache(final int capacity) {
+      return new DisabledCache<>();
+    }
+  };
+
+  abstract <K, V> Cache<K, V> newCache(int capacity);
+
+  /**
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public <K, V> Cache<K, V> create(final int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("negative capacity "+capacity);
+    }
+    return newCache(capacity);
+  }
+}
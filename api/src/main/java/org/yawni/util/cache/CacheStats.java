@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+/**
+ * Immutable snapshot of the statistics of a {@link Cache}: how many lookups hit and missed, and how
+ * many entries were evicted to make room for others.  Counts are cumulative since the cache's
+ * creation (i.e., they are not reset by {@link Cache#clear()}).
+ */
+public final class CacheStats {
+  /** statistics of a {@code Cache} which doesn't record them */
+  public static final CacheStats NONE = new CacheStats(0, 0, 0);
+
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+
+  public CacheStats(final long hitCount, final long missCount, final long evictionCount) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+  }
+
+  /** @return number of {@link Cache#get(Object)}s which returned a value */
+  public long hitCount() {
+    return hitCount;
+  }
+
+  /** @return number of {@link Cache#get(Object)}s which returned {@code null} */
+  public long missCount() {
+    return missCount;
+  }
+
+  /** @return number of entries removed to enforce the cache's capacity (not by {@link Cache#clear()}) */
+  public long evictionCount() {
+    return evictionCount;
+  }
+
+  public long requestCount() {
+    return hitCount + missCount;
+  }
+
+  /** @return ratio of hits to requests, or {@code 1.0} if there have been no requests */
+  public double hitRate() {
+    final long requestCount = requestCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (! (obj instanceof CacheStats)) {
+      return false;
+    }
+    final CacheStats that = (CacheStats) obj;
+    return hitCount == that.hitCount && missCount == that.missCount && evictionCount == that.evictionCount;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(hitCount) * 31 * 31 + Long.hashCode(missCount) * 31 + Long.hashCode(evictionCount);
+  }
+
+  @Override
+  public String toString() {
+    return "[CacheStats hits: "+hitCount+" misses: "+missCount+" evictions: "+evictionCount+"]";
+  }
+}
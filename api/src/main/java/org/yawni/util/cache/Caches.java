@@ -23,9 +23,9 @@ package org.yawni.util.cache;
  * Factory used to centralize {@link Cache} creation throughout Yawni.
  */
 public class Caches {
-  /** Centralized {@link Cache} factory. */
+  /** Centralized {@link Cache} factory; uses {@link CachePolicy#SOFT}. */
   public static <K, V> Cache<K, V> withCapacity(final int capacity) {
-    return new ConcurrentSoftCache<>(capacity);
+    return CachePolicy.SOFT.create(capacity);
 //    return new LRUCache<K, V>(capacity);
 //    return new ConcurrentLRUCache<K, V>(capacity, LRU);
 //    return new ConcurrentLRUCache<K, V>(capacity, SECOND_CHANCE);
@@ -33,4 +33,52 @@ public class Caches {
 //    return new WeakHashMapCache<K, V>(capacity);
 //    return new UnboundedCache<K, V>(capacity);
   }
+
+  /**
+   * Creates a {@link Cache} described by {@code spec} of the form {@code <policy>[:<capacity>]}
+   * (e.g., {@code "tiny_lfu:50000"}, {@code "lru"} or {@code "disabled"}), where
+   * {@code <policy>} is the case insensitive name of a {@link CachePolicy}.
+   * @param defaultCapacity capacity if {@code spec} doesn't specify one
+   * @throws IllegalArgumentException if {@code spec} is malformed
+   */
+  public static <K, V> Cache<K, V> fromSpec(final String spec, final int defaultCapacity) {
+    return policyOf(spec).create(capacityOf(spec, defaultCapacity));
+  }
+
+  /**
+   * @return the {@link CachePolicy} of {@code spec}
+   * @throws IllegalArgumentException if {@code spec} is malformed
+   * @see #fromSpec(String, int)
+   */
+  public static CachePolicy policyOf(final String spec) {
+    final int colon = spec.indexOf(':');
+    final String policyName = (colon < 0 ? spec : spec.substring(0, colon)).trim();
+    try {
+      return CachePolicy.valueOf(policyName.toUpperCase().replace('-', '_'));
+    } catch (IllegalArgumentException iae) {
+      throw new IllegalArgumentException("unknown cache policy \""+policyName+"\" in \""+spec+"\"", iae);
+    }
+  }
+
+  /**
+   * @return the capacity of {@code spec}, or {@code defaultCapacity} if it doesn't specify one
+   * @throws IllegalArgumentException if {@code spec} is malformed
+   * @see #fromSpec(String, int)
+   */
+  public static int capacityOf(final String spec, final int defaultCapacity) {
+    final int colon = spec.indexOf(':');
+    if (colon < 0) {
+      return defaultCapacity;
+    }
+    final int capacity;
+    try {
+      capacity = Integer.parseInt(spec.substring(colon + 1).trim());
+    } catch (NumberFormatException nfe) {
+      throw new IllegalArgumentException("malformed cache capacity in \""+spec+"\"", nfe);
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("negative cache capacity in \""+spec+"\"");
+    }
+    return capacity;
+  }
 }
\ No newline at end of file
@@ -25,27 +25,27 @@ import static java.lang.Math.exp;
 import static java.lang.Math.log;
 import static java.lang.Math.max;
 import static java.lang.Math.pow;
-import static java.util.Arrays.copyOf;
 
 import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicStampedReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * A thread-safe Bloom filter implementation that uses a restricted version of the
- * {@link Set} interface. All mutative operations are implemented by making a fresh
- * copy of the underlying array. The set does not support traversal or removal
- * operations and may report false positives on membership queries.
+ * A thread-safe, lock-free Bloom filter implementation that uses a restricted version of the
+ * {@link Set} interface. The set does not support traversal or removal operations and may
+ * report false positives on membership queries.
  * <p>
- * The copy-on-write model is ordinarily too costly, but due to the high read/write
- * ratio common to Bloom filters this may be <em>more</em> efficient than alternatives
- * when membership operations vastly out number mutations. It is useful when you cannot
- * or do not want to synchronize membership queries, yet need to preclude interference
- * among concurrent threads.
+ * The bits are stored in an {@link AtomicLongArray}: {@link #add(Object)} sets each bit
+ * with a compare-and-set (retried only if another thread changed the same word meanwhile) and
+ * {@link #contains(Object)} is a plain sequence of volatile reads, so any number of threads can
+ * add and query concurrently without locking, copying or contention beyond that of the words
+ * they share.  An element is guaranteed to be {@link #contains(Object) contained} once an
+ * {@code add} of it has returned; {@link #size()} is exact only in the absence of concurrent
+ * {@code add}s of colliding elements, and elements added concurrently with a {@link #clear()}
+ * may or may not survive it.
  * <p>
  * A Bloom filter is a space and time efficient probabilistic data structure that is used
  * to test whether an element is a member of a set. False positives are possible, but false
@@ -57,12 +57,13 @@ import java.util.concurrent.locks.ReentrantLock;
  * @author <a href="mailto:ben.manes@gmail.com">Ben Manes</a>
  */
 public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
-  private final AtomicStampedReference<long[]> ref;
+  private volatile AtomicLongArray words;
+  private final AtomicInteger size;
+  private final Hasher<? super E> hasher;
   private final float probability;
   private final int capacity;
   private final int length;
   private final int hashes;
-  private final Lock lock;
   private final int bits;
 
   /**
@@ -74,16 +75,30 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
    * @param probability The acceptable false positive probability for membership queries.
    */
   public ConcurrentBloomFilter(int capacity, float probability) {
+    this(capacity, probability, Object::hashCode);
+  }
+
+  /**
+   * Creates a Bloom filter that can store up to an expected maximum capacity with an acceptable probability
+   * that a membership query will result in a false positive. The filter will size itself based on the given
+   * parameters.
+   *
+   * @param capacity    The expected maximum number of elements to be inserted into the Bloom filter.
+   * @param probability The acceptable false positive probability for membership queries.
+   * @param hasher
+   */
+  public ConcurrentBloomFilter(int capacity, float probability, final Hasher<? super E> hasher) {
     if ((capacity <= 0) || (probability <= 0) || (probability >= 1)) {
       throw new IllegalArgumentException();
     }
+    this.hasher = hasher;
     this.capacity = max(capacity, Long.SIZE);
     this.bits = bits(capacity, probability);
     this.length = bits / Long.SIZE;
-    this.lock = new ReentrantLock();
     this.hashes = numberOfHashes(capacity, bits);
     this.probability = probability(hashes, capacity, bits);
-    this.ref = new AtomicStampedReference<>(new long[length], 0);
+    this.words = new AtomicLongArray(length);
+    this.size = new AtomicInteger();
   }
 
   /**
@@ -150,29 +165,23 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
 
   @Override
   public int size() {
-    return ref.getStamp();
+    return size.get();
   }
 
   @Override
   public void clear() {
-    lock.lock();
-    try {
-      ref.set(new long[length], 0);
-    } finally {
-      lock.unlock();
-    }
+    words = new AtomicLongArray(length);
+    size.set(0);
   }
 
   @Override
   public boolean contains(final Object o) {
-    final int[] size = new int[1];
-    final long[] words = ref.get(size);
-    if (size[0] == 0) {
-      return false;
-    }
-    final int[] indexes = indexes(o);
-    for (int index : indexes) {
-      if (! getAt(index, words)) {
+    // no size() == 0 shortcut: a concurrent add of o may have set o's bits, but not yet incremented size
+    final AtomicLongArray words = this.words;
+    final int h1 = hash(hasher.hashCode(o));
+    final int h2 = secondHash(h1);
+    for (int i = 0; i < hashes; i++) {
+      if (! getAt(indexValue(h1, h2, i), words)) {
         return false;
       }
     }
@@ -181,21 +190,15 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
 
   @Override
   public boolean add(final E o) {
-    final int[] indexes = indexes(o);
+    final AtomicLongArray words = this.words;
+    final int h1 = hash(hasher.hashCode(o));
+    final int h2 = secondHash(h1);
     boolean added = false;
-    lock.lock();
-    try {
-      final int[] size = new int[1];
-      final long[] words = copyOf(ref.get(size), length);
-      assert words.length == length;
-      for (final int index : indexes) {
-        added |= setAt(index, words);
-      }
-      if (added) {
-        ref.set(words, ++size[0]);
-      }
-    } finally {
-      lock.unlock();
+    for (int i = 0; i < hashes; i++) {
+      added |= setAt(indexValue(h1, h2, i), words);
+    }
+    if (added) {
+      size.incrementAndGet();
     }
     return added;
   }
@@ -207,48 +210,43 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
    * @param words The array to lookup in.
    * @return      The flag's value.
    */
-  private boolean getAt(final int index, final long[] words) {
-    //assert index >= 0 && index < bits;
-    final int i = index / Long.SIZE;
-    final int bitIndex = index % Long.SIZE;
-    return (words[i] & (1L << bitIndex)) != 0;
+  private static boolean getAt(final int index, final AtomicLongArray words) {
+    return (words.get(index >>> 6) & (1L << index)) != 0;
   }
 
   /**
-   * Sets the flag stored at the index location in the given array.
+   * Atomically sets the flag stored at the index location in the given array.
    *
    * @param index The bit location of the flag.
    * @param words The array to update.
-   * @return      If updated.
+   * @return      If updated (by this thread).
    */
-  private boolean setAt(final int index, final long[] words) {
-    //assert index >= 0 && index < bits;
-    final int i = index / Long.SIZE;
-    final int bitIndex = index % Long.SIZE;
-    final long mask = (1L << bitIndex);
-    if ((words[i] & mask) == 0) {
-      words[i] |= mask;
-      return true;
+  private static boolean setAt(final int index, final AtomicLongArray words) {
+    final int i = index >>> 6;
+    final long mask = 1L << index;
+    long word;
+    while (((word = words.get(i)) & mask) == 0) {
+      if (words.compareAndSet(i, word, word | mask)) {
+        return true;
+      }
     }
     return false;
   }
 
   /**
-   * Calculates the index position for the object.
-   *
-   * @param o The object.
-   * @return  The index to the bit.
+   * The {@code idx}th of the k hash functions' values, {@code h1 + idx * h2}, used % bits (Kirsch and
+   * Mitzenmacher's double hashing; unlike hashing {@code h + idx}, elements with adjacent hash codes, e.g.,
+   * sequential {@code Integer}s, don't share bits).
    */
-  private int[] indexes(Object o) {
-    final int h = o.hashCode();
-    final int[] indexes = new int[hashes];
-    for (int i = 0; i < hashes; i++) {
-      // each of the k hash functions' values will be used % bits
-      // each hash is formed by simply adding and i to the base
-      // hash h and hashing that sum
-      indexes[i] = abs(hash(h + i)) % bits;
-    }
-    return indexes;
+  private int indexValue(final int h1, final int h2, final int idx) {
+    return abs((h1 + idx * h2) % bits);
+  }
+
+  /**
+   * @return the step between successive hash function values
+   */
+  private int secondHash(final int h1) {
+    return hash(h1 ^ 0x5bd1e995) | 1;
   }
 
   /**
@@ -276,23 +274,18 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
     } else if (!(o instanceof ConcurrentBloomFilter<?>)) {
       return false;
     }
-    ConcurrentBloomFilter<?> filter = (ConcurrentBloomFilter<?>) o;
-    int[] size1 = new int[1];
-    int[] size2 = new int[1];
-    long[] words1 = ref.get(size1);
-    long[] words2 = filter.ref.get(size2);
-    return (size1[0] == size2[0]) && Arrays.equals(words1, words2);
+    final ConcurrentBloomFilter<?> filter = (ConcurrentBloomFilter<?>) o;
+    return (size() == filter.size()) && Arrays.equals(toArray(words), toArray(filter.words));
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(ref.getReference());
+    return Arrays.hashCode(toArray(words));
   }
 
   @Override
   public String toString() {
-    final int size[] = new int[1];
-    final long[] words = ref.get(size);
+    final long[] words = toArray(this.words);
     return new StringBuilder("{").
       append("probability=").
       append(probability).
@@ -304,7 +297,7 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
       append(capacity).
       append(", ").
       append("size=").
-      append(size[0]).
+      append(size()).
       append(", ").
       append("bits=").
       append(bits).
@@ -318,6 +311,17 @@ public final class ConcurrentBloomFilter<E> extends AbstractSet<E> {
       toString();
   }
 
+  /**
+   * @return a snapshot of the words, which is consistent only in the absence of concurrent mutations
+   */
+  private static long[] toArray(final AtomicLongArray words) {
+    final long[] array = new long[words.length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = words.get(i);
+    }
+    return array;
+  }
+
   /**
    * Calculates the population count, the number of one-bits, in the words.
    *
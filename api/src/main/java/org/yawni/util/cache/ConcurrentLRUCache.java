@@ -27,16 +27,17 @@ class ConcurrentLRUCache<K, V> implements Cache<K, V> {
   private static final long serialVersionUID = 1L;
 
   private final ConcurrentLinkedHashMap<K, V> backingMap;
+  private final StatsCounter stats = new StatsCounter();
   protected final int capacity;
 
   public ConcurrentLRUCache(final int capacity, final EvictionPolicy evictionPolicy) {
     this.capacity = capacity;
-    this.backingMap = ConcurrentLinkedHashMap.create(evictionPolicy, capacity);
+    this.backingMap = ConcurrentLinkedHashMap.create(evictionPolicy, capacity,
+      (K key, V value) -> stats.recordEviction());
   }
 
   public ConcurrentLRUCache(final int capacity) {
-    this.capacity = capacity;
-    this.backingMap = ConcurrentLinkedHashMap.create(FIFO, capacity);
+    this(capacity, FIFO);
   }
 
   @Override
@@ -46,11 +47,16 @@ class ConcurrentLRUCache<K, V> implements Cache<K, V> {
 
   @Override
   public V get(K key) {
-    return backingMap.get(key);
+    return stats.record(backingMap.get(key));
   }
 
   @Override
   public void clear() {
     backingMap.clear();
   }
+
+  @Override
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
 }
\ No newline at end of file
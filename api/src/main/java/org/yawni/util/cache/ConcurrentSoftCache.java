@@ -38,10 +38,8 @@ class ConcurrentSoftCache<K, V> implements Cache<K, V> {
       //.initialCapacity(initialCapacity)
       // use "initialCapacity" as a maximumSize because softValues don't seem to be cleared quick enough under load
       .maximumSize(initialCapacity)
-      .softValues();
-    if (log.isDebugEnabled()) {
-      builder.recordStats();
-    }
+      .softValues()
+      .recordStats();
     backingCache = builder.build();
   }
 
@@ -69,4 +67,10 @@ class ConcurrentSoftCache<K, V> implements Cache<K, V> {
   public void clear() {
     backingCache.invalidateAll();
   }
+
+  @Override
+  public CacheStats stats() {
+    final com.google.common.cache.CacheStats stats = backingCache.stats();
+    return new CacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount());
+  }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+/**
+ * A {@code Cache} which stores nothing; every {@link #get(Object)} is a miss.
+ * Useful to measure the performance of uncached code paths, or when
+ * cached values are rarely reused.
+ */
+class DisabledCache<K, V> implements Cache<K, V> {
+  private final StatsCounter stats = new StatsCounter();
+
+  @Override
+  public V put(K key, V value) {
+    return null;
+  }
+
+  @Override
+  public V get(K key) {
+    return stats.record(null);
+  }
+
+  @Override
+  public void clear() {
+  }
+
+  @Override
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
+}
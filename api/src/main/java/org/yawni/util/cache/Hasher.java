@@ -16,6 +16,7 @@
  */
 package org.yawni.util.cache;
 
+import java.io.OutputStream;
 import java.io.Serializable;
 
 /**
@@ -27,4 +28,13 @@ public interface Hasher<E> extends Serializable {
    * otherwise delegating to {@link Object#hashCode()}.
    */
   int hashCode(Object e);
+
+  /**
+   * Identifies this hash function in the binary format of {@link BloomFilter#write(OutputStream)}, which is
+   * only readable with a {@code Hasher} of the same id; override with a constant which doesn't change when
+   * classes are renamed.
+   */
+  default String id() {
+    return getClass().getName();
+  }
 }
\ No newline at end of file
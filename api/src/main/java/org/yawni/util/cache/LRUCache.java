@@ -31,6 +31,7 @@ class LRUCache<K, V> implements Cache<K, V> {
   //private static final boolean accessOrder = false; // means insertion-order (FIFO)
 
   private final LinkedHashMap<K, V> backingMap;
+  private final StatsCounter stats = new StatsCounter();
   protected final int capacity;
 
   public LRUCache(final int capacity) {
@@ -40,7 +41,11 @@ class LRUCache<K, V> implements Cache<K, V> {
       @Override
       protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
         // Return true to cause the oldest elm to be removed
-        return size() > capacity;
+        if (size() > capacity) {
+          stats.recordEviction();
+          return true;
+        }
+        return false;
       }
     };
     // actual capacity (ie max size)
@@ -56,11 +61,16 @@ class LRUCache<K, V> implements Cache<K, V> {
 
   @Override
   public synchronized V get(final K key) {
-    return backingMap.get(key);
+    return stats.record(backingMap.get(key));
   }
 
   @Override
   public synchronized void clear() {
     backingMap.clear();
   }
+
+  @Override
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
 }
\ No newline at end of file
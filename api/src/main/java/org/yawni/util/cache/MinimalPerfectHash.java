@@ -0,0 +1,176 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A <a href="https://en.wikipedia.org/wiki/Perfect_hash_function">minimal perfect hash function</a>
+ * over a static set of {@code n} distinct 64-bit key hashes: each key maps to a distinct slot in {@code [0, n)}.
+ * Keys which are not in the set map to an arbitrary slot, so callers typically store the key (or a reference to
+ * it) per slot and verify it with a single comparison.
+ *
+ * <p> This uses the "hash, displace, and compress" (CHD) scheme: keys are partitioned into small
+ * buckets, and buckets (largest first) are each assigned the first displacement value which places all of their
+ * keys in free slots.  Only one {@code int} displacement per bucket is stored, about 8 bits per key.
+ *
+ * @see <a href="http://cmph.sourceforge.net/papers/esa09.pdf">Hash, displace, and compress</a>
+ */
+public final class MinimalPerfectHash {
+  /** average number of keys per bucket */
+  private static final int LAMBDA = 4;
+  private static final int MAX_DISPLACEMENT = 1 << 24;
+
+  private final int size;
+  private final int[] displacements;
+
+  private MinimalPerfectHash(final int size, final int[] displacements) {
+    this.size = size;
+    this.displacements = displacements;
+  }
+
+  /**
+   * @param keyHashes distinct, well-distributed 64-bit hashes of the keys
+   * @throws IllegalArgumentException if {@code keyHashes} contains duplicates
+   * @throws IllegalStateException in the (astronomically unlikely) event a bucket can't be placed
+   */
+  public static MinimalPerfectHash build(final long[] keyHashes) {
+    final int size = keyHashes.length;
+    final long[] sorted = keyHashes.clone();
+    Arrays.sort(sorted);
+    for (int i = 1; i < size; i++) {
+      if (sorted[i - 1] == sorted[i]) {
+        throw new IllegalArgumentException("duplicate key hash "+sorted[i]);
+      }
+    }
+    final int numBuckets = Math.max(1, (size + LAMBDA - 1) / LAMBDA);
+    final List<List<Long>> buckets = new ArrayList<>(numBuckets);
+    for (int i = 0; i < numBuckets; i++) {
+      buckets.add(new ArrayList<Long>(LAMBDA));
+    }
+    for (final long keyHash : keyHashes) {
+      buckets.get(bucket(keyHash, numBuckets)).add(keyHash);
+    }
+    final Integer[] order = new Integer[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      order[i] = i;
+    }
+    // place the largest buckets while most slots are still free
+    Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+    final int[] displacements = new int[numBuckets];
+    final boolean[] taken = new boolean[size];
+    final int[] slots = new int[buckets.get(order[0]).size()];
+    for (final int b : order) {
+      final List<Long> bucket = buckets.get(b);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      for (int d = 0; ; d++) {
+        if (d == MAX_DISPLACEMENT) {
+          throw new IllegalStateException("can't place bucket of size "+bucket.size());
+        }
+        int placed = 0;
+        for (final long keyHash : bucket) {
+          final int slot = slot(keyHash, d, size);
+          if (taken[slot] || contains(slots, placed, slot)) {
+            break;
+          }
+          slots[placed++] = slot;
+        }
+        if (placed == bucket.size()) {
+          for (int i = 0; i < placed; i++) {
+            taken[slots[i]] = true;
+          }
+          displacements[b] = d;
+          break;
+        }
+      }
+    }
+    return new MinimalPerfectHash(size, displacements);
+  }
+
+  /**
+   * @return slot in {@code [0, size())} of {@code keyHash}; distinct for each key
+   * this was built with, arbitrary otherwise
+   */
+  public int indexOf(final long keyHash) {
+    return slot(keyHash, displacements[bucket(keyHash, displacements.length)], size);
+  }
+
+  /** @return number of keys, i.e., slots */
+  public int size() {
+    return size;
+  }
+
+  public void write(final DataOutput output) throws IOException {
+    output.writeInt(size);
+    output.writeInt(displacements.length);
+    for (final int displacement : displacements) {
+      output.writeInt(displacement);
+    }
+  }
+
+  public static MinimalPerfectHash read(final DataInput input) throws IOException {
+    final int size = input.readInt();
+    final int[] displacements = new int[input.readInt()];
+    for (int i = 0; i < displacements.length; i++) {
+      displacements[i] = input.readInt();
+    }
+    return new MinimalPerfectHash(size, displacements);
+  }
+
+  private static int bucket(final long keyHash, final int numBuckets) {
+    return (int) ((keyHash >>> 1) % numBuckets);
+  }
+
+  private static int slot(final long keyHash, final int displacement, final int size) {
+    if (size == 0) {
+      return 0;
+    }
+    return (int) ((mix(keyHash + displacement * 0x9e3779b97f4a7c15L) >>> 1) % size);
+  }
+
+  private static boolean contains(final int[] slots, final int length, final int slot) {
+    for (int i = 0; i < length; i++) {
+      if (slots[i] == slot) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** MurmurHash3 64-bit finalizer */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "[MinimalPerfectHash size: "+size+" buckets: "+displacements.length+"]";
+  }
+}
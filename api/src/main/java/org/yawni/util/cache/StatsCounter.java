@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, low contention counters for the {@link CacheStats} of {@link Cache} implementations
+ * which don't record their own.
+ */
+final class StatsCounter {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Records the outcome of a {@link Cache#get(Object)}.
+   * @return {@code value}
+   */
+  <V> V record(final V value) {
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  void recordEviction() {
+    evictions.increment();
+  }
+
+  CacheStats snapshot() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+  }
+}
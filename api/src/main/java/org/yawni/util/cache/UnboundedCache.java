@@ -28,6 +28,7 @@ class UnboundedCache<K, V> implements Cache<K, V> {
   private static final long serialVersionUID = 1L;
   
   private final Map<K, V> backingMap;
+  private final StatsCounter stats = new StatsCounter();
 
   public UnboundedCache(final int initialCapacity) {
     this.backingMap = new HashMap<>(initialCapacity);
@@ -40,11 +41,16 @@ class UnboundedCache<K, V> implements Cache<K, V> {
 
   @Override
   public synchronized V get(K key) {
-    return backingMap.get(key);
+    return stats.record(backingMap.get(key));
   }
 
   @Override
   public synchronized void clear() {
     backingMap.clear();
   }
+
+  @Override
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ class WeakHashMapCache<K, V> implements Cache<K, V> {
   private static final long serialVersionUID = 1L;
 
   private final WeakHashMap<K, V> backingMap;
+  private final StatsCounter stats = new StatsCounter();
 
   public WeakHashMapCache(final int initialCapacity) {
     this.backingMap = new WeakHashMap<>(initialCapacity);
@@ -38,11 +39,16 @@ class WeakHashMapCache<K, V> implements Cache<K, V> {
 
   @Override
   public synchronized V get(K key) {
-    return backingMap.get(key);
+    return stats.record(backingMap.get(key));
   }
 
   @Override
   public synchronized void clear() {
     backingMap.clear();
   }
+
+  @Override
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Strategies for finding line breaks and spaces in the content of a WordNet file.
+ * Only absolute {@code get}s are used, so scanning is safe to do concurrently on a shared buffer.
+ *
+ * <p> {@link #SWAR} ("SIMD within a register") examines 8 bytes at a time using {@code long} arithmetic;
+ * {@link #SCALAR} examines 1 byte at a time.  The default is selected by the system property
+ * {@value #PROPERTY} ({@code swar} or {@code scalar}; default {@code swar}).
+ */
+enum ByteScanner {
+  SCALAR {
+    @Override
+    int indexOfLineBreak(final ByteBuffer buffer, final int from, final int to) {
+      for (int i = from; i < to; i++) {
+        final byte b = buffer.get(i);
+        if (b == '\n' || b == '\r') {
+          return i;
+        }
+      }
+      return to;
+    }
+    @Override
+    int indexOf(final ByteBuffer buffer, final int from, final int to, final byte target) {
+      for (int i = from; i < to; i++) {
+        if (buffer.get(i) == target) {
+          return i;
+        }
+      }
+      return to;
+    }
+  },
+  SWAR {
+    @Override
+    int indexOfLineBreak(final ByteBuffer buffer, final int from, final int to) {
+      final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+      int i = from;
+      for (; i + 8 <= to; i += 8) {
+        final long word = buffer.getLong(i);
+        final long found = zeroBytes(word ^ NEWLINES) | zeroBytes(word ^ CARRIAGE_RETURNS);
+        if (found != 0) {
+          return i + firstByte(found, bigEndian);
+        }
+      }
+      return SCALAR.indexOfLineBreak(buffer, i, to);
+    }
+    @Override
+    int indexOf(final ByteBuffer buffer, final int from, final int to, final byte target) {
+      final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+      final long pattern = broadcast(target);
+      int i = from;
+      for (; i + 8 <= to; i += 8) {
+        final long found = zeroBytes(buffer.getLong(i) ^ pattern);
+        if (found != 0) {
+          return i + firstByte(found, bigEndian);
+        }
+      }
+      return SCALAR.indexOf(buffer, i, to, target);
+    }
+  };
+
+  static final String PROPERTY = "yawni.wordnet.scanner";
+
+  private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+  private static final long NEWLINES = broadcast((byte) '\n');
+  private static final long CARRIAGE_RETURNS = broadcast((byte) '\r');
+
+  /**
+   * @return offset of the first {@code '\n'} or {@code '\r'} in [{@code from}, {@code to}), or {@code to}
+   */
+  abstract int indexOfLineBreak(ByteBuffer buffer, int from, int to);
+
+  /**
+   * @return offset of the first {@code target} in [{@code from}, {@code to}), or {@code to}
+   */
+  abstract int indexOf(ByteBuffer buffer, int from, int to, byte target);
+
+  /**
+   * @return the {@code ByteScanner} named by system property {@value #PROPERTY}, or {@link #SWAR}
+   */
+  static ByteScanner fromSystemProperty() {
+    final String name = System.getProperty(PROPERTY);
+    return name == null ? SWAR : valueOf(name.toUpperCase());
+  }
+
+  private static long broadcast(final byte b) {
+    return (b & 0xffL) * 0x0101010101010101L;
+  }
+
+  /**
+   * @return {@code long} whose bytes have their high bit set iff the corresponding byte of {@code x} is 0;
+   * exact (unlike the shorter {@code (x - 0x01..) & ~x & 0x80..}, which can flag bytes following a 0 byte)
+   */
+  private static long zeroBytes(final long x) {
+    return ~(((x & LOW_7_BITS) + LOW_7_BITS) | x | LOW_7_BITS);
+  }
+
+  /** @return index, in memory order, of the first byte flagged in {@code found} */
+  private static int firstByte(final long found, final boolean bigEndian) {
+    return (bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found)) >>> 3;
+  }
+}
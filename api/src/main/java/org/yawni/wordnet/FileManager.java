@@ -20,12 +20,15 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Closeables;
+import org.yawni.util.AsciiCharSequence;
 import org.yawni.util.CharSequences;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
@@ -38,6 +41,7 @@ import java.nio.channels.FileChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import org.yawni.util.LightImmutableList;
 
@@ -48,9 +52,22 @@ import org.yawni.util.LightImmutableList;
  * in order to eliminate the redundant I/O activity that a naïve implementation
  * of these methods would necessitate.
  *
- * <p> Instances of this class are guarded; all operations are read-only, but
- * are synchronized per file to maintain state including the file pointers'
- * position.
+ * <p> Instances of this class are thread-safe; all operations are read-only.
+ * The hot search and read paths address the shared, read-only file content by
+ * absolute offset (each call uses its own local cursor), so concurrent lookups
+ * don't contend on a per-file lock.
+ *
+ * <p> In <em>line index</em> mode (see {@link #FileManager(boolean)}), sorted files are
+ * searched using a {@link LineIndex}, a table of line start offsets, which is
+ * read from a precomputed {@code <fileName>.lines} sidecar if available, or
+ * computed on first use.
+ *
+ * <p> In <em>lemma index</em> mode, {@link #getExactLinePointer(CharSequence, String)}
+ * of {@code index.<em>pos</em>} files uses a {@link LemmaIndex}, a minimal perfect hash
+ * of each line's first word, to find a line in constant time; the {@code LemmaIndex} is
+ * similarly read from a {@code <fileName>.mph} sidecar or computed on first use.
+ *
+ * <p> A {@code FileManager} can also read everything from a {@link Snapshot} (see {@link #FileManager(Snapshot)}).
  */
 final class FileManager implements FileManagerInterface {
   private static final Logger log = LoggerFactory.getLogger(FileManager.class);
@@ -58,26 +75,23 @@ final class FileManager implements FileManagerInterface {
 //  private String searchDirectory;
   private final Map<String, Optional<CharStream>> fileNameCache = Maps.newConcurrentMap();
 
+  /**
+   * Remembers the offset of the line following the most recently read line.
+   * Instances are confined to a single thread (see {@link #nextLineOffsetCache})
+   * so no synchronization is required.
+   */
   static class NextLineOffsetCache {
     private String fileName;
     private int previous;
     private int next;
 
-    /**
-     * synchronization keeps this consistent since multiple fileName's may call
-     * this at the same time
-     */
-    synchronized void setNextLineOffset(final String fileName, final int previous, final int next) {
+    void setNextLineOffset(final String fileName, final int previous, final int next) {
       this.fileName = fileName;
       this.previous = previous;
       this.next = next;
     }
 
-    /**
-     * synchronization keeps this consistent since multiple fileName's may call
-     * this at the same time
-     */
-    synchronized int matchingOffset(final String fileName, final int offset) {
+    int matchingOffset(final String fileName, final int offset) {
       if (this.fileName == null ||
           previous != offset ||
           ! this.fileName.equals(fileName)
@@ -88,7 +102,25 @@ final class FileManager implements FileManagerInterface {
       }
     }
   } // end class NextLineOffsetCache
-  private final NextLineOffsetCache nextLineOffsetCache = new NextLineOffsetCache();
+  private final ThreadLocal<NextLineOffsetCache> nextLineOffsetCache = ThreadLocal.withInitial(NextLineOffsetCache::new);
+
+  /**
+   * System property which enables line index mode for {@link #FileManager()}.
+   */
+  static final String LINE_INDEX_PROPERTY = "yawni.wordnet.lineIndex";
+  private final boolean useLineIndex;
+  private final Map<String, LineIndex> lineIndexCache = Maps.newConcurrentMap();
+  /**
+   * System property which enables lemma index mode for {@link #FileManager()}.
+   */
+  static final String LEMMA_INDEX_PROPERTY = "yawni.wordnet.lemmaIndex";
+  private final boolean useLemmaIndex;
+  /** absent value means the {@code LemmaIndex} couldn't be built */
+  private final Map<String, Optional<LemmaIndex>> lemmaIndexCache = Maps.newConcurrentMap();
+  /** {@code null} unless files are read from a {@link Snapshot} */
+  private final Snapshot snapshot;
+  /** see {@link #countBytesScanned(LongAdder)} */
+  private volatile LongAdder bytesScanned;
 
   //
   // Constructors
@@ -100,6 +132,40 @@ final class FileManager implements FileManagerInterface {
    */
   public FileManager() {
 //    this(getWNSearchDir());
+    this(Boolean.getBoolean(LINE_INDEX_PROPERTY), Boolean.getBoolean(LEMMA_INDEX_PROPERTY));
+  }
+
+  /**
+   * @param useLineIndex if {@code true}, {@link #getIndexedLinePointer(CharSequence, int, String, boolean)}
+   * binary searches a {@link LineIndex} of the file rather than its raw bytes
+   */
+  FileManager(final boolean useLineIndex) {
+    this(useLineIndex, false);
+  }
+
+  /**
+   * @param useLineIndex if {@code true}, {@link #getIndexedLinePointer(CharSequence, int, String, boolean)}
+   * binary searches a {@link LineIndex} of the file rather than its raw bytes
+   * @param useLemmaIndex if {@code true}, {@link #getExactLinePointer(CharSequence, String)} of
+   * {@code index.<em>pos</em>} files uses a {@link LemmaIndex}
+   */
+  FileManager(final boolean useLineIndex, final boolean useLemmaIndex) {
+    this(useLineIndex, useLemmaIndex, null);
+  }
+
+  /**
+   * Construct a {@code FileManager} which reads files, and their precomputed {@link LineIndex}es and
+   * {@link LemmaIndex}es, from {@code snapshot} (in line index and lemma index mode); files the snapshot
+   * doesn't contain are looked for in the usual places.
+   */
+  FileManager(final Snapshot snapshot) {
+    this(true, true, snapshot);
+  }
+
+  private FileManager(final boolean useLineIndex, final boolean useLemmaIndex, final Snapshot snapshot) {
+    this.useLineIndex = useLineIndex;
+    this.useLemmaIndex = useLemmaIndex;
+    this.snapshot = snapshot;
   }
 
   /**
@@ -175,15 +241,25 @@ final class FileManager implements FileManagerInterface {
 
   /**
    * Primary abstraction of file content used in {@code FileManager}.
-   * NOTE: CharStream is stateful (i.e., not thread-safe)
+   * NOTE: the cursor-based methods ({@link #seek}, {@link #readLine}, etc.) are
+   * stateful (i.e., not thread-safe); the methods which take an absolute offset
+   * (e.g., {@link #lineEnd}, {@link #lineAt}) keep their cursor in local
+   * variables and may be called concurrently provided {@link #charAt} is
+   * thread-safe.
    */
   static abstract class CharStream implements CharSequence {
     protected final String fileName;
-    protected final StringBuilder stringBuffer;
+    /** if not {@code null}, accumulates the number of bytes {@link #lineEnd(int)} and {@link #wordEnd(int, int)} examine */
+    LongAdder bytesScanned;
     /** Force subclasses to call this */
     CharStream(final String fileName) {
       this.fileName = fileName;
-      this.stringBuffer = new StringBuilder();
+    }
+    final void countScanned(final int numBytes) {
+      final LongAdder counter = bytesScanned;
+      if (counter != null) {
+        counter.add(numBytes);
+      }
     }
     abstract void seek(final int position) throws IOException;
     abstract int position() throws IOException;
@@ -195,12 +271,95 @@ final class FileManager implements FileManagerInterface {
     public abstract int length();
     @Override
     public CharSequence subSequence(int s, int e) {
-      final boolean doBuffer = true;
-      resetBuffer(doBuffer);
+      return substring(s, e);
+    }
+    /**
+     * Returns content [{@code s}, {@code e}) as a {@code CharSequence} which may be a
+     * view of this stream's content rather than a copy; uses no shared state.
+     */
+    CharSequence view(final int s, final int e) {
+      return substring(s, e);
+    }
+    /** Returns content [{@code s}, {@code e}) as a {@code String}; uses no shared state */
+    String substring(final int s, final int e) {
+      final char[] chars = new char[e - s];
       for (int i = s; i < e; i++) {
-        stringBuffer.append(charAt(i));
+        chars[i - s] = charAt(i);
+      }
+      return new String(chars);
+    }
+    /**
+     * Returns exclusive end of the line content starting at {@code offset}, i.e.,
+     * the offset of its line delimiter ({@code "\r\n"|"\r"|"\n"}) or {@link #length()},
+     * whichever comes first.
+     */
+    int lineEnd(final int offset) {
+      final int len = length();
+      int i = offset;
+      while (i < len) {
+        final char c = charAt(i);
+        if (c == '\n' || c == '\r') {
+          break;
+        }
+        i++;
+      }
+      countScanned(i - offset);
+      return i;
+    }
+    /**
+     * Returns offset of the start of the line following the line delimiter at
+     * {@code lineEnd} (as returned by {@link #lineEnd(int)}), or {@link #length()}.
+     */
+    int nextLineStart(final int lineEnd) {
+      final int len = length();
+      if (lineEnd >= len) {
+        return len;
       }
-      return stringBuffer.toString();
+      if (charAt(lineEnd) == '\r' && lineEnd + 1 < len && charAt(lineEnd + 1) == '\n') {
+        return lineEnd + 2;
+      }
+      return lineEnd + 1;
+    }
+    /** Returns offset of the start of the line following the line containing {@code offset} */
+    int nextLineOffset(final int offset) {
+      return nextLineStart(lineEnd(offset));
+    }
+    /**
+     * Returns exclusive end of the first space delimited word of the line
+     * spanning [{@code offset}, {@code lineEnd}).
+     */
+    int wordEnd(final int offset, final int lineEnd) {
+      for (int i = offset; i < lineEnd; i++) {
+        if (charAt(i) == ' ') {
+          countScanned(i - offset);
+          return i;
+        }
+      }
+      countScanned(lineEnd - offset);
+      return lineEnd;
+    }
+    /**
+     * Stateless analog of {@code seek(offset); readLine()}.
+     * @return the line starting at {@code offset} or {@code null} if it's empty
+     */
+    String lineAt(final int offset) {
+      final int e = lineEnd(offset);
+      if ((e - offset) <= 0) {
+        return null;
+      }
+      return substring(offset, e);
+    }
+    /**
+     * Stateless analog of {@code seek(offset); readLineWord()}.
+     * @return first space delimited word of the line spanning [{@code offset}, {@code lineEnd})
+     * or {@code null} if the line is empty
+     * @see #view(int, int)
+     */
+    CharSequence lineWordAt(final int offset, final int lineEnd) {
+      if ((lineEnd - offset) <= 0) {
+        return null;
+      }
+      return view(offset, wordEnd(offset, lineEnd));
     }
     /**
      * This works just like {@link RandomAccessFile#readLine} -- doesn't
@@ -237,11 +396,6 @@ final class FileManager implements FileManagerInterface {
       }
       return readLine();
     }
-    protected void resetBuffer(final boolean doBuffer) {
-      if (doBuffer) {
-        stringBuffer.setLength(0);
-      }
-    }
   } // end class CharStream
 
   /**
@@ -263,7 +417,7 @@ final class FileManager implements FileManagerInterface {
       return (int) raf.getFilePointer();
     }
     @Override
-    public char charAt(int position) {
+    public synchronized char charAt(int position) {
       try {
         seek(position);
         return (char)raf.readByte();
@@ -272,7 +426,7 @@ final class FileManager implements FileManagerInterface {
       }
     }
     @Override
-    public int length() {
+    public synchronized int length() {
       try {
         return (int) raf.length();
       } catch (IOException ioe) {
@@ -293,6 +447,8 @@ final class FileManager implements FileManagerInterface {
    * from an {@code FileChannel}. aka {@code mmap CharStream}
    */
   private static class NIOCharStream extends CharStream implements CharSequence {
+    /** selected by system property {@value ByteScanner#PROPERTY} */
+    private static final ByteScanner SCANNER = ByteScanner.fromSystemProperty();
     //FIXME position seems redundant (ByteCharBuffer has position())
     private int position;
     private final ByteBuffer bbuff;
@@ -334,84 +490,54 @@ final class FileManager implements FileManagerInterface {
     public int length() {
       return capacity;
     }
+    // absolute get()s on the shared ByteBuffer don't touch its position, so
+    // these overrides are safe to call concurrently
     @Override
-    String readLine() {
-      final int s = position;
-      final int e = scanForwardToLineBreak(true);
-      if ((e - s) <= 0) {
-        return null;
-      }
-      return stringBuffer.toString();
+    public CharSequence subSequence(final int s, final int e) {
+      return view(s, e);
     }
     @Override
-    void skipLine() {
-      scanForwardToLineBreak();
+    CharSequence view(final int s, final int e) {
+      return new AsciiCharSequence(bbuff, s, e);
     }
     @Override
-    String readLineWord() {
-      final int s = position;
-      bufferUntilSpace();
-      final int e = scanForwardToLineBreak();
-      if ((e - s) <= 0) {
-        return null;
-      }
-      return stringBuffer.toString();
-    }
-    /** Modifies {@code position} field */
-    private int bufferUntilSpace() {
-      // scan from current position to first ' '
-      resetBuffer(true /* doBuffer */);
-      char c;
-      while (position < capacity) {
-        c = charAt(position++);
-        if (c == ' ') {
-          return position - 1;
-        }
-        stringBuffer.append(c);
+    String substring(final int s, final int e) {
+      final char[] chars = new char[e - s];
+      for (int i = s; i < e; i++) {
+        chars[i - s] = (char) bbuff.get(i);
       }
-      return bbuff.capacity();
+      return new String(chars);
     }
-    private int scanForwardToLineBreak() {
-      return scanForwardToLineBreak(false /* don't buffer */);
+    @Override
+    int lineEnd(final int offset) {
+      final int end = SCANNER.indexOfLineBreak(bbuff, offset, capacity);
+      countScanned(end - offset);
+      return end;
     }
-    /**
-     * Returns exclusive offset of next start of the line delimiter, or capacity, whichever comes next.
-     * Modifies {@code position} field, leaving it at start of following line.
-     *
-     * Typical usage is to store current position, s, and e = scanForwardToLineBreak(), line content
-     * is buffer[s, e).  This can be done repeatedly to get sequential lines.
-     */
-    private int scanForwardToLineBreak(final boolean doBuffer) {
-      // scan from current position to first ("\r\n"|"\r"|"\n")
-      boolean done = false;
-      boolean crnl = false;
-      resetBuffer(doBuffer);
-      char c;
-      while (! done && position < capacity) {
-        c = charAt(position++);
-        switch (c) {
-          case '\r':
-            // if next is \n, skip that too
-            c = charAt(position++);
-            if (c != '\n') {
-              // put it back
-              position--;
-            } else {
-              crnl = true;
-            }
-            done = true;
-            break;
-          case '\n':
-            done = true;
-            break;
-          default:
-            if (doBuffer) {
-              stringBuffer.append(c);
-            }
-        }
-      }
-      // return exclusive end chopping line break delimiter(s)
-      return crnl ? position - 2 : position - 1;
+    @Override
+    int wordEnd(final int offset, final int lineEnd) {
+      final int end = SCANNER.indexOf(bbuff, offset, lineEnd, (byte) ' ');
+      countScanned(end - offset);
+      return end;
+    }
+    // stateful cursor methods are implemented with the stateless ones; each
+    // leaves position at the start of the following line
+    @Override
+    String readLine() {
+      final String line = lineAt(position);
+      skipLine();
+      return line;
+    }
+    @Override
+    void skipLine() {
+      position = nextLineOffset(position);
+    }
+    @Override
+    String readLineWord() {
+      final int lineEnd = lineEnd(position);
+      final CharSequence word = lineWordAt(position, lineEnd);
+      position = nextLineStart(lineEnd);
+      return word == null ? null : word.toString();
     }
   } // end class NIOCharStream
 
@@ -461,13 +587,25 @@ final class FileManager implements FileManagerInterface {
    * is relative (else, it's absolute); this facilitates testing and reuse.
    * @return CharStream representing {@code fileName} or null if no such file exists.
    */
-  private synchronized CharStream getFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
+  CharStream getFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
+    // fast path: fileNameCache is a concurrent map so hits don't take a lock
+    final Optional<CharStream> stream = fileNameCache.get(fileName);
+    if (stream != null) {
+      return stream.orElse(null);
+    }
+    return loadFileStream(fileName, fileNameIsWnRelative);
+  }
+
+  private synchronized CharStream loadFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
     Optional<CharStream> stream = fileNameCache.get(fileName);
     if (stream == null) {
       final long start = System.nanoTime();
 
-      stream = Optional.ofNullable(getURLStream(fileName));
-      if (stream.isPresent()) {
+      final ByteBuffer section = snapshot == null ? null : snapshot.section(fileName);
+      stream = Optional.ofNullable(section == null ? getURLStream(fileName) : new NIOCharStream(fileName, section));
+      if (section != null) {
+        log.trace("snapshot CharStream: {}", stream);
+      } else if (stream.isPresent()) {
         log.trace("URLCharStream: {}", stream);
       } else {
         final String pathname =
@@ -490,6 +628,9 @@ final class FileManager implements FileManagerInterface {
         }
       }
 
+      if (stream.isPresent()) {
+        stream.get().bytesScanned = bytesScanned;
+      }
       final long duration = System.nanoTime() - start;
       final long total = streamInitTime += duration;
       log.debug(String.format("total: %,dns curr: %,dns", total, duration));
@@ -503,7 +644,7 @@ final class FileManager implements FileManagerInterface {
     return stream.orElse(null);
   }
 
-  synchronized CharStream getFileStream(final String fileName) throws IOException {
+  CharStream getFileStream(final String fileName) throws IOException {
     return getFileStream(fileName, true);
   }
 
@@ -545,10 +686,51 @@ final class FileManager implements FileManagerInterface {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p> Looks in the {@link Snapshot} (if any), the classpath, or failing that, the WordNet search directory.
+   */
+  @Override
+  public InputStream openSidecar(final String sidecarName) throws IOException {
+    final InputStream section = snapshot == null ? null : snapshot.openSection(sidecarName);
+    if (section != null) {
+      return section;
+    }
+    final InputStream input = getClass().getClassLoader().getResourceAsStream("dict/" + sidecarName);
+    if (input != null) {
+      return input;
+    }
+    final String searchDir = getWNSearchDir();
+    final File file = searchDir == null ? null : new File(searchDir, sidecarName);
+    if (file == null || ! file.canRead()) {
+      return null;
+    }
+    return new FileInputStream(file);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p> i.e., {@code fileName} isn't in the {@link Snapshot} (if any), and is in the classpath.
+   */
+  @Override
+  public boolean isClasspathResource(final String fileName) throws IOException {
+    return getFileStream(fileName) instanceof InputStreamCharStream;
+  }
+
   //
   // Line-based interface methods
   //
 
+  @Override
+  public synchronized void countBytesScanned(final LongAdder counter) {
+    this.bytesScanned = counter;
+    for (final Optional<CharStream> stream : fileNameCache.values()) {
+      if (stream.isPresent()) {
+        stream.get().bytesScanned = counter;
+      }
+    }
+  }
+
   @Override
   public String readLineNumber(final int linenum, final String fileName) throws IOException {
     final CharStream stream = getFileStream(fileName);
@@ -562,42 +744,72 @@ final class FileManager implements FileManagerInterface {
 
   /**
    * {@inheritDoc}
-   * Core search routine.  Only called from within synchronized blocks.
+   * Core search routine.  Lock-free; uses a local cursor.
    */
   @Override
   public String readLineAt(final int offset, final String fileName) throws IOException {
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      stream.seek(offset);
-      final String line = stream.readLine();
+    final int lineEnd = stream.lineEnd(offset);
+    final String line = (lineEnd - offset) <= 0 ? null : stream.substring(offset, lineEnd);
+    final int nextOffset = line == null ? -1 : stream.nextLineStart(lineEnd);
+    nextLineOffsetCache.get().setNextLineOffset(fileName, offset, nextOffset);
+    return line;
+  }
 
-      int nextOffset = stream.position();
-      if (line == null) {
-        nextOffset = -1;
-      }
-      nextLineOffsetCache.setNextLineOffset(fileName, offset, nextOffset);
-      return line;
-    }
+  /**
+   * {@inheritDoc}
+   * Lock-free; uses a local cursor.
+   */
+  @Override
+  public CharSequence readLineViewAt(final int offset, final String fileName) throws IOException {
+    final CharStream stream = getFileStream(fileName);
+    requireStream(stream, fileName);
+    final int lineEnd = stream.lineEnd(offset);
+    final CharSequence line = (lineEnd - offset) <= 0 ? null : stream.view(offset, lineEnd);
+    final int nextOffset = line == null ? -1 : stream.nextLineStart(lineEnd);
+    nextLineOffsetCache.get().setNextLineOffset(fileName, offset, nextOffset);
+    return line;
   }
 
   /**
    * {@inheritDoc}
-   * Core search routine.  Only called from within synchronized blocks.
+   * Core search routine.  Lock-free; uses a local cursor.
    */
   @Override
   public int getNextLinePointer(final int offset, final String fileName) throws IOException {
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      final int next;
-      if (0 <= (next = nextLineOffsetCache.matchingOffset(fileName, offset))) {
-        return next;
-      }
-      stream.seek(offset);
-      stream.skipLine();
-      return stream.position();
+    final int next;
+    if (0 <= (next = nextLineOffsetCache.get().matchingOffset(fileName, offset))) {
+      return next;
+    }
+    return stream.nextLineOffset(offset);
+  }
+
+  /**
+   * {@inheritDoc}
+   * Lock-free.
+   */
+  @Override
+  public int getLineStartPointer(final int offset, final String fileName) throws IOException {
+    final CharStream stream = getFileStream(fileName);
+    requireStream(stream, fileName);
+    if (offset <= 0) {
+      return 0;
+    }
+    if (offset >= stream.length()) {
+      return stream.length();
     }
+    // the line containing offset - 1 ends at or after offset
+    return stream.nextLineOffset(offset - 1);
+  }
+
+  @Override
+  public int getFileLength(final String fileName) throws IOException {
+    final CharStream stream = getFileStream(fileName);
+    requireStream(stream, fileName);
+    return stream.length();
   }
 
   //
@@ -615,22 +827,21 @@ final class FileManager implements FileManagerInterface {
     }
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      stream.seek(offset);
-      do {
-        final String word = stream.readLineWord();
-        final int nextOffset = stream.position();
-        if (word == null) {
-          return -1;
-        }
-        nextLineOffsetCache.setNextLineOffset(fileName, offset, nextOffset);
-        // note the spaces of this 'word' are underscores
-        if (matcher.reset(word).find()) {
-          return offset;
-        }
-        offset = nextOffset;
-      } while (true);
-    }
+    final NextLineOffsetCache nextLineOffsets = nextLineOffsetCache.get();
+    do {
+      final int lineEnd = stream.lineEnd(offset);
+      final CharSequence word = stream.lineWordAt(offset, lineEnd);
+      if (word == null) {
+        return -1;
+      }
+      final int nextOffset = stream.nextLineStart(lineEnd);
+      nextLineOffsets.setNextLineOffset(fileName, offset, nextOffset);
+      // note the spaces of this 'word' are underscores
+      if (matcher.reset(word).find()) {
+        return offset;
+      }
+      offset = nextOffset;
+    } while (true);
   }
 
   // used by prefix search iterator
@@ -668,9 +879,162 @@ final class FileManager implements FileManagerInterface {
     }
     final CharStream stream = getFileStream(fileName, fileNameWnRelative);
     requireStream(stream, fileName);
+    if (useLineIndex) {
+      return getIndexedLinePointer(target, start, stream, getLineIndex(fileName, fileNameWnRelative, stream));
+    }
     return getIndexedLinePointer(target, start, stream);
   }
 
+  /**
+   * Binary search over the lines of {@code stream} described by {@code lines}.  Each probe
+   * compares {@code target} to the first word of a line; line breaks are never scanned for.
+   * Results are identical to {@link #getIndexedLinePointer(CharSequence, int, CharStream)}.
+   */
+  private int getIndexedLinePointer(final CharSequence target, final int start, final CharStream stream, final LineIndex lines) {
+    if (target.length() == 0) {
+      return -1;
+    }
+    int lo = lines.ceilingLine(start);
+    int hi = lines.size() - 1;
+    while (lo <= hi) {
+      final int mid = (lo + hi) >>> 1;
+      final int offset = lines.lineStart(mid);
+      // first word ends at first space; lines of sorted files always contain one
+      final int wordEnd = stream.wordEnd(offset, lines.lineStart(mid + 1));
+      final int compare = compare(target, stream.view(offset, wordEnd));
+      if (compare == 0) {
+        return offset;
+      } else if (compare > 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return -lines.lineStart(lo) - 1;
+  }
+
+  @Override
+  public int getExactLinePointer(final CharSequence target, final String fileName) throws IOException {
+    if (isLemmaIndexed(fileName)) {
+      final CharStream stream = getFileStream(fileName);
+      requireStream(stream, fileName);
+      final LemmaIndex lemmas = getLemmaIndex(fileName, stream);
+      if (lemmas != null) {
+        if (target.length() == 0) {
+          return -1;
+        }
+        final int offset = lemmas.candidateOffset(target);
+        // verify candidate; lines of index files always contain a space
+        if (offset >= 0 && 0 == compare(target, stream.view(offset, stream.wordEnd(offset, stream.length())))) {
+          return offset;
+        }
+        return -1;
+      }
+    }
+    final int offset = getIndexedLinePointer(target, fileName);
+    return offset >= 0 ? offset : -1;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p> Only if a {@link LemmaIndex} of {@code fileName} is actually available, i.e., it's read from its
+   * sidecar or built (on first call) without error; otherwise the binary search is used.
+   */
+  @Override
+  public boolean hasExactIndex(final String fileName) {
+    if (! isLemmaIndexed(fileName)) {
+      return false;
+    }
+    try {
+      final CharStream stream = getFileStream(fileName);
+      return stream != null && getLemmaIndex(fileName, stream) != null;
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /** @return {@code true} if {@code fileName} should be looked up with a {@link LemmaIndex} */
+  private boolean isLemmaIndexed(final String fileName) {
+    return useLemmaIndex && fileName.startsWith("index.") && ! fileName.equals("index.sense");
+  }
+
+  private LemmaIndex getLemmaIndex(final String fileName, final CharStream stream) throws IOException {
+    Optional<LemmaIndex> lemmas = lemmaIndexCache.get(fileName);
+    if (lemmas == null) {
+      final long start = System.nanoTime();
+      final String sidecarName = fileName + LemmaIndex.SUFFIX;
+      LemmaIndex lemmaIndex = null;
+      final InputStream input = openSidecar(sidecarName);
+      if (input != null) {
+        try {
+          lemmaIndex = LemmaIndex.read(new BufferedInputStream(input), stream.length());
+          if (lemmaIndex == null) {
+            log.warn("ignoring stale lemma index sidecar {}", sidecarName);
+          }
+        } finally {
+          Closeables.closeQuietly(input);
+        }
+      }
+      if (lemmaIndex == null) {
+        try {
+          lemmaIndex = LemmaIndex.build(stream, getLineIndex(fileName, true, stream));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          // e.g., a 64-bit hash collision between distinct lemmas
+          log.warn("can't build lemma index of {}; will use binary search", fileName, e);
+        }
+      }
+      log.debug("{} lemmas: {} {}ms", fileName, lemmaIndex == null ? 0 : lemmaIndex.size(),
+        (System.nanoTime() - start) / 1000000);
+      lemmas = Optional.ofNullable(lemmaIndex);
+      final Optional<LemmaIndex> existing = lemmaIndexCache.putIfAbsent(fileName, lemmas);
+      if (existing != null) {
+        lemmas = existing;
+      }
+    }
+    return lemmas.orElse(null);
+  }
+
+  private LineIndex getLineIndex(final String fileName, final boolean fileNameIsWnRelative, final CharStream stream) throws IOException {
+    LineIndex lines = lineIndexCache.get(fileName);
+    if (lines == null) {
+      final long start = System.nanoTime();
+      if (fileNameIsWnRelative) {
+        lines = readLineIndex(fileName, stream.length());
+      }
+      if (lines == null) {
+        lines = LineIndex.build(stream);
+      }
+      log.debug("{} lines: {} {}ms", fileName, lines.size(), (System.nanoTime() - start) / 1000000);
+      final LineIndex existing = lineIndexCache.putIfAbsent(fileName, lines);
+      if (existing != null) {
+        lines = existing;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Looks for a {@link LineIndex} sidecar of {@code fileName}.
+   * @return the {@code LineIndex} or {@code null} if no sidecar matching the file was found
+   * @see #openSidecar(String)
+   */
+  private LineIndex readLineIndex(final String fileName, final int fileLength) throws IOException {
+    final String sidecarName = fileName + LineIndex.SUFFIX;
+    final InputStream input = openSidecar(sidecarName);
+    if (input == null) {
+      return null;
+    }
+    try {
+      final LineIndex lines = LineIndex.read(new BufferedInputStream(input), fileLength);
+      if (lines == null) {
+        log.warn("ignoring stale line index sidecar {}", sidecarName);
+      }
+      return lines;
+    } finally {
+      Closeables.closeQuietly(input);
+    }
+  }
+
   @Override
   public int getIndexedLinePointer(final CharSequence target, int start, CharStream stream) throws IOException {
     // This binary search method provides output usable by prefix search
@@ -686,62 +1050,61 @@ final class FileManager implements FileManagerInterface {
     if (stream == null) {
       return -1;
     }
-    synchronized (stream) {
-      int stop = stream.length();
-      while (true) {
-        final int midpoint = (start + stop) >>> 1;
-        stream.seek(midpoint);
-        stream.skipLine();
-        final int offset = stream.position();
+    // all cursor state is local so concurrent searches of the same stream don't contend
+    int stop = stream.length();
+    while (true) {
+      final int midpoint = (start + stop) >>> 1;
+      final int offset = stream.nextLineOffset(midpoint);
+      if (log.isTraceEnabled()) {
+        log.trace("  "+start+", "+midpoint+", "+stop+" → "+offset);
+      }
+      if (offset == start) {
+        // cannot be a match here - would be zero width
+        return -start - 1;
+      } else if (offset == stop) {
+        int position;
+        if (start != 0 && stream.charAt(start - 1) != '\n') {
+          position = stream.nextLineOffset(start + 1);
+        } else {
+          position = start;
+        }
         if (log.isTraceEnabled()) {
-          log.trace("  "+start+", "+midpoint+", "+stop+" → "+offset);
+          log.trace(". "+position);
         }
-        if (offset == start) {
-          // cannot be a match here - would be zero width
-          return -start - 1;
-        } else if (offset == stop) {
-          if (start != 0 && stream.charAt(start - 1) != '\n') {
-            stream.seek(start + 1);
-            stream.skipLine();
-          } else {
-            stream.seek(start);
-          }
+        //FIXME why is this a while() loop and not an if?
+        // - scan through short lines?
+        while (position < stop) {
+          final int result = position;
+          final int lineEnd = stream.lineEnd(position);
+          // note spaces within 'word' must be represented by underscores
+          final CharSequence word = stream.lineWordAt(position, lineEnd);
+          position = stream.nextLineStart(lineEnd);
           if (log.isTraceEnabled()) {
-            log.trace(". "+stream.position());
+            log.trace("  . \""+word+"\" → "+(0 == compare(target, word)));
           }
-          //FIXME why is this a while() loop and not an if?
-          // - scan through short lines?
-          while (stream.position() < stop) {
-            final int result = stream.position();
-            // note spaces within 'word' must be represented by underscores
-            final CharSequence word = stream.readLineWord();
-            if (log.isTraceEnabled()) {
-              log.trace("  . \""+word+"\" → "+(0 == compare(target, word)));
-            }
-            final int compare = compare(target, word);
-            if (compare == 0) {
-              return result;
-            } else if (compare < 0) {
-              return -result - 1;
-            }
+          final int compare = compare(target, word);
+          if (compare == 0) {
+            return result;
+          } else if (compare < 0) {
+            return -result - 1;
           }
-          return -stop - 1;
-        } // end offset == stop branch
-        final int result = stream.position();
-        final CharSequence word = stream.readLineWord();
-        final int compare = compare(target, word);
-        if (log.isTraceEnabled()) {
-          log.trace(word + ": " + compare);
-        }
-        if (compare == 0) {
-          return result;
-        }
-        if (compare > 0) {
-          start = offset;
-        } else {
-          assert compare < 0;
-          stop = offset;
         }
+        return -stop - 1;
+      } // end offset == stop branch
+      final int result = offset;
+      final CharSequence word = stream.lineWordAt(offset, stream.lineEnd(offset));
+      final int compare = compare(target, word);
+      if (log.isTraceEnabled()) {
+        log.trace(word + ": " + compare);
+      }
+      if (compare == 0) {
+        return result;
+      }
+      if (compare > 0) {
+        start = offset;
+      } else {
+        assert compare < 0;
+        stop = offset;
       }
     }
   }
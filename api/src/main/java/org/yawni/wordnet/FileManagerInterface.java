@@ -17,7 +17,9 @@
 package org.yawni.wordnet;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import org.yawni.wordnet.FileManager.CharStream;
 
@@ -77,6 +79,24 @@ interface FileManagerInterface {
    */
   int getIndexedLinePointer(final CharSequence target, final String fileName) throws IOException;
 
+  /**
+   * Exact match variant of {@link #getIndexedLinePointer(CharSequence, String)} which
+   * doesn't compute an insertion point, and so may be answered in constant time.
+   * @param target string sought
+   * @param fileName filename to search; fileNameWnRelative = {@code true}
+   * @return The file offset of the start of the matching line if one exists, otherwise {@code -1}.
+   * @throws IOException
+   * @see #hasExactIndex(String)
+   */
+  int getExactLinePointer(final CharSequence target, final String fileName) throws IOException;
+
+  /**
+   * @return {@code true} if {@link #getExactLinePointer(CharSequence, String)} on {@code fileName}
+   * is answered in constant time (e.g., with a perfect hash), which makes pre-filtering
+   * queries (e.g., with a Bloom filter) unnecessary
+   */
+  boolean hasExactIndex(final String fileName);
+
   /**
    * @param target string sought
    * @param start file offset to start at
@@ -115,6 +135,16 @@ interface FileManagerInterface {
    */
   String readLineAt(final int offset, final String fileName) throws IOException;
 
+  /**
+   * Zero-copy variant of {@link #readLineAt(int, String)}: the returned {@code CharSequence}
+   * may be a view backed directly by the file content (e.g., the memory mapped file) so
+   * parsing it (e.g., with a {@link org.yawni.util.CharSequenceTokenizer}) allocates only
+   * the tokens which are kept.  The view is valid for the lifetime of this {@code FileManagerInterface}.
+   * @return the line, or {@code null} if it's empty
+   * @throws IOException
+   */
+  CharSequence readLineViewAt(final int offset, final String fileName) throws IOException;
+
   /**
    * Search for the line following the line that begins at {@code offset}.
    * @return The file offset of the start of the line, or {@code -1} if {@code offset}
@@ -123,6 +153,38 @@ interface FileManagerInterface {
    */
   int getNextLinePointer(final int offset, final String fileName) throws IOException;
 
+  /**
+   * Search for the first line which begins at or after {@code offset}; useful to split a file
+   * into ranges of whole lines.
+   * @return The file offset of the start of the line, or the length of the file if there's no such line.
+   * @throws IOException
+   */
+  int getLineStartPointer(final int offset, final String fileName) throws IOException;
+
+  /**
+   * @return The length of the file named by {@code fileName} (in bytes, which are single byte chars).
+   * @throws IOException
+   */
+  int getFileLength(final String fileName) throws IOException;
+
+  /**
+   * Opens the precomputed auxiliary file (aka "sidecar") named {@code sidecarName} (e.g., {@code index.noun.morph})
+   * which is typically packaged with the WordNet data files.
+   * @return stream or {@code null} if not found
+   * @throws IOException
+   */
+  InputStream openSidecar(final String sidecarName) throws IOException;
+
+  /**
+   * @return {@code true} if the file named by {@code fileName} is read from the classpath (e.g., from a
+   * {@code yawni-wordnet-data*} jar), so resources packaged alongside it in {@code dict/} (e.g., Bloom
+   * filters) describe it.  Implementations which can't tell return {@code false}.
+   * @throws IOException
+   */
+  default boolean isClasspathResource(final String fileName) throws IOException {
+    return false;
+  }
+
   /**
    * Search for a line whose index word <em>contains</em> {@code pattern} (case insensitive).
    * @return The file offset of the start of the matching line, or {@code -1} if
@@ -146,6 +208,14 @@ interface FileManagerInterface {
    */
   String readLineNumber(final int linenum, final String fileName) throws IOException;
 
+  /**
+   * Accumulate the number of bytes of file content scanned (for line and word boundaries) into
+   * {@code counter}, or stop counting if it's {@code null}.  Implementations which can't count
+   * needn't.
+   */
+  default void countBytesScanned(final LongAdder counter) {
+  }
+
   /**
    * The {@link Comparator Comparator&lt;CharSequence&gt;} that defines the sort order of the WordNet data files.
    */
@@ -0,0 +1,671 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.IntStream;
+import org.yawni.util.CharSequenceTokenizer;
+
+/**
+ * Transitive closure of the {@link RelationType#HYPERNYM} and {@link RelationType#INSTANCE_HYPERNYM}
+ * relations of one {@link POS}, so is-a and depth queries are answered with primitive array lookups,
+ * without materializing or parsing any {@link Synset}s.  Synsets are identified by synset number (i.e., rank
+ * in the {@code data.<em>pos</em>} file, like {@link SynsetStore}).
+ *
+ * <p> Layout:
+ * <ul>
+ *   <li> sorted {@code offsets} </li>
+ *   <li> hypernyms (direct parents) of synset {@code i}: [{@code parentStarts[i]}, {@code parentStarts[i + 1]})
+ *        of {@code parents} </li>
+ *   <li> ancestors (transitive parents) of synset {@code i}: [{@code ancestorStarts[i]},
+ *        {@code ancestorStarts[i + 1]}) of {@code ancestors}, sorted, so {@link #isA(int, int)} is a binary
+ *        search of a range as long as the number of ancestors (about the depth, as multiple inheritance is rare) </li>
+ *   <li> {@code depths} and {@code maxDepths}: length of the shortest and of the longest hypernym path from
+ *        synset {@code i} to a root </li>
+ *   <li> {@code roots}: the synsets without hypernyms; derived from the parents </li>
+ *   <li> hyponyms (direct children) of synset {@code i}: [{@code childStarts[i]}, {@code childStarts[i + 1]})
+ *        of {@code children}; derived from the parents (i.e., not stored in the sidecar) </li>
+ * </ul>
+ *
+ * <p> Together, the parents and children are a compressed sparse row (CSR) adjacency graph of the
+ * taxonomy, on which {@link #distance(int, int)} is a bidirectional breadth first search and
+ * {@link #leastCommonSubsumer(int, int)} is an intersection of two ancestor ranges.
+ *
+ * <p> The hypernym graph is nearly a tree, but the data has the odd cycle (e.g., WordNet 3.0's "restrain"
+ * and "inhibit" verbs are each other's hypernym).  A cycle is broken where the closure computation first
+ * enters it (so each synset on it has the others as ancestors, and a longer cycle's could be incomplete)
+ * and, if it has no path to a synset without hypernyms, its synsets are considered roots.
+ *
+ * <p> A {@code HypernymIndex} is built in one pass over the {@code data.<em>pos</em>} file which only
+ * tokenizes pointers (see {@link Builder}), or read from a precomputed {@code data.<em>pos</em>.hypernyms}
+ * sidecar.  The sidecar format is big-endian: magic, version, the length of the {@code data.<em>pos</em>} file
+ * it was built from (used to reject stale sidecars), POS ordinal, and then each column prefixed by its length.
+ */
+final class HypernymIndex {
+  /** "YHYP" */
+  private static final int MAGIC = 0x59485950;
+  private static final int VERSION = 2;
+  static final String SUFFIX = ".hypernyms";
+
+  private final POS pos;
+  private final int dataLength;
+  private final int[] offsets;
+  private final int[] parentStarts;
+  private final int[] parents;
+  private final int[] ancestorStarts;
+  private final int[] ancestors;
+  private final int[] depths;
+  private final int[] maxDepths;
+  /** greatest of the {@code maxDepths} */
+  private final int maxDepth;
+  private final int[] roots;
+  private final int[] childStarts;
+  private final int[] children;
+  /**
+   * idle {@link Search}es (each marks the synsets it visits, so it's used by one thread at a time), at most
+   * one per processor rather than one per thread which ever searched, as each holds 6 arrays of {@link #size()}
+   */
+  private final BlockingQueue<Search> searches =
+    new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+  private HypernymIndex(final POS pos, final int dataLength, final int[] offsets, final int[] parentStarts,
+      final int[] parents, final int[] ancestorStarts, final int[] ancestors, final int[] depths,
+      final int[] maxDepths) {
+    this.pos = pos;
+    this.dataLength = dataLength;
+    this.offsets = offsets;
+    this.parentStarts = parentStarts;
+    this.parents = parents;
+    this.ancestorStarts = ancestorStarts;
+    this.ancestors = ancestors;
+    this.depths = depths;
+    this.maxDepths = maxDepths;
+    this.maxDepth = Arrays.stream(maxDepths).max().orElse(0);
+    this.roots = IntStream.range(0, offsets.length).filter(i -> parentStarts[i] == parentStarts[i + 1]).toArray();
+    this.childStarts = childStarts(parents, offsets.length);
+    this.children = children(parentStarts, parents, childStarts);
+  }
+
+  private static int[] childStarts(final int[] parents, final int size) {
+    final int[] childStarts = new int[size + 1];
+    for (final int parent : parents) {
+      childStarts[parent + 1]++;
+    }
+    for (int i = 0; i < size; i++) {
+      childStarts[i + 1] += childStarts[i];
+    }
+    return childStarts;
+  }
+
+  private static int[] children(final int[] parentStarts, final int[] parents, final int[] childStarts) {
+    final int size = childStarts.length - 1;
+    final int[] children = new int[parents.length];
+    final int[] fill = Arrays.copyOf(childStarts, size);
+    for (int i = 0; i < size; i++) {
+      for (int j = parentStarts[i]; j < parentStarts[i + 1]; j++) {
+        children[fill[parents[j]]++] = i;
+      }
+    }
+    return children;
+  }
+
+  /**
+   * Reads a sidecar written by {@link #write(OutputStream)}.
+   * @return the {@code HypernymIndex} or {@code null} if the sidecar wasn't built from a
+   * {@code data.<em>pos</em>} file of {@code expectedDataLength} bytes
+   */
+  static HypernymIndex read(final InputStream input, final int expectedDataLength) throws IOException {
+    final DataInputStream data = new DataInputStream(input);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("not a hypernym index sidecar");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported hypernym index version "+version);
+    }
+    final int dataLength = data.readInt();
+    if (dataLength != expectedDataLength) {
+      return null;
+    }
+    final POS pos = POS.fromOrdinal((byte) data.readInt());
+    return new HypernymIndex(pos, dataLength, readInts(data), readInts(data), readInts(data),
+      readInts(data), readInts(data), readInts(data), readInts(data));
+  }
+
+  void write(final OutputStream output) throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(dataLength);
+    data.writeInt(pos.ordinal());
+    writeInts(offsets, data);
+    writeInts(parentStarts, data);
+    writeInts(parents, data);
+    writeInts(ancestorStarts, data);
+    writeInts(ancestors, data);
+    writeInts(depths, data);
+    writeInts(maxDepths, data);
+    data.flush();
+  }
+
+  private static int[] readInts(final DataInputStream data) throws IOException {
+    final int[] values = new int[data.readInt()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = data.readInt();
+    }
+    return values;
+  }
+
+  private static void writeInts(final int[] values, final DataOutputStream data) throws IOException {
+    data.writeInt(values.length);
+    for (final int value : values) {
+      data.writeInt(value);
+    }
+  }
+
+  POS getPOS() {
+    return pos;
+  }
+
+  /** @return number of synsets */
+  int size() {
+    return offsets.length;
+  }
+
+  /** @return synset number of the synset at {@code offset}, or a negative number if there is none */
+  int indexOf(final int offset) {
+    return Arrays.binarySearch(offsets, offset);
+  }
+
+  int offset(final int index) {
+    return offsets[index];
+  }
+
+  int parentStart(final int index) {
+    return parentStarts[index];
+  }
+
+  int parentEnd(final int index) {
+    return parentStarts[index + 1];
+  }
+
+  /** @return synset number of parent number {@code parent} */
+  int parent(final int parent) {
+    return parents[parent];
+  }
+
+  int ancestorStart(final int index) {
+    return ancestorStarts[index];
+  }
+
+  int ancestorEnd(final int index) {
+    return ancestorStarts[index + 1];
+  }
+
+  /** @return synset number of ancestor number {@code ancestor} */
+  int ancestor(final int ancestor) {
+    return ancestors[ancestor];
+  }
+
+  /**
+   * @return length of the shortest hypernym path from synset {@code index} to each of its ancestors, in
+   * ancestor order (i.e., element {@code i} is that of {@code ancestor(ancestorStart(index) + i)}), or -1
+   * for an ancestor the closure computation reached through a broken cycle
+   */
+  int[] ancestorLengths(final int index) {
+    final int start = ancestorStarts[index];
+    final int end = ancestorStarts[index + 1];
+    final int[] lengths = new int[end - start];
+    Arrays.fill(lengths, -1);
+    // breadth first search of the parents, each ancestor queued once
+    final int[] queue = new int[lengths.length + 1];
+    final int[] queueLengths = new int[queue.length];
+    int head = 0, tail = 0;
+    queue[tail++] = index;
+    while (head < tail) {
+      final int next = queue[head];
+      final int length = queueLengths[head++] + 1;
+      for (int j = parentStarts[next]; j < parentStarts[next + 1]; j++) {
+        final int ancestor = Arrays.binarySearch(ancestors, start, end, parents[j]) - start;
+        if (ancestor >= 0 && lengths[ancestor] < 0) {
+          lengths[ancestor] = length;
+          queue[tail] = parents[j];
+          queueLengths[tail++] = length;
+        }
+      }
+    }
+    return lengths;
+  }
+
+  /**
+   * @return length of the shortest hypernym path from synset {@code index} to a root
+   */
+  int depth(final int index) {
+    return depths[index];
+  }
+
+  /**
+   * @return length of the longest hypernym path from synset {@code index} to a root
+   */
+  int maxDepth(final int index) {
+    return maxDepths[index];
+  }
+
+  /**
+   * @return greatest {@link #maxDepth(int)} of any synset, i.e., the depth of the taxonomy
+   */
+  int maxDepth() {
+    return maxDepth;
+  }
+
+  /** @return number of synsets without hypernyms */
+  int rootCount() {
+    return roots.length;
+  }
+
+  /** @return synset number of root number {@code root} */
+  int root(final int root) {
+    return roots[root];
+  }
+
+  /**
+   * @return {@code true} if synset {@code ancestor} is synset {@code index} or one of its ancestors
+   */
+  boolean isA(final int index, final int ancestor) {
+    return index == ancestor ||
+      Arrays.binarySearch(ancestors, ancestorStarts[index], ancestorStarts[index + 1], ancestor) >= 0;
+  }
+
+  /**
+   * @return the deepest (by {@link #maxDepth(int)}, then {@link #depth(int)}) synset which
+   * {@link #isA(int, int) both} synset {@code index1} and synset {@code index2} are, the one with the smallest
+   * synset number of equally deep ones; -1 if there's none (e.g., verbs of unrelated hierarchies)
+   */
+  int leastCommonSubsumer(final int index1, final int index2) {
+    if (isA(index1, index2)) {
+      return index2;
+    }
+    if (isA(index2, index1)) {
+      return index1;
+    }
+    int lcs = -1;
+    // merge of the sorted ancestor ranges
+    int i = ancestorStarts[index1];
+    int j = ancestorStarts[index2];
+    final int end1 = ancestorStarts[index1 + 1];
+    final int end2 = ancestorStarts[index2 + 1];
+    while (i < end1 && j < end2) {
+      final int ancestor1 = ancestors[i];
+      final int ancestor2 = ancestors[j];
+      if (ancestor1 < ancestor2) {
+        i++;
+      } else if (ancestor1 > ancestor2) {
+        j++;
+      } else {
+        if (lcs < 0 || maxDepths[ancestor1] > maxDepths[lcs] ||
+            (maxDepths[ancestor1] == maxDepths[lcs] && depths[ancestor1] > depths[lcs])) {
+          lcs = ancestor1;
+        }
+        i++;
+        j++;
+      }
+    }
+    return lcs;
+  }
+
+  /**
+   * @return length of the shortest path between synset {@code index1} and synset {@code index2} of hypernym
+   * and hyponym edges (in either direction), or -1 if there's none
+   */
+  int distance(final int index1, final int index2) {
+    if (index1 == index2) {
+      return 0;
+    }
+    Search search = searches.poll();
+    if (search == null) {
+      search = new Search(offsets.length);
+    }
+    try {
+      return search.distance(index1, index2);
+    } finally {
+      // dropped if the pool is full
+      searches.offer(search);
+    }
+  }
+
+  /**
+   * State of a bidirectional breadth first search: a {@link Frontier} growing from each end, alternately
+   * expanding whichever is smaller by a level, until they meet.  Visited synsets are marked with the number
+   * of the search, so the marks needn't be cleared.
+   */
+  private final class Search {
+    private final Frontier frontier1;
+    private final Frontier frontier2;
+    private int search;
+
+    Search(final int size) {
+      this.frontier1 = new Frontier(size);
+      this.frontier2 = new Frontier(size);
+    }
+
+    int distance(final int index1, final int index2) {
+      if (++search == Integer.MAX_VALUE) {
+        Arrays.fill(frontier1.marks, 0);
+        Arrays.fill(frontier2.marks, 0);
+        search = 1;
+      }
+      frontier1.start(index1, search);
+      frontier2.start(index2, search);
+      while (frontier1.size() > 0 && frontier2.size() > 0) {
+        final int best = frontier1.size() <= frontier2.size() ?
+          frontier1.expand(frontier2, search) :
+          frontier2.expand(frontier1, search);
+        if (best >= 0) {
+          return best;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * The synsets visited from one end of a {@link Search}; its current level is [{@code head}, {@code tail})
+   * of {@code queue}.
+   */
+  private final class Frontier {
+    private final int[] marks;
+    private final int[] distances;
+    private final int[] queue;
+    private int head;
+    private int tail;
+
+    Frontier(final int size) {
+      this.marks = new int[size];
+      this.distances = new int[size];
+      this.queue = new int[size];
+    }
+
+    void start(final int index, final int search) {
+      marks[index] = search;
+      distances[index] = 0;
+      queue[0] = index;
+      head = 0;
+      tail = 1;
+    }
+
+    int size() {
+      return tail - head;
+    }
+
+    /**
+     * Replaces the current level with the unvisited neighbors of its synsets.
+     * @return length of the shortest path through a neighbor {@code other} has visited, or -1 if there's none
+     */
+    int expand(final Frontier other, final int search) {
+      int best = -1;
+      final int end = tail;
+      for (int q = head; q < end; q++) {
+        final int node = queue[q];
+        final int distance = distances[node] + 1;
+        for (int pass = 0; pass < 2; pass++) {
+          final int[] starts = pass == 0 ? parentStarts : childStarts;
+          final int[] neighbors = pass == 0 ? parents : children;
+          for (int j = starts[node], n = starts[node + 1]; j < n; j++) {
+            final int neighbor = neighbors[j];
+            if (other.marks[neighbor] == search) {
+              final int length = distance + other.distances[neighbor];
+              if (best < 0 || length < best) {
+                best = length;
+              }
+            }
+            if (marks[neighbor] != search) {
+              marks[neighbor] = search;
+              distances[neighbor] = distance;
+              queue[tail++] = neighbor;
+            }
+          }
+        }
+      }
+      head = end;
+      return best;
+    }
+  }
+
+  /**
+   * Accumulates the hypernym pointers of the lines of a {@code data.<em>pos</em>} file
+   * {@link #add(CharSequence) added} in offset order.
+   */
+  static final class Builder {
+    private final POS pos;
+    private final int dataLength;
+    private int size;
+    private int[] offsets = new int[1024];
+    private int[] parentStarts = new int[1025];
+    /** offsets until {@link #build()} */
+    private int[] parents = new int[1024];
+
+    /**
+     * @param dataLength length of the {@code data.<em>pos</em>} file
+     */
+    Builder(final POS pos, final int dataLength) {
+      this.pos = pos;
+      this.dataLength = dataLength;
+    }
+
+    /**
+     * Adds a synset line, of which only its offset and pointers are tokenized.
+     */
+    Builder add(final CharSequence line) {
+      final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(line, " ");
+      final int offset = tokenizer.nextInt();
+      if (size > 0 && offset <= offsets[size - 1]) {
+        throw new IllegalArgumentException("synset out of order: "+line);
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+        parentStarts = Arrays.copyOf(parentStarts, (size << 1) + 1);
+      }
+      offsets[size] = offset;
+      tokenizer.skipNextToken(); // lex_filenum
+      tokenizer.skipNextToken(); // ss_type
+      final int wordCount = tokenizer.nextHexInt();
+      for (int i = 0; i < wordCount; i++) {
+        tokenizer.skipNextToken(); // word
+        tokenizer.skipNextToken(); // lex_id
+      }
+      int parent = parentStarts[size];
+      final int relationCount = tokenizer.nextInt();
+      for (int i = 0; i < relationCount; i++) {
+        final CharSequence symbol = tokenizer.nextToken();
+        final int targetOffset = tokenizer.nextInt();
+        final CharSequence targetPOS = tokenizer.nextToken();
+        tokenizer.skipNextToken(); // source/target
+        if (("@".contentEquals(symbol) || "@i".contentEquals(symbol)) && POS.lookup(targetPOS) == pos) {
+          if (parent == parents.length) {
+            parents = Arrays.copyOf(parents, parent << 1);
+          }
+          parents[parent++] = targetOffset;
+        }
+      }
+      parentStarts[size + 1] = parent;
+      size++;
+      return this;
+    }
+
+    HypernymIndex build() {
+      final int[] sortedOffsets = Arrays.copyOf(offsets, size);
+      final int[] starts = Arrays.copyOf(parentStarts, size + 1);
+      final int[] parentIndexes = new int[starts[size]];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        final int start = count;
+        for (int j = starts[i]; j < starts[i + 1]; j++) {
+          final int parent = Arrays.binarySearch(sortedOffsets, parents[j]);
+          // skip dangling pointers and self loops
+          if (parent >= 0 && parent != i) {
+            parentIndexes[count++] = parent;
+          }
+        }
+        starts[i] = start;
+      }
+      starts[size] = count;
+      final int[] compactParents = Arrays.copyOf(parentIndexes, count);
+      final int[] maxDepths = new int[size];
+      final int[][] closures = closures(starts, compactParents, maxDepths);
+      final int[] ancestorStarts = new int[size + 1];
+      for (int i = 0; i < size; i++) {
+        ancestorStarts[i + 1] = ancestorStarts[i] + closures[i].length;
+      }
+      final int[] ancestors = new int[ancestorStarts[size]];
+      for (int i = 0; i < size; i++) {
+        System.arraycopy(closures[i], 0, ancestors, ancestorStarts[i], closures[i].length);
+      }
+      final int[] depths = depths(starts, compactParents);
+      for (int i = 0; i < size; i++) {
+        // a path around a cycle may have been cut short
+        maxDepths[i] = Math.max(maxDepths[i], depths[i]);
+      }
+      return new HypernymIndex(pos, dataLength, sortedOffsets, starts, compactParents, ancestorStarts, ancestors,
+        depths, maxDepths);
+    }
+
+    /**
+     * @return sorted ancestors of each synset, computed in post-order of an iterative depth first search
+     * of the parent edges (i.e., in topological order), so each synset's ancestors are the union of those
+     * of its parents (which are already computed) and its parents themselves
+     * @param maxDepths filled with the length of the longest path from each synset to a root, computed in the
+     * same order
+     */
+    private int[][] closures(final int[] starts, final int[] parents, final int[] maxDepths) {
+      final int[][] closures = new int[size][];
+      final int[] stack = new int[size];
+      // next parent to visit of each synset on the stack
+      final int[] cursors = new int[size];
+      final boolean[] entered = new boolean[size];
+      int[] scratch = new int[64];
+      for (int root = 0; root < size; root++) {
+        if (entered[root]) {
+          continue;
+        }
+        int top = 0;
+        stack[top] = root;
+        cursors[root] = starts[root];
+        entered[root] = true;
+        while (top >= 0) {
+          final int node = stack[top];
+          if (cursors[node] < starts[node + 1]) {
+            final int parent = parents[cursors[node]++];
+            if (! entered[parent]) {
+              entered[parent] = true;
+              cursors[parent] = starts[parent];
+              stack[++top] = parent;
+            }
+            continue;
+          }
+          int length = 0;
+          int maxDepth = 0;
+          for (int j = starts[node]; j < starts[node + 1]; j++) {
+            final int parent = parents[j];
+            // parent's closure is null iff it's on the stack, i.e., this is a cycle
+            final int[] inherited = closures[parent];
+            if (inherited != null) {
+              maxDepth = Math.max(maxDepth, maxDepths[parent] + 1);
+            }
+            final int needed = length + 1 + (inherited == null ? 0 : inherited.length);
+            if (needed > scratch.length) {
+              scratch = Arrays.copyOf(scratch, Math.max(needed, scratch.length << 1));
+            }
+            scratch[length++] = parent;
+            if (inherited != null) {
+              System.arraycopy(inherited, 0, scratch, length, inherited.length);
+              length += inherited.length;
+            }
+          }
+          Arrays.sort(scratch, 0, length);
+          int unique = 0;
+          for (int j = 0; j < length; j++) {
+            if (scratch[j] != node && (unique == 0 || scratch[j] != scratch[unique - 1])) {
+              scratch[unique++] = scratch[j];
+            }
+          }
+          closures[node] = Arrays.copyOf(scratch, unique);
+          maxDepths[node] = maxDepth;
+          top--;
+        }
+      }
+      return closures;
+    }
+
+    /**
+     * @return shortest path length from each synset to a root, computed by a breadth first search
+     * of the child edges from all roots: first the synsets without parents and then, if some synsets
+     * weren't reached, the synsets of the cycles their parents lead to
+     */
+    private int[] depths(final int[] starts, final int[] parents) {
+      final int[] childStarts = childStarts(parents, size);
+      final int[] children = children(starts, parents, childStarts);
+      final int[] depths = new int[size];
+      Arrays.fill(depths, -1);
+      final int[] queue = new int[size];
+      int tail = 0;
+      for (int i = 0; i < size; i++) {
+        if (starts[i] == starts[i + 1]) {
+          depths[i] = 0;
+          queue[tail++] = i;
+        }
+      }
+      for (int i = 0, head = 0; i <= size; i++) {
+        for (; head < tail; head++) {
+          final int node = queue[head];
+          for (int j = childStarts[node]; j < childStarts[node + 1]; j++) {
+            final int child = children[j];
+            if (depths[child] < 0) {
+              depths[child] = depths[node] + 1;
+              queue[tail++] = child;
+            }
+          }
+        }
+        if (i < size && depths[i] < 0) {
+          // i wasn't reached, so neither were any of its ancestors; follow its first parents to a cycle
+          int node = i;
+          while (depths[node] != -2) {
+            depths[node] = -2;
+            node = parents[starts[node]];
+          }
+          final int cycle = node;
+          do {
+            depths[node] = 0;
+            queue[tail++] = node;
+            node = parents[starts[node]];
+          } while (node != cycle);
+          // unmark the path which led to the cycle
+          for (node = i; depths[node] == -2; node = parents[starts[node]]) {
+            depths[node] = -1;
+          }
+        }
+      }
+      return depths;
+    }
+  }
+}
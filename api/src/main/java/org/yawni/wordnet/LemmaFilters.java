@@ -0,0 +1,283 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yawni.util.CharSequences;
+import org.yawni.util.cache.BlockedBloomFilter;
+import org.yawni.util.cache.BloomFilter;
+
+/**
+ * The {@link BloomFilter}s of the lemmas of each {@code index.<em>pos</em>} file and of the exceptional
+ * forms of each <code><em>pos</em>.exc</code> file, with which {@link WordNet} rules out most misses
+ * without searching these files.  Filters bundled with the WordNet data (e.g., {@code dict/NOUN.bloom} in a
+ * {@code yawni-wordnet-data*} jar) are used if the files are read from that same data (a bundled filter of
+ * another version would have false negatives); otherwise (e.g., for data in {@code $WNHOME} or a
+ * {@link Snapshot}), each filter is built from its file on first use (typically well under a second) and, if
+ * there's a cache directory, persisted there in {@link BloomFilter#write(OutputStream) binary format} and
+ * memory-mapped by subsequent runs.
+ */
+final class LemmaFilters {
+  private static final Logger log = LoggerFactory.getLogger(LemmaFilters.class);
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+  private static final String SUFFIX = ".bloom";
+  private static final String BLOCKED_SUFFIX = ".blocked.bloom";
+  private static final WordNetLexicalComparator HASHER = WordNetLexicalComparator.TO_LOWERCASE_INSTANCE;
+
+  private static final Map<POS, BloomFilter<CharSequence>> BUNDLED_INDEX_FILTERS;
+  private static final Map<POS, BloomFilter<CharSequence>> BUNDLED_EXCEPTIONS_FILTERS;
+  static {
+    BUNDLED_INDEX_FILTERS = Maps.newEnumMap(POS.class);
+    BUNDLED_EXCEPTIONS_FILTERS = Maps.newEnumMap(POS.class);
+
+    for (final POS pos : POS.CATS) {
+      // assume WN dict/ is in the classpath
+      final String indexDataResourceName = "dict/" + pos.name() + SUFFIX;
+      final BloomFilter<CharSequence> indexDataFilter = getResource(indexDataResourceName,
+        "dict/" + WordNet.getIndexFileName(pos));
+      if (indexDataFilter != null) {
+        BUNDLED_INDEX_FILTERS.put(pos, indexDataFilter);
+      }
+      final String exceptionsResourceName = "dict/" + pos.name() + ".exc" + SUFFIX;
+      final BloomFilter<CharSequence> exceptionsFilter = getResource(exceptionsResourceName,
+        "dict/" + WordNet.getExceptionsFilename(pos));
+      if (exceptionsFilter != null) {
+        BUNDLED_EXCEPTIONS_FILTERS.put(pos, exceptionsFilter);
+      }
+    }
+  }
+
+  // look in classpath for filters, packaged alongside the classpath resource of the file they're of
+  private static BloomFilter<CharSequence> getResource(final String resourceName, final String fileResourceName) {
+    try {
+      final ClassLoader classLoader = WordNet.class.getClassLoader();
+      final URL url = classLoader.getResource(resourceName);
+      if (url == null) {
+        log.info("resourceName: {} not found!", resourceName);
+        return null;
+      }
+      final URL fileUrl = classLoader.getResource(fileResourceName);
+      if (fileUrl == null || ! containerOf(url, resourceName).equals(containerOf(fileUrl, fileResourceName))) {
+        log.info("resourceName: {} isn't packaged with {}; ignoring it", resourceName, fileResourceName);
+        return null;
+      }
+      final URLConnection conn = url.openConnection();
+      return read(conn.getInputStream());
+    } catch (Exception e) {
+      log.info("caught", e);
+      return null;
+    }
+  }
+
+  /** @return {@code url} of {@code resourceName} without {@code resourceName}, e.g., its jar */
+  private static String containerOf(final URL url, final String resourceName) {
+    final String string = url.toString();
+    return string.substring(0, string.length() - resourceName.length());
+  }
+
+  /**
+   * Reads a filter in {@link BloomFilter#write(OutputStream) binary format}, or in the serialized form of
+   * older data jars.
+   */
+  private static BloomFilter<CharSequence> read(final InputStream input) throws IOException, ClassNotFoundException {
+    final BufferedInputStream buffered = new BufferedInputStream(input);
+    try {
+      buffered.mark(2);
+      final boolean serialized = buffered.read() == 0xAC && buffered.read() == 0xED;
+      buffered.reset();
+      if (! serialized) {
+        return BloomFilter.read(buffered, HASHER);
+      }
+      final ObjectInputStream ois = new ObjectInputStream(buffered);
+      @SuppressWarnings("unchecked")
+      final BloomFilter<CharSequence> filter = (BloomFilter<CharSequence>) ois.readObject();
+      return filter;
+    } finally {
+      Closeables.closeQuietly(buffered);
+    }
+  }
+
+  private final FileManagerInterface fileManager;
+  private final Path directory;
+  private final boolean offHeap;
+  private final boolean blocked;
+  /** by file name; empty if the file doesn't exist */
+  private final ConcurrentMap<String, Optional<Set<CharSequence>>> filters = new ConcurrentHashMap<>();
+
+  /**
+   * @param directory if not {@code null}, filters built at runtime are persisted to (and read from) here
+   * @param offHeap if {@code true}, filters' bits are stored off-heap
+   * @param blocked if {@code true}, use {@link BlockedBloomFilter}s, which are built at runtime as
+   * bundled filters are {@link BloomFilter}s
+   */
+  LemmaFilters(final FileManagerInterface fileManager, final Path directory, final boolean offHeap, final boolean blocked) {
+    this.fileManager = fileManager;
+    this.directory = directory;
+    this.offHeap = offHeap;
+    this.blocked = blocked;
+  }
+
+  /**
+   * @return filter of the lemmas of <code>index.<em>pos</em></code>, or {@code null} if there is none
+   */
+  Set<CharSequence> indexFilter(final POS pos) {
+    return getFilter(BUNDLED_INDEX_FILTERS.get(pos), WordNet.getIndexFileName(pos));
+  }
+
+  /**
+   * @return filter of the exceptional forms of <code><em>pos</em>.exc</code>, or {@code null} if there is none
+   */
+  Set<CharSequence> exceptionsFilter(final POS pos) {
+    return getFilter(BUNDLED_EXCEPTIONS_FILTERS.get(pos), WordNet.getExceptionsFilename(pos));
+  }
+
+  private Set<CharSequence> getFilter(final BloomFilter<CharSequence> bundled, final String fileName) {
+    Optional<Set<CharSequence>> filter = filters.get(fileName);
+    if (filter == null) {
+      final Set<CharSequence> loaded;
+      if (bundled != null && ! blocked && isClasspathResource(fileName)) {
+        loaded = offHeap ? bundled.offHeap() : bundled;
+      } else {
+        loaded = loadFilter(fileName);
+      }
+      filter = Optional.ofNullable(loaded);
+      final Optional<Set<CharSequence>> existing = filters.putIfAbsent(fileName, filter);
+      if (existing != null) {
+        filter = existing;
+      }
+    }
+    return filter.orElse(null);
+  }
+
+  /**
+   * @return {@code true} if {@code fileName} is read from the classpath, so a filter bundled alongside it
+   * describes it
+   */
+  private boolean isClasspathResource(final String fileName) {
+    try {
+      return fileManager.isClasspathResource(fileName);
+    } catch (IOException ioe) {
+      return false;
+    }
+  }
+
+  /**
+   * @return the filter of {@code fileName} from the cache {@link #directory}, or built from its content
+   * (and persisted to the cache directory); {@code null} if {@code fileName} can't be read
+   */
+  private Set<CharSequence> loadFilter(final String fileName) {
+    final int length;
+    try {
+      length = fileManager.getFileLength(fileName);
+    } catch (IOException | RuntimeException e) {
+      log.info("can't read {}; no Bloom filter", fileName);
+      return null;
+    }
+    // the file's length distinguishes distinct WordNet versions
+    final Path cached = directory == null ? null :
+      directory.resolve(fileName + "-" + length + (blocked ? BLOCKED_SUFFIX : SUFFIX));
+    if (cached != null && Files.isReadable(cached)) {
+      try {
+        // mapped filters are off-heap and their pages are shared by all processes which map them
+        return blocked ? BlockedBloomFilter.map(cached, HASHER) : BloomFilter.map(cached, HASHER);
+      } catch (IOException e) {
+        log.warn("ignoring unreadable Bloom filter {}", cached, e);
+      }
+    }
+    final long start = System.nanoTime();
+    final Set<CharSequence> filter;
+    try {
+      filter = build(fileName);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    log.info("built {} Bloom filter {} in {}ms", fileName, filter, (System.nanoTime() - start) / 1000000);
+    if (cached != null) {
+      write(filter, cached);
+    }
+    return filter;
+  }
+
+  /**
+   * Adds the first word of each line of {@code fileName} (which is each lemma of an {@code index.<em>pos</em>}
+   * file and each exceptional form of a <code><em>pos</em>.exc</code> file) to a new filter.
+   */
+  private Set<CharSequence> build(final String fileName) throws IOException {
+    int count = 0;
+    for (int offset = 0; offset >= 0; offset = fileManager.getNextLinePointer(offset, fileName)) {
+      final CharSequence line = fileManager.readLineViewAt(offset, fileName);
+      if (line == null) {
+        break;
+      }
+      count++;
+    }
+    final Set<CharSequence> filter = blocked ?
+      new BlockedBloomFilter<>(Math.max(1, count), FALSE_POSITIVE_PROBABILITY, HASHER, offHeap) :
+      new BloomFilter<>(Math.max(1, count), FALSE_POSITIVE_PROBABILITY, HASHER, offHeap);
+    for (int offset = 0; offset >= 0; offset = fileManager.getNextLinePointer(offset, fileName)) {
+      final CharSequence line = fileManager.readLineViewAt(offset, fileName);
+      if (line == null) {
+        break;
+      }
+      // first few lines of index files start with "  " (license)
+      if (! CharSequences.startsWith(line, "  ")) {
+        int wordEnd = 0;
+        while (wordEnd < line.length() && line.charAt(wordEnd) != ' ') {
+          wordEnd++;
+        }
+        filter.add(line.subSequence(0, wordEnd));
+      }
+    }
+    return filter;
+  }
+
+  private static void write(final Set<CharSequence> filter, final Path path) {
+    try {
+      Files.createDirectories(path.getParent());
+      final Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp))) {
+        if (filter instanceof BlockedBloomFilter) {
+          ((BlockedBloomFilter<CharSequence>) filter).write(output);
+        } else {
+          ((BloomFilter<CharSequence>) filter).write(output);
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ioe) {
+      log.warn("can't persist Bloom filter to {}", path, ioe);
+    }
+  }
+}
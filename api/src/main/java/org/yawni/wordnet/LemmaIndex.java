@@ -0,0 +1,166 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.yawni.util.cache.MinimalPerfectHash;
+import org.yawni.wordnet.FileManager.CharStream;
+
+/**
+ * Constant time map from the first word of each line of an {@code index.<em>pos</em>} file
+ * (i.e., each {@link Word} lemma) to the offset of that line, implemented with a
+ * {@link MinimalPerfectHash}.  {@link #candidateOffset(CharSequence)} returns an offset
+ * for <em>any</em> lemma, so the caller must verify the line at that offset actually
+ * starts with the lemma sought: one comparison.
+ *
+ * <p> Lemmas are hashed consistently with {@link WordNetLexicalComparator#TO_LOWERCASE_INSTANCE}
+ * (i.e., lowercased, with {@code ' '} considered equal to {@code '_'}).
+ *
+ * <p> Like {@link LineIndex}, a {@code LemmaIndex} can be computed from the file
+ * content or read from a precomputed {@code <fileName>.mph} sidecar.
+ */
+final class LemmaIndex {
+  /** "YLMP" */
+  private static final int MAGIC = 0x594c4d50;
+  private static final int VERSION = 1;
+  static final String SUFFIX = ".mph";
+
+  private final MinimalPerfectHash hash;
+  /** line offset of each slot of {@code hash} */
+  private final int[] offsets;
+  private final int length;
+
+  private LemmaIndex(final MinimalPerfectHash hash, final int[] offsets, final int length) {
+    this.hash = hash;
+    this.offsets = offsets;
+    this.length = length;
+  }
+
+  /**
+   * Computes the {@code LemmaIndex} of {@code stream} whose lines are described by {@code lines}.
+   * Lines with an empty first word (e.g., the license header) are skipped; for
+   * duplicate first words, the first line wins.
+   */
+  static LemmaIndex build(final CharStream stream, final LineIndex lines) {
+    final int numLines = lines.size();
+    long[] keyHashes = new long[numLines];
+    int[] lineOffsets = new int[numLines];
+    int size = 0;
+    long previous = 0;
+    for (int i = 0; i < numLines; i++) {
+      final int offset = lines.lineStart(i);
+      final int wordEnd = stream.wordEnd(offset, lines.lineStart(i + 1));
+      if (wordEnd == offset) {
+        continue;
+      }
+      final long keyHash = hash(stream, offset, wordEnd);
+      // file is sorted so duplicates are adjacent
+      if (size > 0 && keyHash == previous) {
+        continue;
+      }
+      keyHashes[size] = previous = keyHash;
+      lineOffsets[size] = offset;
+      size++;
+    }
+    keyHashes = Arrays.copyOf(keyHashes, size);
+    lineOffsets = Arrays.copyOf(lineOffsets, size);
+    final MinimalPerfectHash hash = MinimalPerfectHash.build(keyHashes);
+    final int[] offsets = new int[size];
+    for (int i = 0; i < size; i++) {
+      offsets[hash.indexOf(keyHashes[i])] = lineOffsets[i];
+    }
+    return new LemmaIndex(hash, offsets, stream.length());
+  }
+
+  /**
+   * Reads a sidecar written by {@link #write(OutputStream)}.
+   * @param expectedLength length of the file this index is expected to describe
+   * @return the {@code LemmaIndex} or {@code null} if the sidecar doesn't describe a file of
+   * {@code expectedLength} bytes
+   */
+  static LemmaIndex read(final InputStream input, final int expectedLength) throws IOException {
+    final DataInputStream data = new DataInputStream(input);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("not a lemma index sidecar");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported lemma index version "+version);
+    }
+    final int length = data.readInt();
+    if (length != expectedLength) {
+      return null;
+    }
+    final MinimalPerfectHash hash = MinimalPerfectHash.read(data);
+    final int[] offsets = new int[hash.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = data.readInt();
+    }
+    return new LemmaIndex(hash, offsets, length);
+  }
+
+  void write(final OutputStream output) throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(length);
+    hash.write(data);
+    for (final int offset : offsets) {
+      data.writeInt(offset);
+    }
+    data.flush();
+  }
+
+  /** @return number of distinct lemmas */
+  int size() {
+    return offsets.length;
+  }
+
+  /**
+   * @return offset of the line whose first word is {@code lemma} if there is one, otherwise
+   * the offset of some line or {@code -1}
+   */
+  int candidateOffset(final CharSequence lemma) {
+    if (offsets.length == 0) {
+      return -1;
+    }
+    return offsets[hash.indexOf(hash(lemma, 0, lemma.length()))];
+  }
+
+  /**
+   * 64-bit FNV-1a hash of the normalized chars [{@code s}, {@code e}) of {@code seq}
+   * followed by a final avalanche step.
+   */
+  static long hash(final CharSequence seq, final int s, final int e) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = s; i < e; i++) {
+      char c = Character.toLowerCase(seq.charAt(i));
+      c = c == ' ' ? '_' : c;
+      h ^= c;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 29;
+    h *= 0xbf58476d1ce4e5b9L;
+    h ^= h >>> 32;
+    return h;
+  }
+}
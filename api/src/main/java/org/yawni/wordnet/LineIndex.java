@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.yawni.wordnet.FileManager.CharStream;
+
+/**
+ * Sorted array of the start offsets of each line of a line-oriented WordNet file
+ * (e.g., {@code index.noun}, {@code noun.exc}).  With this table, {@link FileManager}
+ * can binary search a sorted file by line number; each probe is an array access
+ * followed by a comparison of the line's first word, so no scanning for line
+ * breaks is needed.
+ *
+ * <p> A {@code LineIndex} can be computed from the file content in a single
+ * pass ({@link #build(CharStream)}), or read from a precomputed "sidecar"
+ * ({@code <fileName>.lines}) which is typically packaged next to the file it
+ * indexes in a {@code yawni-wordnet-data*} jar.
+ *
+ * <p> The sidecar format is big-endian: magic, version, length of the indexed file
+ * in bytes, line count, and then the line start offsets.  The indexed file's
+ * length is used to reject sidecars which don't correspond to the file at hand.
+ */
+final class LineIndex {
+  /** "YLIX" */
+  private static final int MAGIC = 0x594c4958;
+  private static final int VERSION = 1;
+  static final String SUFFIX = ".lines";
+
+  private final int[] lineStarts;
+  private final int length;
+
+  private LineIndex(final int[] lineStarts, final int length) {
+    this.lineStarts = lineStarts;
+    this.length = length;
+  }
+
+  /**
+   * Computes the {@code LineIndex} of {@code stream} in a single pass.
+   */
+  static LineIndex build(final CharStream stream) {
+    final int length = stream.length();
+    int[] lineStarts = new int[1024];
+    int size = 0;
+    int offset = 0;
+    while (offset < length) {
+      if (size == lineStarts.length) {
+        lineStarts = Arrays.copyOf(lineStarts, size << 1);
+      }
+      lineStarts[size++] = offset;
+      offset = stream.nextLineOffset(offset);
+    }
+    return new LineIndex(Arrays.copyOf(lineStarts, size), length);
+  }
+
+  /**
+   * Reads a sidecar written by {@link #write(OutputStream)}.
+   * @param expectedLength length of the file this index is expected to describe
+   * @return the {@code LineIndex} or {@code null} if the sidecar doesn't describe a file of
+   * {@code expectedLength} bytes
+   */
+  static LineIndex read(final InputStream input, final int expectedLength) throws IOException {
+    final DataInputStream data = new DataInputStream(input);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("not a line index sidecar");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported line index version "+version);
+    }
+    final int length = data.readInt();
+    if (length != expectedLength) {
+      return null;
+    }
+    final int[] lineStarts = new int[data.readInt()];
+    for (int i = 0; i < lineStarts.length; i++) {
+      lineStarts[i] = data.readInt();
+    }
+    return new LineIndex(lineStarts, length);
+  }
+
+  void write(final OutputStream output) throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(length);
+    data.writeInt(lineStarts.length);
+    for (final int lineStart : lineStarts) {
+      data.writeInt(lineStart);
+    }
+    data.flush();
+  }
+
+  /** @return number of lines */
+  int size() {
+    return lineStarts.length;
+  }
+
+  /** @return length in bytes of the indexed file */
+  int length() {
+    return length;
+  }
+
+  /** @return offset of the start of line {@code lineNumber}, or {@link #length()} if there is no such line */
+  int lineStart(final int lineNumber) {
+    return lineNumber < lineStarts.length ? lineStarts[lineNumber] : length;
+  }
+
+  /** @return number of the first line which starts at or after {@code offset} */
+  int ceilingLine(final int offset) {
+    final int i = Arrays.binarySearch(lineStarts, offset);
+    return i >= 0 ? i : -i - 1;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import org.yawni.util.CharSequences;
+
+/**
+ * {@code Spliterator} of the lines of a line-oriented WordNet file (e.g., {@code data.noun},
+ * {@code index.verb}), each parsed by a {@link LineParser}.  Splits the byte range it covers
+ * in half, rounded to a line boundary, so a parallel {@code Stream} parses each part of the
+ * (memory mapped) file on a different thread.  The license lines at the start of each file
+ * (which start with 2 spaces) are skipped.
+ */
+final class LineSpliterator<T> implements Spliterator<T> {
+  private static final String TWO_SPACES = "  ";
+  /** don't split ranges smaller than this many bytes (roughly 32 - 256 lines) */
+  private static final int MIN_SPLIT = 1 << 14;
+
+  /**
+   * Parses the line which starts at {@code offset}.
+   */
+  @FunctionalInterface
+  interface LineParser<T> {
+    T parse(final CharSequence line, final int offset) throws IOException;
+  }
+
+  private final FileManagerInterface fileManager;
+  private final String fileName;
+  private final LineParser<T> parser;
+  /** start of the next line to parse */
+  private int offset;
+  /** exclusive end of the range; always a line start (or the length of the file) */
+  private final int end;
+
+  private LineSpliterator(final FileManagerInterface fileManager, final String fileName, final LineParser<T> parser,
+      final int offset, final int end) {
+    this.fileManager = fileManager;
+    this.fileName = fileName;
+    this.parser = parser;
+    this.offset = offset;
+    this.end = end;
+  }
+
+  /**
+   * @return {@code Spliterator} over all the lines of {@code fileName}
+   */
+  static <T> LineSpliterator<T> of(final FileManagerInterface fileManager, final String fileName, final LineParser<T> parser) {
+    try {
+      return new LineSpliterator<>(fileManager, fileName, parser, 0, fileManager.getFileLength(fileName));
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super T> action) {
+    try {
+      while (offset >= 0 && offset < end) {
+        final int lineOffset = offset;
+        final CharSequence line = fileManager.readLineViewAt(lineOffset, fileName);
+        if (line == null) {
+          offset = end;
+          return false;
+        }
+        offset = fileManager.getNextLinePointer(lineOffset, fileName);
+        if (CharSequences.startsWith(line, TWO_SPACES)) {
+          continue;
+        }
+        action.accept(parser.parse(line, lineOffset));
+        return true;
+      }
+      return false;
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    if (offset < 0 || end - offset < MIN_SPLIT) {
+      return null;
+    }
+    try {
+      final int mid = fileManager.getLineStartPointer(offset + (end - offset) / 2, fileName);
+      if (mid <= offset || mid >= end) {
+        return null;
+      }
+      // ORDERED: the prefix is split off
+      final LineSpliterator<T> prefix = new LineSpliterator<>(fileManager, fileName, parser, offset, mid);
+      offset = mid;
+      return prefix;
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  @Override
+  public long estimateSize() {
+    return offset < 0 ? 0 : Math.max(0, end - offset);
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL | IMMUTABLE;
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.yawni.util.LightImmutableList;
+import org.yawni.util.cache.MinimalPerfectHash;
+
+/**
+ * Precompiled {@link Morphy} results of one {@code POS}: a constant time map from each <em>single word</em>
+ * search string (normalized by {@link Morphy#searchNormalize(String)}, so it contains no {@code '_'} or
+ * {@code '-'}) which has base forms to those base forms, implemented with a {@link MinimalPerfectHash}
+ * (like {@link LemmaIndex}).  The map is <em>complete</em>: it's compiled from every string the
+ * {@code Morphy} algorithm could map to a base form (see {@link Morphy#compileIndex(POS)}), so a string
+ * which isn't in it has no base forms.
+ *
+ * <p> Search strings aren't stored.  Each slot holds the id of its list of base forms and the id of a
+ * <em>rule</em>: the suffixes which remain of the search string and of its first base form once their
+ * common prefix is removed (e.g., "ies" and "y" for "flies", "ran" and "run" for "ran"), from which the
+ * search string can be rebuilt.  There are few distinct rules and lists of base forms, so the lists are
+ * interned: a lookup is a hash, a comparison with the string rebuilt from the slot it maps to and, if they
+ * match, the shared list; nothing is allocated, no candidate strings are built and no files are searched.
+ * This isn't an automaton (like an FST), which could also enumerate its strings, but it's about as small
+ * as the {@code index.<em>pos</em>} file it's compiled from.
+ *
+ * <p> A {@code MorphIndex} is typically read from a precomputed {@code index.<em>pos</em>.morph} sidecar.
+ * The sidecar format is big-endian: magic, version, the lengths of the {@code index.<em>pos</em>} and
+ * exceptions files it was compiled from (used to reject stale sidecars) and the {@code MinimalPerfectHash},
+ * followed by varint encoded tables: the sorted, distinct base forms, each as the length of the prefix it
+ * shares with the previous one and the rest of it in UTF-8, the lists of base forms, each as its size and
+ * the ids of its base forms, the rules, each as two UTF-8 suffixes, most frequent first, and then each
+ * slot's list id and rule id.
+ */
+final class MorphIndex {
+  /** "YMOR" */
+  private static final int MAGIC = 0x594d4f52;
+  private static final int VERSION = 2;
+  static final String SUFFIX = ".morph";
+
+  private final MinimalPerfectHash hash;
+  /** the distinct base forms, sorted */
+  private final String[] strings;
+  /** the distinct lists of base forms */
+  private final LightImmutableList<String>[] lists;
+  /** the search string suffix of each rule */
+  private final String[] keySuffixes;
+  /** the base form suffix of each rule */
+  private final String[] baseSuffixes;
+  /** the {@code lists} id of each slot */
+  private final int[] slotLists;
+  /** the rule id of each slot */
+  private final int[] slotRules;
+  private final int indexLength;
+  private final int exceptionsLength;
+
+  private MorphIndex(final MinimalPerfectHash hash, final String[] strings, final LightImmutableList<String>[] lists,
+      final String[] keySuffixes, final String[] baseSuffixes, final int[] slotLists, final int[] slotRules,
+      final int indexLength, final int exceptionsLength) {
+    this.hash = hash;
+    this.strings = strings;
+    this.lists = lists;
+    this.keySuffixes = keySuffixes;
+    this.baseSuffixes = baseSuffixes;
+    this.slotLists = slotLists;
+    this.slotRules = slotRules;
+    this.indexLength = indexLength;
+    this.exceptionsLength = exceptionsLength;
+  }
+
+  /**
+   * @param baseForms the non-empty base forms of each search string
+   * @param indexLength length of the {@code index.<em>pos</em>} file {@code baseForms} was compiled from
+   * @param exceptionsLength length of the exceptions file {@code baseForms} was compiled from
+   */
+  static MorphIndex build(final Map<String, List<String>> baseForms, final int indexLength, final int exceptionsLength) {
+    final int size = baseForms.size();
+    final String[] keys = baseForms.keySet().toArray(new String[size]);
+    final long[] keyHashes = new long[size];
+    for (int i = 0; i < size; i++) {
+      keyHashes[i] = LemmaIndex.hash(keys[i], 0, keys[i].length());
+    }
+    final MinimalPerfectHash hash = MinimalPerfectHash.build(keyHashes);
+    final String[] slotKeys = new String[size];
+    for (int i = 0; i < size; i++) {
+      slotKeys[hash.indexOf(keyHashes[i])] = keys[i];
+    }
+
+    final TreeSet<String> distinct = new TreeSet<>();
+    for (final List<String> forms : baseForms.values()) {
+      distinct.addAll(forms);
+    }
+    final String[] strings = distinct.toArray(new String[distinct.size()]);
+    final Map<String, Integer> stringIds = new HashMap<>();
+    for (int i = 0; i < strings.length; i++) {
+      stringIds.put(strings[i], i);
+    }
+
+    final Map<List<String>, Integer> listIds = new HashMap<>();
+    final List<LightImmutableList<String>> lists = new ArrayList<>();
+    final Map<List<String>, Integer> ruleCounts = new HashMap<>();
+    final List<List<String>> rules = new ArrayList<>();
+    final int[] slotLists = new int[size];
+    final List<List<String>> slotRules = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final String key = slotKeys[i];
+      final List<String> forms = baseForms.get(key);
+      Integer listId = listIds.get(forms);
+      if (listId == null) {
+        listId = lists.size();
+        final String[] interned = new String[forms.size()];
+        for (int j = 0; j < interned.length; j++) {
+          interned[j] = strings[stringIds.get(forms.get(j))];
+        }
+        lists.add(LightImmutableList.of(interned));
+        listIds.put(forms, listId);
+      }
+      slotLists[i] = listId;
+      final String base = forms.get(0);
+      final int prefix = commonPrefixLength(key, base);
+      final List<String> rule = LightImmutableList.of(key.substring(prefix), base.substring(prefix));
+      final Integer count = ruleCounts.get(rule);
+      if (count == null) {
+        rules.add(rule);
+      }
+      ruleCounts.put(rule, count == null ? 1 : count + 1);
+      slotRules.add(rule);
+    }
+    // most frequent first so their ids are shortest
+    rules.sort((a, b) -> Integer.compare(ruleCounts.get(b), ruleCounts.get(a)));
+    final Map<List<String>, Integer> ruleIds = new HashMap<>();
+    final String[] keySuffixes = new String[rules.size()];
+    final String[] baseSuffixes = new String[rules.size()];
+    for (int i = 0; i < keySuffixes.length; i++) {
+      ruleIds.put(rules.get(i), i);
+      keySuffixes[i] = rules.get(i).get(0);
+      baseSuffixes[i] = rules.get(i).get(1);
+    }
+    final int[] slotRuleIds = new int[size];
+    for (int i = 0; i < size; i++) {
+      slotRuleIds[i] = ruleIds.get(slotRules.get(i));
+    }
+    return new MorphIndex(hash, strings, toArray(lists), keySuffixes, baseSuffixes, slotLists, slotRuleIds,
+      indexLength, exceptionsLength);
+  }
+
+  /**
+   * Reads a sidecar written by {@link #write(OutputStream)}.
+   * @return the {@code MorphIndex} or {@code null} if the sidecar wasn't compiled from files of
+   * {@code expectedIndexLength} and {@code expectedExceptionsLength} bytes
+   */
+  static MorphIndex read(final InputStream input, final int expectedIndexLength, final int expectedExceptionsLength) throws IOException {
+    final DataInputStream data = new DataInputStream(input);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("not a morph index sidecar");
+    }
+    final int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported morph index version "+version);
+    }
+    final int indexLength = data.readInt();
+    final int exceptionsLength = data.readInt();
+    if (indexLength != expectedIndexLength || exceptionsLength != expectedExceptionsLength) {
+      return null;
+    }
+    final MinimalPerfectHash hash = MinimalPerfectHash.read(data);
+
+    final String[] strings = new String[readVarint(data)];
+    String previous = "";
+    for (int i = 0; i < strings.length; i++) {
+      final int shared = readVarint(data);
+      strings[i] = previous.substring(0, shared) + readString(data);
+      previous = strings[i];
+    }
+    final List<LightImmutableList<String>> lists = new ArrayList<>();
+    for (int i = 0, n = readVarint(data); i < n; i++) {
+      final String[] forms = new String[readVarint(data)];
+      for (int j = 0; j < forms.length; j++) {
+        forms[j] = strings[readVarint(data)];
+      }
+      lists.add(LightImmutableList.of(forms));
+    }
+    final int ruleCount = readVarint(data);
+    final String[] keySuffixes = new String[ruleCount];
+    final String[] baseSuffixes = new String[ruleCount];
+    for (int i = 0; i < ruleCount; i++) {
+      keySuffixes[i] = readString(data);
+      baseSuffixes[i] = readString(data);
+    }
+    final int[] slotLists = new int[hash.size()];
+    final int[] slotRules = new int[hash.size()];
+    for (int i = 0; i < slotLists.length; i++) {
+      slotLists[i] = readVarint(data);
+      slotRules[i] = readVarint(data);
+    }
+    return new MorphIndex(hash, strings, toArray(lists), keySuffixes, baseSuffixes, slotLists, slotRules,
+      indexLength, exceptionsLength);
+  }
+
+  void write(final OutputStream output) throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(indexLength);
+    data.writeInt(exceptionsLength);
+    hash.write(data);
+
+    final Map<String, Integer> stringIds = new HashMap<>();
+    writeVarint(data, strings.length);
+    String previous = "";
+    for (int i = 0; i < strings.length; i++) {
+      final int shared = commonPrefixLength(previous, strings[i]);
+      writeVarint(data, shared);
+      writeString(data, strings[i].substring(shared));
+      stringIds.put(strings[i], i);
+      previous = strings[i];
+    }
+    writeVarint(data, lists.length);
+    for (final LightImmutableList<String> list : lists) {
+      writeVarint(data, list.size());
+      for (final String form : list) {
+        writeVarint(data, stringIds.get(form));
+      }
+    }
+    writeVarint(data, keySuffixes.length);
+    for (int i = 0; i < keySuffixes.length; i++) {
+      writeString(data, keySuffixes[i]);
+      writeString(data, baseSuffixes[i]);
+    }
+    for (int i = 0; i < slotLists.length; i++) {
+      writeVarint(data, slotLists[i]);
+      writeVarint(data, slotRules[i]);
+    }
+    data.flush();
+  }
+
+  /** @return number of search strings which have base forms */
+  int size() {
+    return slotLists.length;
+  }
+
+  /**
+   * @param str normalized single word search string
+   * @return the base forms of {@code str} (empty if it has none); the same list for each lookup of a string
+   */
+  LightImmutableList<String> lookup(final String str) {
+    if (size() == 0) {
+      return LightImmutableList.of();
+    }
+    final int slot = hash.indexOf(LemmaIndex.hash(str, 0, str.length()));
+    final LightImmutableList<String> list = lists[slotLists[slot]];
+    final String base = list.get(0);
+    final String keySuffix = keySuffixes[slotRules[slot]];
+    final int prefix = base.length() - baseSuffixes[slotRules[slot]].length();
+    if (str.length() != prefix + keySuffix.length() ||
+        ! str.regionMatches(0, base, 0, prefix) ||
+        ! str.startsWith(keySuffix, prefix)) {
+      return LightImmutableList.of();
+    }
+    return list;
+  }
+
+  private static int commonPrefixLength(final String a, final String b) {
+    final int n = Math.min(a.length(), b.length());
+    int i = 0;
+    while (i < n && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static LightImmutableList<String>[] toArray(final List<LightImmutableList<String>> lists) {
+    return lists.toArray(new LightImmutableList[lists.size()]);
+  }
+
+  /** writes {@code value} 7 bits per byte, least significant first, the high bit set on all but the last */
+  private static void writeVarint(final DataOutput data, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      data.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    data.writeByte(value);
+  }
+
+  private static int readVarint(final DataInput data) throws IOException {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      final byte b = data.readByte();
+      value |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static void writeString(final DataOutput data, final String str) throws IOException {
+    final byte[] bytes = str.getBytes(UTF_8);
+    writeVarint(data, bytes.length);
+    data.write(bytes);
+  }
+
+  private static String readString(final DataInput data) throws IOException {
+    final byte[] bytes = new byte[readVarint(data)];
+    data.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+}
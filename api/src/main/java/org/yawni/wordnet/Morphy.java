@@ -18,15 +18,26 @@
 package org.yawni.wordnet;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.io.Closeables;
 import org.yawni.util.cache.Cache;
 //import java.text.Normalizer.Form;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yawni.util.LightImmutableList;
-import org.yawni.util.cache.Caches;
+import org.yawni.util.cache.CacheStats;
 import org.yawni.util.CharSequenceTokenizer;
 import org.yawni.util.Utils;
 import org.yawni.wordnet.WordNet.DatabaseKey;
@@ -97,12 +108,31 @@ class Morphy {
 
   private final WordNet dictionary;
   private final Cache<DatabaseKey, LightImmutableList<String>> morphyCache;
+  private final FileManagerInterface fileManager;
+  /**
+   * {@code null} unless {@link WordNet.Builder#morphIndex(boolean) morphIndex} mode; absent for each
+   * {@code POS} which has no sidecar
+   */
+  private final ConcurrentMap<POS, Optional<MorphIndex>> morphIndexes;
 
-  Morphy(final WordNet dictionary) {
+  /**
+   * @param useMorphIndex if {@code true}, single word base forms are looked up in a {@link MorphIndex}
+   * read from {@code fileManager}, for each {@code POS} which has such a sidecar
+   */
+  Morphy(final WordNet dictionary, final Cache<DatabaseKey, LightImmutableList<String>> morphyCache,
+      final FileManagerInterface fileManager, final boolean useMorphIndex) {
     this.dictionary = dictionary;
-    // 0 capacity is for performance debugging
-    final int morphyCacheCapacity = WordNet.DEFAULT_CACHE_CAPACITY;
-    this.morphyCache = Caches.withCapacity(morphyCacheCapacity);
+    this.morphyCache = morphyCache;
+    this.fileManager = fileManager;
+    this.morphIndexes = useMorphIndex ? new ConcurrentHashMap<>() : null;
+  }
+
+  void clearCache() {
+    morphyCache.clear();
+  }
+
+  CacheStats cacheStats() {
+    return morphyCache.stats();
   }
 
   /**
@@ -192,6 +222,21 @@ class Morphy {
     if (str.length() == 0) {
       return LightImmutableList.of();
     }
+    if (morphIndexes != null && isSingleWord(str)) {
+      final MorphIndex morphIndex = getMorphIndex(pos);
+      if (morphIndex != null) {
+        return morphIndex.lookup(str);
+      }
+    }
+    final LightImmutableList<String> uniqed = morphstr(origstr, str, pos);
+    morphyCache.put(cacheKey, uniqed);
+    return uniqed;
+  }
+
+  /**
+   * Uncached {@link #morphstr(String, POS)} of {@code str}, the {@link #searchNormalize(String)}'d {@code origstr}.
+   */
+  private LightImmutableList<String> morphstr(final String origstr, final String str, final POS pos) {
     int wordCount = countWords(str, '_');
     if (log.isTraceEnabled()) {
       log.trace("origstr: "+origstr+" wordCount: "+wordCount+" "+pos);
@@ -420,13 +465,126 @@ class Morphy {
     //TODO toReturn has output with spaces (not underscores) and may include case
     //
     final LightImmutableList<String> uniqed = LightImmutableList.copyOf(Utils.dedup(toReturn));
-    morphyCache.put(cacheKey, uniqed);
     if (log.isDebugEnabled()) {
       log.debug("returning "+uniqed+" for origstr: \""+origstr+"\" "+pos+" str: "+str);
     }
     return uniqed;
   }
 
+  /**
+   * @return {@code true} if {@code str} (already {@link #searchNormalize(String)}'d) is a single word, so
+   * its base forms are in the {@link MorphIndex}
+   */
+  private static boolean isSingleWord(final String str) {
+    return str.indexOf('_') < 0 && str.indexOf('-') < 0;
+  }
+
+  /**
+   * @return the {@link MorphIndex} of {@code pos} read from its sidecar, or {@code null} if there isn't
+   * one (compiling it would cost as much as running {@code morphstr} on every candidate string)
+   */
+  private MorphIndex getMorphIndex(final POS pos) {
+    Optional<MorphIndex> morphIndex = morphIndexes.get(pos);
+    if (morphIndex == null) {
+      final long start = System.nanoTime();
+      morphIndex = Optional.ofNullable(readIndex(pos));
+      if (morphIndex.isPresent()) {
+        log.debug("{} morph index: {} {}ms", pos, morphIndex.get().size(), (System.nanoTime() - start) / 1000000);
+      } else {
+        log.info("no {}{} sidecar; not using a morph index for {}", WordNet.getIndexFileName(pos), MorphIndex.SUFFIX, pos);
+      }
+      final Optional<MorphIndex> existing = morphIndexes.putIfAbsent(pos, morphIndex);
+      if (existing != null) {
+        morphIndex = existing;
+      }
+    }
+    return morphIndex.orElse(null);
+  }
+
+  /**
+   * @return the {@link MorphIndex} of {@code pos} from its sidecar, or {@code null} if there isn't
+   * one matching the WordNet files
+   */
+  private MorphIndex readIndex(final POS pos) {
+    final String sidecarName = WordNet.getIndexFileName(pos) + MorphIndex.SUFFIX;
+    try {
+      final InputStream input = fileManager.openSidecar(sidecarName);
+      if (input == null) {
+        return null;
+      }
+      try {
+        final MorphIndex morphIndex = MorphIndex.read(new BufferedInputStream(input),
+          fileManager.getFileLength(WordNet.getIndexFileName(pos)),
+          fileManager.getFileLength(WordNet.getExceptionsFilename(pos)));
+        if (morphIndex == null) {
+          log.warn("ignoring stale morph index sidecar {}", sidecarName);
+        }
+        return morphIndex;
+      } finally {
+        Closeables.closeQuietly(input);
+      }
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Compiles the {@link MorphIndex} of {@code pos} by running {@code morphstr} on every single word
+   * string which could have a base form: each lemma, each form in the exceptions file, and each form
+   * which one of the {@code SUFX}/{@code ADDR} detachment rules maps to a lemma (for nouns, also
+   * followed by "ful", e.g., "boxesful").
+   */
+  MorphIndex compileIndex(POS pos) {
+    if (pos == POS.SAT_ADJ) {
+      pos = POS.ADJ;
+    }
+    final Set<String> candidates = new HashSet<>();
+    // only the exception list is used for adverbs
+    final int offset = pos == POS.ADV ? 0 : OFFSETS[pos.getWordNetCode()];
+    final int cnt = pos == POS.ADV ? 0 : CNTS[pos.getWordNetCode()];
+    for (final Word word : dictionary.words(pos)) {
+      final String lemma = word.getLowercasedLemma();
+      if (! isSingleWord(lemma)) {
+        continue;
+      }
+      candidates.add(lemma);
+      for (int i = offset; i < offset + cnt; i++) {
+        if (lemma.endsWith(ADDR[i])) {
+          final String inflected = lemma.substring(0, lemma.length() - ADDR[i].length()) + SUFX[i];
+          candidates.add(inflected);
+          if (pos == POS.NOUN) {
+            candidates.add(inflected + "ful");
+          }
+        }
+      }
+    }
+    for (final List<String> exception : dictionary.exceptions(pos)) {
+      for (final String form : exception) {
+        if (isSingleWord(form)) {
+          candidates.add(form);
+        }
+      }
+    }
+    final Map<String, List<String>> baseForms = new HashMap<>();
+    for (final String candidate : candidates) {
+      final String str = searchNormalize(candidate);
+      if (str.length() == 0 || ! isSingleWord(str) || baseForms.containsKey(str)) {
+        continue;
+      }
+      final LightImmutableList<String> morphs = morphstr(str, str, pos);
+      if (! morphs.isEmpty()) {
+        baseForms.put(str, morphs);
+      }
+    }
+    try {
+      return MorphIndex.build(baseForms,
+        fileManager.getFileLength(WordNet.getIndexFileName(pos)),
+        fileManager.getFileLength(WordNet.getExceptionsFilename(pos)));
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
   private void addTrueCaseLemmas(final Word word, final List<String> lemmas) {
     for (final WordSense wordSense : word.getWordSenses()) {
       // lemma's are already "cleaned"
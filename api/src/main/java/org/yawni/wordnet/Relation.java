@@ -97,9 +97,28 @@ public abstract class Relation implements Comparable<Relation> {
          relationType);
   }
 
-  /** Factory method */
-  static Relation makeRelation(final Synset synset, final int index, final CharSequenceTokenizer tokenizer) {
-    final RelationType relationType = RelationType.parseKey(tokenizer.nextToken(), synset.getPOS());
+  //
+  // Packed form
+  //
+  // A Synset holds each of its Relations packed into a long, from most to least significant bits:
+  // type ordinal, lexical flag, target POS ordinal, source index, target index, target offset.
+  // Its source is implied: the holding Synset (index 0) or one of its WordSenses.  Relation objects
+  // are views of these, created on demand.
+  //
+
+  private static final int TARGET_OFFSET_BITS = 32;
+  private static final int INDEX_BITS = 8;
+  private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+  private static final int POS_BITS = 3;
+  private static final int POS_MASK = (1 << POS_BITS) - 1;
+  private static final int TYPE_SHIFT = TARGET_OFFSET_BITS + 2 * INDEX_BITS + POS_BITS + 1;
+
+  /**
+   * Parses a pointer of a {@code data.<em>pos</em>} line, e.g., {@code "@ 02084071 n 0000"}, of a
+   * {@code Synset} of {@code pos} into its packed form.
+   */
+  static long parse(final POS pos, final CharSequenceTokenizer tokenizer) {
+    final RelationType relationType = RelationType.parseKey(tokenizer.nextToken(), pos);
 
     final int targetOffset = tokenizer.nextInt();
 
@@ -108,16 +127,69 @@ public abstract class Relation implements Comparable<Relation> {
     assert linkIndices >> 16 == 0;
     final int sourceIndex = linkIndices >> 8; // select high byte
     final int targetIndex = linkIndices & 0xFF; // select low byte
+    return pack(relationType, sourceIndex, targetPOS, targetOffset, targetIndex);
+  }
+
+  /**
+   * @param sourceIndex 1-based index of the source {@code WordSense} in its {@code Synset}, or 0 if the
+   * source is the {@code Synset} itself (i.e., a semantic relation); see {@link #resolve(Synset, int)}
+   * @param targetIndex same for the target
+   */
+  static long pack(final RelationType type, final int sourceIndex, final POS targetPOS, final int targetOffset,
+      final int targetIndex) {
+    if (sourceIndex >>> INDEX_BITS != 0 || targetIndex >>> INDEX_BITS != 0) {
+      throw new IllegalArgumentException("relation index overflow: "+sourceIndex+" "+targetIndex);
+    }
+    long bits = type.getByteOrdinal();
+    bits = (bits << 1) | (sourceIndex != 0 ? 1 : 0);
+    bits = (bits << POS_BITS) | targetPOS.getByteOrdinal();
+    bits = (bits << INDEX_BITS) | sourceIndex;
+    bits = (bits << INDEX_BITS) | targetIndex;
+    return (bits << TARGET_OFFSET_BITS) | (targetOffset & 0xFFFFFFFFL);
+  }
+
+  /** @return packed relation {@code packed} with type {@code type} */
+  static long withType(final long packed, final RelationType type) {
+    final long typeMask = -1L << TYPE_SHIFT;
+    return (packed & ~typeMask) | ((long) type.getByteOrdinal() << TYPE_SHIFT);
+  }
 
-    final RelationArgument source = Relation.resolve(synset, sourceIndex);
-    if (source instanceof WordSense) {
-      return new LexicalRelation(targetOffset, targetIndex, targetPOS,
-          synset.wordNet, index, synset.getOffset(), sourceIndex, synset.getPOS(), relationType);
-    } else if (source instanceof Synset) {
-      return new SemanticRelation(targetOffset, targetIndex, targetPOS,
-          synset.wordNet, index, synset.getOffset(), sourceIndex, synset.getPOS(), relationType);
+  static RelationType type(final long packed) {
+    return RelationType.fromOrdinal((byte) (packed >>> TYPE_SHIFT));
+  }
+
+  static boolean isLexical(final long packed) {
+    return ((packed >>> (TYPE_SHIFT - 1)) & 1) != 0;
+  }
+
+  static POS targetPOS(final long packed) {
+    return POS.fromOrdinal((byte) ((packed >>> (TARGET_OFFSET_BITS + 2 * INDEX_BITS)) & POS_MASK));
+  }
+
+  static int sourceIndex(final long packed) {
+    return (int) (packed >>> (TARGET_OFFSET_BITS + INDEX_BITS)) & INDEX_MASK;
+  }
+
+  static int targetIndex(final long packed) {
+    return (int) (packed >>> TARGET_OFFSET_BITS) & INDEX_MASK;
+  }
+
+  static int targetOffset(final long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * Materializes packed relation {@code packed} whose source is {@code synset} (or one of its
+   * {@code WordSense}s).
+   * @param sourceRelationIndex index of the result in {@code synset}'s {@link Synset#getRelations()}
+   */
+  static Relation unpack(final long packed, final Synset synset, final int sourceRelationIndex) {
+    if (isLexical(packed)) {
+      return new LexicalRelation(targetOffset(packed), targetIndex(packed), targetPOS(packed),
+          synset.wordNet, sourceRelationIndex, synset.getOffset(), sourceIndex(packed), synset.getPOS(), type(packed));
     } else {
-      throw new IllegalArgumentException();
+      return new SemanticRelation(targetOffset(packed), targetIndex(packed), targetPOS(packed),
+          synset.wordNet, sourceRelationIndex, synset.getOffset(), sourceIndex(packed), synset.getPOS(), type(packed));
     }
   }
 
@@ -0,0 +1,270 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import org.yawni.wordnet.FileManager.CharStream;
+
+/**
+ * A WordNet <em>snapshot</em> is a single, versioned, memory-mappable file containing the content of a
+ * WordNet {@code dict/} directory together with everything Yawni would otherwise compute from it at
+ * runtime: the {@link LineIndex} ({@code <fileName>.lines}) of each sorted file, the {@link LemmaIndex}
+ * ({@code <fileName>.mph}) and {@link MorphIndex} ({@code <fileName>.morph}) of each {@code index.<em>pos</em>}
+ * file, and the {@link SynsetStore} ({@code data.<em>pos</em>.synsets}) and {@link HypernymIndex}
+ * ({@code data.<em>pos</em>.hypernyms}) of each {@code data.<em>pos</em>} file.  Opening a snapshot maps it and
+ * reads its directory; each section is then used in place (files) or bulk copied (indexes) on first use,
+ * so there is no per-file copying out of jars and no text parsing.
+ *
+ * <p> The format is big-endian: magic, version, section count, and a directory of (name, offset, length)
+ * entries followed by the sections, each aligned to 8 bytes.
+ *
+ * <p> Usage: {@code java -cp yawni-wordnet-api.jar:<dependencies> org.yawni.wordnet.Snapshot <dict directory> <snapshot file>}
+ * @see WordNet.Builder#snapshot(Path)
+ */
+// mvn -pl api exec:java -Dexec.mainClass="org.yawni.wordnet.Snapshot" -Dexec.args="../data30/src/main/resources/dict wordnet30.snapshot"
+final class Snapshot {
+  /** "YWNS" */
+  private static final int MAGIC = 0x59574e53;
+  private static final int VERSION = 1;
+  private static final int ALIGNMENT = 8;
+
+  private final String name;
+  private final Map<String, ByteBuffer> sections;
+
+  private Snapshot(final String name, final Map<String, ByteBuffer> sections) {
+    this.name = name;
+    this.sections = sections;
+  }
+
+  /**
+   * Maps snapshot file {@code path} and reads its directory.
+   * @throws IOException if {@code path} can't be read or isn't a snapshot of a supported version
+   */
+  static Snapshot open(final Path path) throws IOException {
+    final MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    final DataInputStream header = new DataInputStream(new ByteBufferInputStream(buffer.duplicate()));
+    if (header.readInt() != MAGIC) {
+      throw new IOException("not a WordNet snapshot: "+path);
+    }
+    final int version = header.readInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported snapshot version "+version+": "+path);
+    }
+    final Map<String, ByteBuffer> sections = new TreeMap<>();
+    for (int i = header.readInt(); i > 0; i--) {
+      final String sectionName = header.readUTF();
+      final int offset = header.readInt();
+      final int length = header.readInt();
+      sections.put(sectionName, slice(buffer, offset, length));
+    }
+    return new Snapshot(path.toString(), sections);
+  }
+
+  private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+    final ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(offset);
+    duplicate.limit(offset + length);
+    return duplicate.slice();
+  }
+
+  /**
+   * @return a new read-only buffer of the content of section {@code sectionName} (e.g., {@code "index.noun"},
+   * {@code "index.noun.lines"}), positioned at 0, or {@code null} if there is no such section
+   */
+  ByteBuffer section(final String sectionName) {
+    final ByteBuffer section = sections.get(sectionName);
+    return section == null ? null : section.asReadOnlyBuffer();
+  }
+
+  /**
+   * @return stream of the content of section {@code sectionName} or {@code null} if there is no such section
+   */
+  InputStream openSection(final String sectionName) {
+    final ByteBuffer section = section(sectionName);
+    return section == null ? null : new ByteBufferInputStream(section);
+  }
+
+  @Override
+  public String toString() {
+    return "[Snapshot "+name+" sections: "+sections.size()+"]";
+  }
+
+  /**
+   * Compiles the WordNet files of {@code dictDir} (and any sidecars there) into a snapshot written to {@code output}.
+   */
+  static void compile(final File dictDir, final File output) throws IOException {
+    final File[] files = dictDir.listFiles();
+    if (files == null) {
+      throw new IOException("not a directory: "+dictDir);
+    }
+    final Map<String, ByteBuffer> sections = new TreeMap<>();
+    for (final File file : files) {
+      if (file.isFile()) {
+        sections.put(file.getName(), ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+      }
+    }
+    // derived sections are computed from the raw files, via the same code used to read snapshots
+    final FileManager fileManager = new FileManager(new Snapshot(dictDir.toString(), new TreeMap<>(sections)));
+    for (final POS pos : POS.CATS) {
+      final String name = pos.name().toLowerCase();
+      addIndexes(fileManager, "index." + name, true, sections);
+      addIndexes(fileManager, name + ".exc", false, sections);
+    }
+    addIndexes(fileManager, "index.sense", false, sections);
+    final WordNet wordNet = new WordNet(fileManager, WordNet.builder().inMemory(false), null);
+    for (final POS pos : POS.CATS) {
+      final String fileName = WordNet.getDataFilename(pos);
+      if (sections.containsKey(fileName)) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        wordNet.loadSynsetStore(pos).write(bytes);
+        sections.put(fileName + SynsetStore.SUFFIX, ByteBuffer.wrap(bytes.toByteArray()));
+        final ByteArrayOutputStream hypernyms = new ByteArrayOutputStream();
+        wordNet.loadHypernymIndex(pos).write(hypernyms);
+        sections.put(fileName + HypernymIndex.SUFFIX, ByteBuffer.wrap(hypernyms.toByteArray()));
+      }
+      final String indexFileName = WordNet.getIndexFileName(pos);
+      if (sections.containsKey(indexFileName) && sections.containsKey(WordNet.getExceptionsFilename(pos))) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        wordNet.morphy.compileIndex(pos).write(bytes);
+        sections.put(indexFileName + MorphIndex.SUFFIX, ByteBuffer.wrap(bytes.toByteArray()));
+      }
+    }
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+      write(sections, out);
+    }
+  }
+
+  private static void addIndexes(final FileManager fileManager, final String fileName, final boolean lemmas,
+      final Map<String, ByteBuffer> sections) throws IOException {
+    if (! sections.containsKey(fileName)) {
+      return;
+    }
+    final CharStream stream = fileManager.getFileStream(fileName);
+    final LineIndex lines = LineIndex.build(stream);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    lines.write(bytes);
+    sections.put(fileName + LineIndex.SUFFIX, ByteBuffer.wrap(bytes.toByteArray()));
+    if (lemmas) {
+      bytes = new ByteArrayOutputStream();
+      LemmaIndex.build(stream, lines).write(bytes);
+      sections.put(fileName + LemmaIndex.SUFFIX, ByteBuffer.wrap(bytes.toByteArray()));
+    }
+  }
+
+  private static void write(final Map<String, ByteBuffer> sections, final OutputStream output) throws IOException {
+    // the directory's size doesn't depend on the offsets it contains, so lay it out once to measure it
+    final int headerLength = header(sections, 0).length;
+    final DataOutputStream data = new DataOutputStream(output);
+    data.write(header(sections, headerLength));
+    int offset = headerLength;
+    for (final ByteBuffer section : sections.values()) {
+      final int padding = padding(offset);
+      data.write(new byte[padding]);
+      final ByteBuffer content = section.duplicate();
+      content.rewind();
+      final byte[] bytes = new byte[content.remaining()];
+      content.get(bytes);
+      data.write(bytes);
+      offset += padding + bytes.length;
+    }
+    data.flush();
+  }
+
+  private static byte[] header(final Map<String, ByteBuffer> sections, final int headerLength) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream data = new DataOutputStream(bytes);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(sections.size());
+    int offset = headerLength;
+    for (final Map.Entry<String, ByteBuffer> section : sections.entrySet()) {
+      offset += padding(offset);
+      final int length = section.getValue().capacity();
+      data.writeUTF(section.getKey());
+      data.writeInt(offset);
+      data.writeInt(length);
+      offset += length;
+    }
+    data.flush();
+    return bytes.toByteArray();
+  }
+
+  private static int padding(final int offset) {
+    return (ALIGNMENT - (offset % ALIGNMENT)) % ALIGNMENT;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.println("usage: Snapshot <dict directory> <snapshot file>");
+      System.exit(1);
+    }
+    final File output = new File(args[1]);
+    compile(new File(args[0]), output);
+    System.err.println(output+" "+open(output.toPath()));
+  }
+
+  /** {@code InputStream} of the remaining content of a {@code ByteBuffer} */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (! buffer.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -21,10 +21,11 @@ import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.SignedBytes;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -59,14 +60,12 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   /** offset in <code>data.<em>pos</em></code> file; {@code Synset.hereiam} in {@code wn.h} */
   private final int offset;
   private final LightImmutableList<WordSense> wordSenses;
-  // TODO consider storing Relations indirectly
-  // (all have common source == this?)
-  // pos, synset offset, optionally Synset WordSense rank (NOT sense number which is Word-relative rank)
-  // also requires WordNet ref
-  // increases Synset's direct 32-bit size
-  // to 4+1+4+2 = 11 B, though may be able to pack synset offset and rank into less bytes
-  // ! SoftReference is the way to go here !
-  private final LightImmutableList<Relation> relations;
+  /**
+   * Relations whose source is this {@code Synset} or one of its {@code WordSense}s, each packed into a
+   * {@code long} (see {@link Relation#pack(RelationType, int, POS, int, int)}); {@code Relation}s are views of
+   * these created on demand.  {@code null} until decoded (see {@link #packedRelations()}).
+   */
+  private volatile long[] relations;
   private final byte posOrdinal;
   private final byte lexfilenum;
   private final boolean isAdjectiveCluster;
@@ -74,7 +73,16 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   //
   // Constructor
   //
-  Synset(final String line, final WordNet wordNet) {
+  Synset(final CharSequence line, final WordNet wordNet) {
+    this(line, wordNet, false);
+  }
+
+  /**
+   * @param decodeRelations if {@code false}, this {@code Synset}'s relations are decoded from its line on first
+   * use, so {@code Synset}s only used for their word senses (e.g., lemma display) don't pay for parsing them,
+   * nor for the {@code VERB_GROUP} and morphosemantic lookups they entail
+   */
+  Synset(final CharSequence line, final WordNet wordNet, final boolean decodeRelations) {
     this.wordNet = wordNet;
     final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(line, " ");
     this.offset = tokenizer.nextInt();
@@ -127,19 +135,16 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     }
     this.wordSenses = LightImmutableList.of(localWordSenses);
 
-    final int relationCount = tokenizer.nextInt();
-    // allocate extra space in this temporary for additional Relations (e.g., morphosemantic)
-    final List<Relation> localRelations = new ArrayList<>(2 * relationCount);
-    for (int i = 0; i < relationCount; i++) {
-      final Relation relation = Relation.makeRelation(this, localRelations.size(), tokenizer);
-      localRelations.add(relation);
-      addVerbGroupTransitiveClosureRelations(relation, localRelations);
-      addExtraMorphosemanticRelations(relation, localRelations);
+    if (decodeRelations) {
+      this.relations = decodeRelations(tokenizer);
+    } else if (posOrdinal == POS.VERB.getByteOrdinal()) {
+      // verb frames follow the relations
+      final int relationCount = tokenizer.nextInt();
+      for (int i = 0; i < 4 * relationCount; i++) {
+        tokenizer.skipNextToken();
+      }
     }
 
-    this.relations = LightImmutableList.copyOf(localRelations);
-    //assert relations.equals(localRelations);
-
     if (posOrdinal == POS.VERB.getByteOrdinal()) {
       final int f_cnt = tokenizer.nextInt();
       for (int i = 0; i < f_cnt; i++) {
@@ -158,8 +163,78 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     }
   }
 
-  private boolean addVerbGroupTransitiveClosureRelations(final Relation relation, final List<Relation> localRelations) {
-    if (relation.getType() != RelationType.VERB_GROUP) {
+  /**
+   * Materializes synset number {@code index} of {@code store}; equivalent to parsing its line.
+   * @see SynsetStore#synset(int, WordNet)
+   */
+  Synset(final SynsetStore store, final int index, final WordNet wordNet) {
+    this.wordNet = wordNet;
+    this.offset = store.offset(index);
+    this.lexfilenum = store.lexfilenum(index);
+    this.isAdjectiveCluster = store.isAdjectiveCluster(index);
+    this.posOrdinal = store.getPOS().getByteOrdinal();
+    final int senseStart = store.senseStart(index);
+    final WordSense[] localWordSenses = new WordSense[store.senseEnd(index) - senseStart];
+    for (int i = 0; i < localWordSenses.length; i++) {
+      final int sense = senseStart + i;
+      localWordSenses[i] = new WordSense(this, store.senseLemma(sense), store.senseLexid(sense), store.senseAdjPosition(sense));
+      localWordSenses[i].setVerbFrameFlags(store.senseVerbFrames(sense));
+    }
+    this.wordSenses = LightImmutableList.of(localWordSenses);
+    this.relations = store.relations(index);
+  }
+
+  /**
+   * Parses the relations of this {@code Synset}'s line, which {@code tokenizer} is positioned at, adding the
+   * transitive {@code VERB_GROUP} and morphosemantic relations of each.
+   */
+  private long[] decodeRelations(final CharSequenceTokenizer tokenizer) {
+    final int relationCount = tokenizer.nextInt();
+    // allocate extra space in this temporary for additional relations (e.g., morphosemantic)
+    final RelationBuffer localRelations = new RelationBuffer(2 * relationCount);
+    for (int i = 0; i < relationCount; i++) {
+      final long relation = Relation.parse(getPOS(), tokenizer);
+      localRelations.add(relation);
+      addVerbGroupTransitiveClosureRelations(relation, localRelations);
+      addExtraMorphosemanticRelations(relation, localRelations);
+    }
+    return localRelations.toArray();
+  }
+
+  /**
+   * Growable array of packed relations, for parsing.
+   */
+  private static final class RelationBuffer {
+    private long[] relations;
+    private int size;
+
+    RelationBuffer(final int capacity) {
+      this.relations = new long[Math.max(1, capacity)];
+    }
+
+    void add(final long relation) {
+      if (size == relations.length) {
+        relations = Arrays.copyOf(relations, size << 1);
+      }
+      relations[size++] = relation;
+    }
+
+    boolean contains(final long relation) {
+      for (int i = 0; i < size; i++) {
+        if (relations[i] == relation) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    long[] toArray() {
+      return Arrays.copyOf(relations, size);
+    }
+  } // end class RelationBuffer
+
+  private boolean addVerbGroupTransitiveClosureRelations(final long relation, final RelationBuffer localRelations) {
+    if (Relation.type(relation) != RelationType.VERB_GROUP) {
       return false;
     }
     assert posOrdinal == 2;
@@ -169,9 +244,9 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     if (Iterables.isEmpty(lexRelLines)) {
       return false;
     }
-    final POS myTargetPOS = relation.getTargetPOS();
+    final POS myTargetPOS = Relation.targetPOS(relation);
     assert myTargetPOS == POS.VERB;
-    final int myTargetSynsetIdx = relation.getTargetIndex();
+    final int myTargetSynsetIdx = Relation.targetIndex(relation);
     assert myTargetSynsetIdx == 0;
     boolean foundMatch = false;
     for (final CharSequence vgRelLine : lexRelLines) {
@@ -179,18 +254,14 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
       // not really necessary, could just skipToken()
       final String sourceOffsetString = lexTokenizer.nextToken();
       assert sourceOffsetString.contentEquals(sourceOffsetKey);
-      final int sourceOffset = Integer.parseInt(sourceOffsetString);
+      assert Integer.parseInt(sourceOffsetString) == offset;
       while (lexTokenizer.hasMoreTokens()) {
         final int targetOffset = lexTokenizer.nextInt();
         final int targetIndex = 0; // targetIndex of Synset is 0; see Relation#getTarget()/Relation#resolve
         final int sourceIndex = 0; // ''
-        final SemanticRelation vgRelation = new SemanticRelation(
-            targetOffset, targetIndex, POS.VERB,
-            wordNet, localRelations.size(), sourceOffset, sourceIndex, POS.VERB,
-            RelationType.VERB_GROUP
-        );
+        final long vgRelation = Relation.pack(RelationType.VERB_GROUP, sourceIndex, POS.VERB, targetOffset, targetIndex);
         // ensure not already in there
-        if (! contains(vgRelation, localRelations)) {
+        if (! localRelations.contains(vgRelation)) {
           localRelations.add(vgRelation);
           foundMatch = true;
         } else {
@@ -202,38 +273,20 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     return foundMatch;
   }
 
-  // because srcRelationIndex is generated, we can't use it in the comparison; ultimately,
-  // the srcRelationIndex will be unique and effects the equals() and compareTo() ordering,
-  // so we have to compare manually to prevent logical duplicates
-  private static boolean contains(final Relation needle, final List<Relation> localRelations) {
-    for (final Relation that : localRelations) {
-      if (that.getSourceOffset() == needle.getSourceOffset()
-         && that.getSourceIndex() == needle.getSourceIndex()
-         // DON'T USE SYNTHESIZED SOURCE RELATION INDEX && that.getSourceRelationIndex() == needle.getSourceRelationIndex()
-         && that.getType() == needle.getType()
-         && that.getTargetOffset() == needle.getTargetOffset()
-         && that.getTargetIndex() == needle.getTargetIndex()) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  private boolean addExtraMorphosemanticRelations(final Relation relation, final List<Relation> localRelations) {
-    if (relation.getType() != RelationType.DERIVATIONALLY_RELATED) {
+  private boolean addExtraMorphosemanticRelations(final long relation, final RelationBuffer localRelations) {
+    if (Relation.type(relation) != RelationType.DERIVATIONALLY_RELATED) {
       return false;
     }
     final POS srcPOS = getPOS();
     if (srcPOS != POS.NOUN && srcPOS != POS.VERB) {
       return false;
     }
-    final POS targetPOS = relation.getTargetPOS();
+    final POS targetPOS = Relation.targetPOS(relation);
     if (targetPOS != POS.NOUN && targetPOS != POS.VERB) {
       return false;
     }
     // insert MorphosemanticRelation instances
-    final LexicalRelation lexRel = (LexicalRelation) relation;
-//      showLine(lexRel);
+    assert Relation.isLexical(relation);
     final String srcOffsetKey = offsetKey(offset, srcPOS);
     final Iterable<CharSequence> lexRelLines = wordNet.lookupMorphoSemanticRelationLines(srcOffsetKey);
     // 1331 of these
@@ -244,12 +297,12 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     }
     // this is invariant for this relation
     // mySrcSynsetIdx = wordSenses.indexOf(lexRel.getSource())
-    final int mySrcSynsetIdx = lexRel.getSourceIndex() - 1;
+    final int mySrcSynsetIdx = Relation.sourceIndex(relation) - 1;
     assert mySrcSynsetIdx >= 0;
-    final POS myTargetPOS = lexRel.getTargetPOS();
-    final int myTargetSynsetIdx = lexRel.getTargetIndex() - 1;
+    final POS myTargetPOS = Relation.targetPOS(relation);
+    final int myTargetSynsetIdx = Relation.targetIndex(relation) - 1;
     assert myTargetSynsetIdx >= 0;
-    final int myTargetOffset = lexRel.getTargetOffset();
+    final int myTargetOffset = Relation.targetOffset(relation);
     boolean foundMatch = false;
     RelationType mrtype = null;
     for (final CharSequence lexRelLine : lexRelLines) {
@@ -291,13 +344,11 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
 
     if (mrtype != null) {
 //          System.err.println("full match! "+mrtype);
-      final LexicalRelation morphosemanticRelation = new LexicalRelation(lexRel, mrtype, localRelations.size());
-      localRelations.add(morphosemanticRelation);
+      localRelations.add(Relation.withType(relation, mrtype));
     }
     //        assert foundMatch;
     if (! foundMatch) {
       // 4895 instances
-//        showLine(lexRel);
     }
     return foundMatch;
   }
@@ -319,18 +370,6 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     }
   }
 
-  // debug method
-  private static void showLine(final LexicalRelation lexRel) {
-    final int srcPOS = lexRel.getSource().getPOS().ordinal();
-    final int srcOffset = lexRel.getSource().getSynset().getOffset();
-    final int srcSynsetIdx = lexRel.getSource().getSynset().getWordSenses().indexOf(lexRel.getSource());
-
-    final int targetPOS = lexRel.getTargetPOS().ordinal();
-    final int targetOffset = lexRel.getTargetOffset();
-    final int targetSynsetIdx = lexRel.getTargetIndex();
-    System.err.println("actual lexRel: "+srcPOS+""+srcOffset+" "+srcSynsetIdx+" "+"XXX"+" "+targetPOS+""+targetOffset+" "+targetSynsetIdx);
-  }
-
   //
   // Accessors
   //
@@ -497,7 +536,35 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
    */
   @Override
   public List<Relation> getRelations() {
-    return relations;
+    final long[] packed = packedRelations();
+    final Relation[] views = new Relation[packed.length];
+    for (int i = 0; i < views.length; i++) {
+      views[i] = Relation.unpack(packed[i], this, i);
+    }
+    return LightImmutableList.of(views);
+  }
+
+  /**
+   * @return the packed form of {@link #getRelations()}, decoded from this {@code Synset}'s line on first use;
+   * not to be modified
+   */
+  long[] packedRelations() {
+    long[] packed = relations;
+    if (packed == null) {
+      // racing threads decode equal arrays
+      final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(wordNet.getSynsetLineViewAt(getPOS(), offset), " ");
+      // skip offset, lexfilenum and ss_type, then the lemma and lexid of each word sense
+      for (int i = 0; i < 3; i++) {
+        tokenizer.skipNextToken();
+      }
+      final int wordCount = tokenizer.nextHexInt();
+      for (int i = 0; i < 2 * wordCount; i++) {
+        tokenizer.skipNextToken();
+      }
+      packed = decodeRelations(tokenizer);
+      relations = packed;
+    }
+    return packed;
   }
 
   @Override
@@ -510,22 +577,23 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     // really, includeAuxiliaryTypes should only mean include instances
     final boolean includeInstances = true;
     List<Relation> list = null;
+    final long[] packed = packedRelations();
     //TODO
     // if superTypes exist, search them
     // if current type exists, search it
     // if subTypes exist, search them
-    for (final Relation relation : relations) {
-      final RelationType rType = relation.getType();
+    for (int i = 0; i < packed.length; i++) {
+      final RelationType rType = Relation.type(packed[i]);
 //      } else if (includeInstances && soughtType == HYPONYM && rType == INSTANCE_HYPONYM) {
 //        list = add(list, relation);
 //      } else if (includeInstances && soughtType == HYPERNYM && rType == INSTANCE_HYPERNYM) {
 //        list = add(list, relation);
 //      }
         if (rType == soughtType) {
-          list = add(list, relation);
+          list = add(list, Relation.unpack(packed[i], this, i));
 //        } else if (rType.auxiliaryTypes.contains(soughtType)) {
         } else if (soughtType.auxiliaryTypes.contains(rType)) {
-          list = add(list, relation);
+          list = add(list, Relation.unpack(packed[i], this, i));
         }
     }
     // if list == null && type has auxType, recall this method with that auxtype
@@ -559,14 +627,11 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   @Override
   public List<SemanticRelation> getSemanticRelations(final RelationType type) {
     List<SemanticRelation> list = null;
-    for (final Relation relation : relations) {
-      if ((type == null || relation.getType() == type) &&
-        relation.getSourceOffset() == this.getOffset() &&
-        relation.getSourcePOS() == this.getPOS() &&
-        relation instanceof SemanticRelation
-      ) {
-        final SemanticRelation semanticRelation = (SemanticRelation) relation;
-        list = add(list, semanticRelation);
+    final long[] packed = packedRelations();
+    for (int i = 0; i < packed.length; i++) {
+      final long relation = packed[i];
+      if ((type == null || Relation.type(relation) == type) && ! Relation.isLexical(relation)) {
+        list = add(list, (SemanticRelation) Relation.unpack(relation, this, i));
       }
     }
     if (list == null) {
@@ -580,6 +645,48 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
         .map(SemanticRelation::getTarget);
   }
 
+  /**
+   * Passes the offset of the target of each {@link SemanticRelation} of type {@code type} (or of any type if
+   * {@code type} is {@code null}) whose target has this {@code Synset}'s {@code POS} to {@code targetOffsets}, in
+   * {@link #getRelations()} order, without materializing any {@code Relation} or {@code Synset}; e.g., for
+   * traversals of the {@link RelationType#HYPERNYM} taxonomy.
+   * @see WordNet#getSynsetAt(POS, int)
+   */
+  public void forEachRelationTarget(final RelationType type, final IntConsumer targetOffsets) {
+    for (final long relation : packedRelations()) {
+      if ((type == null || Relation.type(relation) == type) &&
+          ! Relation.isLexical(relation) &&
+          Relation.targetPOS(relation).getByteOrdinal() == posOrdinal) {
+        targetOffsets.accept(Relation.targetOffset(relation));
+      }
+    }
+  }
+
+  /**
+   * Supports {@link WordSense#getRelations(RelationType)}.
+   * @return this {@code Synset}'s {@link SemanticRelation}s and the {@link LexicalRelation}s whose source is
+   * {@code source}, of type {@code type} (or of any type if {@code type} is {@code null})
+   */
+  List<Relation> getRelations(final WordSense source, final RelationType type) {
+    final int sourceIndex = getSynsetIndex(source) + 1;
+    List<Relation> list = null;
+    final long[] packed = packedRelations();
+    for (int i = 0; i < packed.length; i++) {
+      final long relation = packed[i];
+      if (Relation.isLexical(relation) && Relation.sourceIndex(relation) != sourceIndex) {
+        continue;
+      }
+      if (type != null && type != Relation.type(relation)) {
+        continue;
+      }
+      list = add(list, Relation.unpack(relation, this, i));
+    }
+    if (list == null) {
+      return LightImmutableList.of();
+    }
+    return LightImmutableList.copyOf(list);
+  }
+
   @Override
   public List<RelationArgument> getRelationTargets() {
     return Synset.collectTargets(getRelations());
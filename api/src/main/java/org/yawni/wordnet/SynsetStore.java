@@ -0,0 +1,352 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.primitives.SignedBytes;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, columnar, in-memory copy of every {@link Synset} of one {@link POS}: each column is a
+ * primitive array indexed by synset number (i.e., rank in the {@code data.<em>pos</em>} file), word sense
+ * number or relation number.  {@code Synset}s, and their {@link WordSense}s, are materialized from these
+ * columns on each use without file access or parsing, and aren't retained, so the store costs just its
+ * columns (see {@link #synset(int, WordNet)}); their {@link Relation}s are views created on demand.
+ *
+ * <p> Layout:
+ * <ul>
+ *   <li> synsets: sorted {@code offsets}, {@code lexfilenums}, {@code adjectiveClusters} </li>
+ *   <li> word senses of synset {@code i}: [{@code senseStarts[i]}, {@code senseStarts[i + 1]}) of
+ *        {@code senseLemmas} (ids into the shared {@code lemmas} pool), {@code senseLexids},
+ *        {@code senseAdjPositions} and, for verbs, {@code senseVerbFrames} </li>
+ *   <li> relations of synset {@code i}: [{@code relationStarts[i]}, {@code relationStarts[i + 1]}) of
+ *        {@code relations}, each packed into a {@code long} (see {@link Relation#pack(RelationType, int, POS, int, int)}); their
+ *        source is always synset {@code i} (or one of its word senses) </li>
+ * </ul>
+ *
+ * <p> A {@code SynsetStore} can also be {@link #write(OutputStream) written} to and {@link #read(ByteBuffer) read}
+ * from a {@link Snapshot} section ({@code data.<em>pos</em>.synsets}); reading is a series of bulk copies.
+ * The section format is big-endian: magic, version, POS ordinal, and then each column prefixed by its length
+ * in elements.
+ *
+ * @see WordNet.Builder#inMemory(boolean)
+ */
+final class SynsetStore {
+  /** "YSYN" */
+  private static final int MAGIC = 0x5953594e;
+  private static final int VERSION = 1;
+  static final String SUFFIX = ".synsets";
+
+  private final POS pos;
+  private final int[] offsets;
+  private final byte[] lexfilenums;
+  private final BitSet adjectiveClusters;
+  private final int[] senseStarts;
+  private final int[] senseLemmas;
+  private final byte[] senseLexids;
+  private final byte[] senseAdjPositions;
+  /** {@code null} unless {@code pos} is {@link POS#VERB} */
+  private final long[] senseVerbFrames;
+  private final String[] lemmas;
+  private final int[] relationStarts;
+  private final long[] relations;
+
+  private SynsetStore(final Builder builder) {
+    final int size = builder.size;
+    final int senseCount = builder.senseStarts[size];
+    final int relationCount = builder.relationStarts[size];
+    this.pos = builder.pos;
+    this.offsets = Arrays.copyOf(builder.offsets, size);
+    this.lexfilenums = Arrays.copyOf(builder.lexfilenums, size);
+    this.adjectiveClusters = builder.adjectiveClusters;
+    this.senseStarts = Arrays.copyOf(builder.senseStarts, size + 1);
+    this.senseLemmas = Arrays.copyOf(builder.senseLemmas, senseCount);
+    this.senseLexids = Arrays.copyOf(builder.senseLexids, senseCount);
+    this.senseAdjPositions = Arrays.copyOf(builder.senseAdjPositions, senseCount);
+    this.senseVerbFrames = pos == POS.VERB ? Arrays.copyOf(builder.senseVerbFrames, senseCount) : null;
+    this.lemmas = builder.lemmaIds.keySet().toArray(new String[0]);
+    for (final Map.Entry<String, Integer> entry : builder.lemmaIds.entrySet()) {
+      lemmas[entry.getValue()] = entry.getKey();
+    }
+    this.relationStarts = Arrays.copyOf(builder.relationStarts, size + 1);
+    this.relations = Arrays.copyOf(builder.relations, relationCount);
+  }
+
+  private SynsetStore(final ByteBuffer buffer) {
+    this.pos = POS.fromOrdinal((byte) buffer.getInt());
+    this.offsets = readInts(buffer);
+    this.lexfilenums = readBytes(buffer);
+    this.adjectiveClusters = BitSet.valueOf(readLongs(buffer));
+    this.senseStarts = readInts(buffer);
+    this.senseLemmas = readInts(buffer);
+    this.senseLexids = readBytes(buffer);
+    this.senseAdjPositions = readBytes(buffer);
+    final long[] verbFrames = readLongs(buffer);
+    this.senseVerbFrames = pos == POS.VERB ? verbFrames : null;
+    final int[] lemmaEnds = readInts(buffer);
+    final char[] lemmaChars = new char[buffer.getInt()];
+    buffer.asCharBuffer().get(lemmaChars);
+    buffer.position(buffer.position() + 2 * lemmaChars.length);
+    this.lemmas = new String[lemmaEnds.length];
+    for (int i = 0, start = 0; i < lemmaEnds.length; start = lemmaEnds[i], i++) {
+      lemmas[i] = new String(lemmaChars, start, lemmaEnds[i] - start);
+    }
+    this.relationStarts = readInts(buffer);
+    this.relations = readLongs(buffer);
+  }
+
+  /**
+   * Reads a {@code SynsetStore} written by {@link #write(OutputStream)} from {@code buffer},
+   * starting at its position.
+   */
+  static SynsetStore read(final ByteBuffer buffer) throws IOException {
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("not a synset store");
+    }
+    final int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException("unsupported synset store version "+version);
+    }
+    return new SynsetStore(buffer);
+  }
+
+  void write(final OutputStream output) throws IOException {
+    final DataOutputStream data = new DataOutputStream(output);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(pos.ordinal());
+    writeInts(offsets, data);
+    writeBytes(lexfilenums, data);
+    writeLongs(adjectiveClusters.toLongArray(), data);
+    writeInts(senseStarts, data);
+    writeInts(senseLemmas, data);
+    writeBytes(senseLexids, data);
+    writeBytes(senseAdjPositions, data);
+    writeLongs(senseVerbFrames == null ? new long[0] : senseVerbFrames, data);
+    final int[] lemmaEnds = new int[lemmas.length];
+    final StringBuilder lemmaChars = new StringBuilder();
+    for (int i = 0; i < lemmas.length; i++) {
+      lemmaChars.append(lemmas[i]);
+      lemmaEnds[i] = lemmaChars.length();
+    }
+    writeInts(lemmaEnds, data);
+    data.writeInt(lemmaChars.length());
+    data.writeChars(lemmaChars.toString());
+    writeInts(relationStarts, data);
+    writeLongs(relations, data);
+    data.flush();
+  }
+
+  private static int[] readInts(final ByteBuffer buffer) {
+    final int[] values = new int[buffer.getInt()];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + 4 * values.length);
+    return values;
+  }
+
+  private static long[] readLongs(final ByteBuffer buffer) {
+    final long[] values = new long[buffer.getInt()];
+    buffer.asLongBuffer().get(values);
+    buffer.position(buffer.position() + 8 * values.length);
+    return values;
+  }
+
+  private static byte[] readBytes(final ByteBuffer buffer) {
+    final byte[] values = new byte[buffer.getInt()];
+    buffer.get(values);
+    return values;
+  }
+
+  private static void writeInts(final int[] values, final DataOutputStream data) throws IOException {
+    data.writeInt(values.length);
+    for (final int value : values) {
+      data.writeInt(value);
+    }
+  }
+
+  private static void writeLongs(final long[] values, final DataOutputStream data) throws IOException {
+    data.writeInt(values.length);
+    for (final long value : values) {
+      data.writeLong(value);
+    }
+  }
+
+  private static void writeBytes(final byte[] values, final DataOutputStream data) throws IOException {
+    data.writeInt(values.length);
+    data.write(values);
+  }
+
+  POS getPOS() {
+    return pos;
+  }
+
+  /** @return number of synsets */
+  int size() {
+    return offsets.length;
+  }
+
+  /** @return synset number of the synset at {@code offset}, or a negative number if there is none */
+  int indexOf(final int offset) {
+    return Arrays.binarySearch(offsets, offset);
+  }
+
+  int offset(final int index) {
+    return offsets[index];
+  }
+
+  byte lexfilenum(final int index) {
+    return lexfilenums[index];
+  }
+
+  boolean isAdjectiveCluster(final int index) {
+    return adjectiveClusters.get(index);
+  }
+
+  int senseStart(final int index) {
+    return senseStarts[index];
+  }
+
+  int senseEnd(final int index) {
+    return senseStarts[index + 1];
+  }
+
+  String senseLemma(final int sense) {
+    return lemmas[senseLemmas[sense]];
+  }
+
+  int senseLexid(final int sense) {
+    return senseLexids[sense];
+  }
+
+  int senseAdjPosition(final int sense) {
+    return senseAdjPositions[sense];
+  }
+
+  long senseVerbFrames(final int sense) {
+    return senseVerbFrames == null ? 0L : senseVerbFrames[sense];
+  }
+
+  int relationStart(final int index) {
+    return relationStarts[index];
+  }
+
+  int relationEnd(final int index) {
+    return relationStarts[index + 1];
+  }
+
+  /**
+   * @return synset number {@code index}, newly materialized by each call; calls return equal, but not
+   * identical, {@code Synset}s, which are garbage once the caller drops them
+   */
+  Synset synset(final int index, final WordNet wordNet) {
+    return new Synset(this, index, wordNet);
+  }
+
+  /**
+   * @return a copy of the packed relations (see {@link Relation#unpack(long, Synset, int)}) of synset number
+   * {@code index}, in {@link Synset#getRelations()} order; copied each time the synset is materialized
+   */
+  long[] relations(final int index) {
+    return Arrays.copyOfRange(relations, relationStarts[index], relationStarts[index + 1]);
+  }
+
+  /**
+   * Accumulates the columns of {@code Synset}s {@link #add(Synset) added} in offset order.
+   */
+  static final class Builder {
+    private final POS pos;
+    private int size;
+    private int[] offsets = new int[1024];
+    private byte[] lexfilenums = new byte[1024];
+    private final BitSet adjectiveClusters = new BitSet();
+    private int[] senseStarts = new int[1025];
+    private int[] senseLemmas = new int[2048];
+    private byte[] senseLexids = new byte[2048];
+    private byte[] senseAdjPositions = new byte[2048];
+    private long[] senseVerbFrames = new long[2048];
+    private final Map<String, Integer> lemmaIds = new HashMap<>();
+    private int[] relationStarts = new int[1025];
+    private long[] relations = new long[4096];
+
+    Builder(final POS pos) {
+      this.pos = pos;
+    }
+
+    Builder add(final Synset synset) {
+      if (synset.getPOS() != pos) {
+        throw new IllegalArgumentException("expected "+pos+" synset: "+synset);
+      }
+      if (size > 0 && synset.getOffset() <= offsets[size - 1]) {
+        throw new IllegalArgumentException("synset out of order: "+synset);
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+        lexfilenums = Arrays.copyOf(lexfilenums, size << 1);
+        senseStarts = Arrays.copyOf(senseStarts, (size << 1) + 1);
+        relationStarts = Arrays.copyOf(relationStarts, (size << 1) + 1);
+      }
+      offsets[size] = synset.getOffset();
+      lexfilenums[size] = SignedBytes.checkedCast(synset.lexfilenum());
+      adjectiveClusters.set(size, synset.isAdjectiveCluster());
+
+      int sense = senseStarts[size];
+      final List<WordSense> wordSenses = synset.getWordSenses();
+      if (sense + wordSenses.size() > senseLemmas.length) {
+        final int capacity = Math.max(senseLemmas.length << 1, sense + wordSenses.size());
+        senseLemmas = Arrays.copyOf(senseLemmas, capacity);
+        senseLexids = Arrays.copyOf(senseLexids, capacity);
+        senseAdjPositions = Arrays.copyOf(senseAdjPositions, capacity);
+        senseVerbFrames = Arrays.copyOf(senseVerbFrames, capacity);
+      }
+      for (final WordSense wordSense : wordSenses) {
+        Integer lemmaId = lemmaIds.get(wordSense.getLemma());
+        if (lemmaId == null) {
+          lemmaId = lemmaIds.size();
+          lemmaIds.put(wordSense.getLemma(), lemmaId);
+        }
+        senseLemmas[sense] = lemmaId;
+        senseLexids[sense] = SignedBytes.checkedCast(wordSense.getLexid());
+        senseAdjPositions[sense] = SignedBytes.checkedCast(wordSense.getAdjPositionFlags());
+        senseVerbFrames[sense] = wordSense.getVerbFrameFlags();
+        sense++;
+      }
+      senseStarts[size + 1] = sense;
+
+      int relation = relationStarts[size];
+      final long[] synsetRelations = synset.packedRelations();
+      if (relation + synsetRelations.length > relations.length) {
+        relations = Arrays.copyOf(relations, Math.max(relations.length << 1, relation + synsetRelations.length));
+      }
+      System.arraycopy(synsetRelations, 0, relations, relation, synsetRelations.length);
+      relation += synsetRelations.length;
+      relationStarts[size + 1] = relation;
+      size++;
+      return this;
+    }
+
+    SynsetStore build() {
+      return new SynsetStore(this);
+    }
+  }
+}
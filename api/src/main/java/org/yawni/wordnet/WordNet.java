@@ -18,14 +18,17 @@ package org.yawni.wordnet;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Iterables.concat;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import java.io.BufferedInputStream;
 import org.yawni.util.cache.Cache;
 import static org.yawni.util.MergedIterable.merge;
 import static org.yawni.util.Utils.uniq;
@@ -35,24 +38,44 @@ import org.yawni.util.LightImmutableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.net.URL;
-import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.yawni.util.EnumAliases;
 import org.yawni.util.StringTokenizer;
-import org.yawni.util.cache.BloomFilter;
+import org.yawni.util.cache.BlockedBloomFilter;
+import org.yawni.util.cache.CachePolicy;
+import org.yawni.util.cache.CacheStats;
 import org.yawni.util.cache.Caches;
+import org.yawni.wordnet.WordNetMetrics.Operation;
 import org.yawni.wordnet.WordSense.AdjPosition;
 
 /**
@@ -75,8 +98,56 @@ import org.yawni.wordnet.WordSense.AdjPosition;
 public final class WordNet implements WordNetInterface {
   private static final Logger log = LoggerFactory.getLogger(WordNet.class);
 
+  /**
+   * System property which, if {@code true}, makes {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) load all {@code Synset}s into memory; see {@link Builder#inMemory(boolean)}.
+   */
+  public static final String IN_MEMORY_PROPERTY = "yawni.wordnet.inMemory";
+  /**
+   * System property naming a {@link Snapshot} file which {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) reads from; see {@link Builder#snapshot(Path)}.
+   */
+  public static final String SNAPSHOT_PROPERTY = "yawni.wordnet.snapshot";
+  /**
+   * Prefix of the system properties which configure each of the {@link CacheName caches};
+   * see {@link CacheName#propertyName()}.
+   */
+  public static final String CACHE_PROPERTY_PREFIX = "yawni.wordnet.cache.";
+  /**
+   * System property which, if {@code true}, makes {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) look up {@link POS#ALL} concurrently; see {@link Builder#parallel(boolean)}.
+   */
+  public static final String PARALLEL_PROPERTY = "yawni.wordnet.parallel";
+  /**
+   * System property which, if {@code true}, makes {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) look up base forms in precompiled indexes; see {@link Builder#morphIndex(boolean)}.
+   */
+  public static final String MORPH_INDEX_PROPERTY = "yawni.wordnet.morphIndex";
+  /**
+   * System property naming a directory in which {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) persist the Bloom filters they build; see {@link Builder#bloomFilterDirectory(Path)}.
+   */
+  public static final String BLOOM_FILTER_DIRECTORY_PROPERTY = "yawni.wordnet.bloomFilterDir";
+  /**
+   * System property which, if {@code true}, makes {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) store their Bloom filters off-heap; see {@link Builder#offHeapBloomFilters(boolean)}.
+   */
+  public static final String OFF_HEAP_BLOOM_FILTERS_PROPERTY = "yawni.wordnet.offHeapBloomFilters";
+  /**
+   * System property which, if {@code true}, makes {@link #getInstance()} (and, by default,
+   * {@link Builder#build()}) use cache-line blocked Bloom filters; see {@link Builder#blockedBloomFilters(boolean)}.
+   */
+  public static final String BLOCKED_BLOOM_FILTERS_PROPERTY = "yawni.wordnet.blockedBloomFilters";
+
   private final FileManagerInterface fileManager;
+  private final WordNetMetrics metrics;
+  private final LemmaFilters lemmaFilters;
+  /** if not {@code null}, runs the per-{@code POS} lookups of {@link POS#ALL} lookups concurrently */
+  private final Executor executor;
   final Morphy morphy;
+  /** indexed by {@link POS#ordinal()}; {@code null} unless in-memory */
+  private final SynsetStore[] synsetStores;
+  private final ConcurrentMap<POS, HypernymIndex> hypernymIndexes = new ConcurrentHashMap<>();
 
   //
   // Constructors
@@ -84,10 +155,31 @@ public final class WordNet implements WordNetInterface {
 
   /**
    * Construct a {@link WordNetInterface} that retrieves file data from {@code fileManager}.
+   * @param inMemory if {@code true}, eagerly load all {@code Synset}s into {@link SynsetStore}s
+   * @param snapshot if not {@code null}, {@code SynsetStore}s are read from here if possible
    */
-  private WordNet(final FileManagerInterface fileManager) {
+  WordNet(final FileManagerInterface fileManager, final Builder builder, final Snapshot snapshot) {
     this.fileManager = fileManager;
-    this.morphy = new Morphy(this);
+    this.metrics = new WordNetMetrics(this, builder.metrics || ! builder.listeners.isEmpty(), builder.listeners);
+    fileManager.countBytesScanned(metrics.bytesScannedCounter());
+    this.lemmaFilters = new LemmaFilters(fileManager, builder.bloomFilterDirectory, builder.offHeapBloomFilters,
+      builder.blockedBloomFilters);
+    this.synsetCache = builder.newCache(CacheName.SYNSET);
+    this.indexWordCache = builder.newCache(CacheName.INDEX_WORD);
+    this.missingWordCache = builder.newCache(CacheName.MISSING_WORD);
+    this.exceptionsCache = builder.newCache(CacheName.EXCEPTIONS);
+    this.morphy = new Morphy(this, builder.<DatabaseKey, LightImmutableList<String>>newCache(CacheName.MORPHY),
+      fileManager, builder.morphIndex);
+    this.executor = builder.executor;
+    this.synsetStores = builder.inMemory ? loadSynsetStores(snapshot) : null;
+  }
+
+  private WordNet(final Snapshot snapshot, final Builder builder) {
+    this(snapshot == null ? new FileManager() : new FileManager(snapshot), builder, snapshot);
+  }
+
+  private WordNet(final Builder builder) {
+    this(builder.openSnapshot(), builder);
   }
 
   /**
@@ -97,7 +189,7 @@ public final class WordNet implements WordNetInterface {
    * WordNet search directory ({@code $WNSEARCHDIR}).
    */
   WordNet() {
-    this(new FileManager());
+    this(new Builder());
   }
 
 //  /**
@@ -113,6 +205,11 @@ public final class WordNet implements WordNetInterface {
   private static final class InstanceHolder {
     /** singleton reference */
     static final WordNet instance = new WordNet();
+    static {
+      if (instance.metrics.isEnabled()) {
+        instance.metrics.registerMBean("default");
+      }
+    }
   } // end class InstanceHolder
 
   /**
@@ -125,6 +222,264 @@ public final class WordNet implements WordNetInterface {
     return InstanceHolder.instance;
   }
 
+  /**
+   * @return a {@link Builder} of new, independent {@code WordNet} instances; its defaults
+   * are those of {@link #getInstance()}
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Configures and creates {@code WordNet} instances which are independent of
+   * {@link #getInstance()} (e.g., each has its own caches).
+   */
+  public static final class Builder {
+    private boolean inMemory = Boolean.getBoolean(IN_MEMORY_PROPERTY);
+    private boolean morphIndex = Boolean.getBoolean(MORPH_INDEX_PROPERTY);
+    private Path snapshot = System.getProperty(SNAPSHOT_PROPERTY) == null ? null : Paths.get(System.getProperty(SNAPSHOT_PROPERTY));
+    private Path bloomFilterDirectory = System.getProperty(BLOOM_FILTER_DIRECTORY_PROPERTY) == null ? null :
+      Paths.get(System.getProperty(BLOOM_FILTER_DIRECTORY_PROPERTY));
+    private boolean offHeapBloomFilters = Boolean.getBoolean(OFF_HEAP_BLOOM_FILTERS_PROPERTY);
+    private boolean blockedBloomFilters = Boolean.getBoolean(BLOCKED_BLOOM_FILTERS_PROPERTY);
+    private final EnumMap<CacheName, CachePolicy> cachePolicies = new EnumMap<>(CacheName.class);
+    private final EnumMap<CacheName, Integer> cacheCapacities = new EnumMap<>(CacheName.class);
+    private boolean metrics = Boolean.getBoolean(WordNetMetrics.PROPERTY);
+    private Executor executor = Boolean.getBoolean(PARALLEL_PROPERTY) ? DefaultExecutor.INSTANCE : null;
+    private final List<WordNetListener> listeners = new ArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException if a {@link CacheName#propertyName() cache system property} is malformed
+     */
+    private Builder() {
+      for (final CacheName name : CacheName.values()) {
+        final String spec = System.getProperty(name.propertyName());
+        if (spec == null) {
+          cache(name, CachePolicy.SOFT, DEFAULT_CACHE_CAPACITY);
+        } else {
+          cache(name, Caches.policyOf(spec), Caches.capacityOf(spec, DEFAULT_CACHE_CAPACITY));
+        }
+      }
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} reads every <code>data.<em>pos</em></code> file once
+     * at construction (typically a few seconds) into compact, columnar, primitive array storage; thereafter,
+     * {@link WordNet#getSynsetAt(POS, int)} and {@link WordNet#synsets(POS)} never access
+     * files and their {@code Synset}s are materialized on demand from that storage rather than parsed
+     * and cached.  This suits batch jobs which touch a large portion of WordNet.
+     * Defaults to the value of system property {@value WordNet#IN_MEMORY_PROPERTY}.
+     */
+    public Builder inMemory(final boolean inMemory) {
+      this.inMemory = inMemory;
+      return this;
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} looks up the base forms of single words (e.g., "geese", but
+     * not "ran off") in a precompiled map, per {@code POS}, from each string which has base forms to those
+     * base forms, so {@link WordNet#lookupBaseForms(String, POS)} (and {@link WordNet#lookupWordSenses(String, POS)}
+     * and {@link WordNet#lookupSynsets(String, POS)}) cost a hash lookup rather than an application of each
+     * of Morphy's detachment rules and exception list followed by a lookup of each candidate base form.
+     * These maps are read from {@code index.<em>pos</em>.morph} files shipped with the WordNet data (or
+     * in the {@link #snapshot(Path) snapshot}); a {@code POS} without one is looked up as usual.
+     * Defaults to the value of system property {@value WordNet#MORPH_INDEX_PROPERTY}.
+     */
+    public Builder morphIndex(final boolean morphIndex) {
+      this.morphIndex = morphIndex;
+      return this;
+    }
+
+    /**
+     * Read all WordNet files, and precomputed indexes of them, from {@code snapshot}, a single memory-mapped
+     * file compiled from a WordNet {@code dict/} directory by {@code org.yawni.wordnet.Snapshot}; startup
+     * requires no copying of files out of jars or parsing (even {@link #inMemory(boolean) inMemory}).
+     * Defaults to the value of system property {@value WordNet#SNAPSHOT_PROPERTY}; {@code null} means
+     * none.
+     */
+    public Builder snapshot(final Path snapshot) {
+      this.snapshot = snapshot;
+      return this;
+    }
+
+    /**
+     * The built {@code WordNet} rules out most lookups of strings which aren't lemmas (or exceptional
+     * forms) without searching the <code>index.<em>pos</em></code> (or <code><em>pos</em>.exc</code>) files
+     * using Bloom filters; those not bundled with the WordNet data (e.g., for data in {@code $WNHOME}) are
+     * built from these files on first use.  If {@code directory} isn't {@code null}, built filters are
+     * persisted there and read from there by subsequent {@code WordNet}s of the same data.
+     * Defaults to the value of system property {@value WordNet#BLOOM_FILTER_DIRECTORY_PROPERTY}; {@code null}
+     * means none.
+     */
+    public Builder bloomFilterDirectory(final Path directory) {
+      this.bloomFilterDirectory = directory;
+      return this;
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} stores the bits of its Bloom filters (roughly 400KB for
+     * WordNet 3.0) in direct memory rather than on the Java heap, out of the garbage collector's way.
+     * Defaults to the value of system property {@value WordNet#OFF_HEAP_BLOOM_FILTERS_PROPERTY}.
+     * @see #bloomFilterDirectory(Path)
+     */
+    public Builder offHeapBloomFilters(final boolean offHeap) {
+      this.offHeapBloomFilters = offHeap;
+      return this;
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} uses {@link BlockedBloomFilter}s, all of whose bits for a
+     * given string are in one cache line, so ruling out a string costs at most one cache miss.  As the
+     * filters bundled with the WordNet data aren't blocked, these are built on first use (see
+     * {@link #bloomFilterDirectory(Path)}).
+     * Defaults to the value of system property {@value WordNet#BLOCKED_BLOOM_FILTERS_PROPERTY}.
+     */
+    public Builder blockedBloomFilters(final boolean blocked) {
+      this.blockedBloomFilters = blocked;
+      return this;
+    }
+
+    /**
+     * Use a {@link Cache} with the given eviction {@code policy} and {@code capacity} for the {@code name}d
+     * cache (e.g., {@code cache(CacheName.SYNSET, CachePolicy.TINY_LFU, 50000)}, or
+     * {@code cache(CacheName.MORPHY, CachePolicy.DISABLED, 0)}).
+     * Defaults to the value of system property {@link CacheName#propertyName()} (e.g.,
+     * {@code -Dyawni.wordnet.cache.synset=tiny_lfu:50000}), otherwise {@link CachePolicy#SOFT} with
+     * capacity {@value WordNet#DEFAULT_CACHE_CAPACITY}.
+     * @throws IllegalArgumentException if {@code capacity} is negative
+     */
+    public Builder cache(final CacheName name, final CachePolicy policy, final int capacity) {
+      Preconditions.checkArgument(capacity >= 0, "negative capacity %s", capacity);
+      cachePolicies.put(name, Preconditions.checkNotNull(policy));
+      cacheCapacities.put(name, capacity);
+      return this;
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} looks up each {@code POS} of {@link POS#ALL} lookups
+     * ({@link WordNet#lookupBaseForms(String, POS)}, {@link WordNet#lookupWordSenses(String, POS)},
+     * {@link WordNet#lookupSynsets(String, POS)} and their batch variants) concurrently, so when they
+     * miss the caches, their latency is roughly that of the slowest {@code POS} rather than the sum.
+     * Uses virtual threads if available (Java 21+), otherwise a bounded pool of daemon threads.
+     * Defaults to the value of system property {@value WordNet#PARALLEL_PROPERTY}.
+     * @see #executor(Executor)
+     */
+    public Builder parallel(final boolean parallel) {
+      this.executor = parallel ? DefaultExecutor.INSTANCE : null;
+      return this;
+    }
+
+    /**
+     * Like {@link #parallel(boolean) parallel(true)}, but runs the concurrent lookups on {@code executor};
+     * {@code null} means sequential.
+     */
+    public Builder executor(final Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * If {@code true}, the built {@code WordNet} measures the latency of its operations and other
+     * {@link WordNetMetrics}.  Defaults to the value of system property {@value WordNetMetrics#PROPERTY}
+     * (which also registers {@link WordNet#getInstance()}'s metrics as a JMX MXBean named {@code default}).
+     * @see WordNet#getMetrics()
+     */
+    public Builder metrics(final boolean metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    /**
+     * Notify {@code listener} of each measured event; implies {@link #metrics(boolean) metrics(true)}.
+     */
+    public Builder listener(final WordNetListener listener) {
+      listeners.add(Preconditions.checkNotNull(listener));
+      return this;
+    }
+
+    /**
+     * @throws RuntimeException if the {@link #snapshot(Path) snapshot} can't be read
+     */
+    public WordNet build() {
+      return new WordNet(this);
+    }
+
+    private <K, V> Cache<K, V> newCache(final CacheName name) {
+      return cachePolicies.get(name).create(cacheCapacities.get(name));
+    }
+
+    private Snapshot openSnapshot() {
+      if (snapshot == null) {
+        return null;
+      }
+      try {
+        return Snapshot.open(snapshot);
+      } catch (IOException ioe) {
+        throw new RuntimeException("can't open snapshot "+snapshot, ioe);
+      }
+    }
+  } // end class Builder
+
+  /**
+   * The {@code Executor} of {@link Builder#parallel(boolean) parallel} {@code WordNet}s: shared by all of
+   * them and never shut down, i.e., it lives as long as the JVM.  Its threads are daemons (virtual threads
+   * always are), so it never prevents the JVM from exiting, and idle platform threads time out, so it
+   * holds no threads while unused.  Use {@link Builder#executor(Executor)} to control the lifetime instead.
+   */
+  private static final class DefaultExecutor {
+    static final Executor INSTANCE = create();
+
+    private static Executor create() {
+      try {
+        // Java 21+
+        return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException roe) {
+        // lookups block on IO, so they get their own threads rather than starving ForkJoinPool.commonPool()
+        final int threads = Math.max(POS.CATS.size(), Runtime.getRuntime().availableProcessors());
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("yawni-wordnet-lookup-%d").build());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+      }
+    }
+  } // end class DefaultExecutor
+
+  /**
+   * The entity caches of each {@code WordNet} instance; see {@link Builder#cache(CacheName, CachePolicy, int)}
+   * and {@link WordNet#getCacheStats()}.
+   */
+  public enum CacheName {
+    /** {@code Synset}s by data file offset */
+    SYNSET("synset"),
+    /** {@code Word}s by index file offset and by lemma */
+    INDEX_WORD("indexWord"),
+    /**
+     * lemmas which have no {@code Word} (e.g., misspellings, noise tokens, and {@code Morphy}'s
+     * candidate base forms), if the Bloom filters didn't rule them out
+     */
+    MISSING_WORD("missingWord"),
+    /** lookups of the exceptions (<code><em>pos</em>.exc</code>) files */
+    EXCEPTIONS("exceptions"),
+    /** {@link WordNet#lookupBaseForms(String, POS)} results */
+    MORPHY("morphy");
+
+    private final String propertyName;
+
+    CacheName(final String suffix) {
+      this.propertyName = CACHE_PROPERTY_PREFIX + suffix;
+    }
+
+    /**
+     * @return name of the system property which configures this cache, whose value is of the
+     * form {@code <policy>[:<capacity>]} (e.g., {@code tiny_lfu:50000}, {@code lru}, {@code disabled})
+     * where {@code <policy>} is the case insensitive name of a {@link CachePolicy}
+     */
+    public String propertyName() {
+      return propertyName;
+    }
+  } // end enum CacheName
+
 //  /**
 //   * Factory method to get <em>the</em> dictionary backed by a set of files contained
 //   * in {@code searchDirectory}.
@@ -149,10 +504,46 @@ public final class WordNet implements WordNetInterface {
   // Entity lookup caching
   //
   static final int DEFAULT_CACHE_CAPACITY = 10000;//100000;
-  private final Cache<DatabaseKey, Object> synsetCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, Object> synsetCache;
   // single cache which uses 2 kinds kinds of keys (keeps utilization high)
   // - POSOffsetDatabaseKey (getIndexWordAt direct-hit cache) and StringPOSDatabaseKey (lookupWord query cache)
-  private final Cache<DatabaseKey, Object> indexWordCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, Object> indexWordCache;
+  // StringPOSDatabaseKeys of lookupWord queries which have no Word, but weren't ruled out by a Bloom filter
+  private final Cache<DatabaseKey, Object> missingWordCache;
+
+  /**
+   * Empties all of this instance's entity caches (and {@link Morphy}'s), e.g., to
+   * measure "cold" lookup performance; file content and its indexes are retained.
+   */
+  void clearCaches() {
+    synsetCache.clear();
+    indexWordCache.clear();
+    missingWordCache.clear();
+    exceptionsCache.clear();
+    morphy.clearCache();
+  }
+
+  /**
+   * @return this instance's performance measurements
+   * @see Builder#metrics(boolean)
+   */
+  public WordNetMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return the cumulative hit, miss and eviction counts of each of this instance's entity caches
+   * @see Builder#cache(CacheName, CachePolicy, int)
+   */
+  public Map<CacheName, CacheStats> getCacheStats() {
+    final EnumMap<CacheName, CacheStats> stats = new EnumMap<>(CacheName.class);
+    stats.put(CacheName.SYNSET, synsetCache.stats());
+    stats.put(CacheName.INDEX_WORD, indexWordCache.stats());
+    stats.put(CacheName.MISSING_WORD, missingWordCache.stats());
+    stats.put(CacheName.EXCEPTIONS, exceptionsCache.stats());
+    stats.put(CacheName.MORPHY, morphy.cacheStats());
+    return stats;
+  }
 
   // generic custom hashing interface
   interface DatabaseKey {
@@ -247,7 +638,7 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
-  private static String getDataFilename(final POS pos) {
+  static String getDataFilename(final POS pos) {
     final String toReturn = DATA_FILE_NAMES.get(pos);
     if (toReturn == null) {
       throw new IllegalArgumentException("no filename for pos "+pos);
@@ -263,7 +654,7 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
-  private static String getIndexFileName(final POS pos) {
+  static String getIndexFileName(final POS pos) {
     final String toReturn = INDEX_FILE_NAMES.get(pos);
     if (toReturn == null) {
       throw new IllegalArgumentException("no filename for pos "+pos);
@@ -279,7 +670,7 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
-  private static String getExceptionsFilename(final POS pos) {
+  static String getExceptionsFilename(final POS pos) {
     final String toReturn = EXCEPTION_FILE_NAMES.get(pos);
     if (toReturn == null) {
       throw new IllegalArgumentException("no filename for pos "+pos);
@@ -325,50 +716,31 @@ public final class WordNet implements WordNetInterface {
   // Entity retrieval
   //
 
-  //FIXME cache's don't store null values!
-  private static void cacheDebug(final Cache<DatabaseKey, Object> cache) {
-    //System.err.println(cache.getClass().getSimpleName());
-    //System.err.printf("getIndexWordAtCacheMiss: %d getIndexWordAtCacheHit: %d weirdGetIndexWordAtCacheMiss: %d\n",
-    //    getIndexWordAtCacheMiss, getIndexWordAtCacheHit, weirdGetIndexWordAtCacheMiss );
-    //System.err.printf("getSynsetAtCacheMiss: %d getSynsetAtCacheHit: %d weirdGetSynsetAtCacheMiss: %d\n",
-    //    getSynsetAtCacheMiss, getSynsetAtCacheHit, weirdGetSynsetAtCacheMiss);
-    //System.err.printf("lookupIndexWordCacheMiss: %d lookupIndexWordCacheHit: %d weirdLookupIndexWordCacheMiss: %d\n",
-    //    lookupIndexWordCacheMiss, lookupIndexWordCacheHit, weirdLookupIndexWordCacheMiss);
-  }
-
-  static int getIndexWordAtCacheMiss = 0;
-  static int getIndexWordAtCacheHit = 0;
-  static int weirdGetIndexWordAtCacheMiss = 0;
-
   Word getIndexWordAt(final POS pos, final int offset) {
-    final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
-    Word word = (Word) indexWordCache.get(cacheKey);
-    if (word != null) {
-      getIndexWordAtCacheHit++;
-      cacheDebug(indexWordCache);
-    } else {
-      getIndexWordAtCacheMiss++;
-      cacheDebug(indexWordCache);
-      final String fileName = getIndexFileName(pos);
-      final CharSequence line;
-      try {
-        line = fileManager.readLineAt(offset, fileName);
-      } catch (IOException ioe) {
-        throw new RuntimeException(ioe);
-      }
-      if (line == null) {
-        throw new IllegalStateException("line null for offset "+offset+" "+pos);
+    final long start = metrics.start();
+    try {
+      final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
+      Word word = (Word) indexWordCache.get(cacheKey);
+      if (word == null) {
+        final String fileName = getIndexFileName(pos);
+        final CharSequence line;
+        try {
+          line = fileManager.readLineViewAt(offset, fileName);
+        } catch (IOException ioe) {
+          throw new RuntimeException(ioe);
+        }
+        if (line == null) {
+          throw new IllegalStateException("line null for offset "+offset+" "+pos);
+        }
+        word = new Word(line, offset, this);
+        indexWordCache.put(cacheKey, word);
       }
-      word = new Word(line, offset, this);
-      indexWordCache.put(cacheKey, word);
+      return word;
+    } finally {
+      metrics.record(Operation.GET_INDEX_WORD_AT, start);
     }
-    return word;
   }
 
-  static int getSynsetAtCacheMiss = 0;
-  static int getSynsetAtCacheHit = 0;
-  static int weirdGetSynsetAtCacheMiss = 0;
-
   String getSynsetLineAt(final POS pos, final int offset) {
     final String fileName = getDataFilename(pos);
     try {
@@ -378,90 +750,71 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
+  /**
+   * Zero-copy variant of {@link #getSynsetLineAt(POS, int)}
+   * @see FileManagerInterface#readLineViewAt(int, String)
+   */
+  CharSequence getSynsetLineViewAt(final POS pos, final int offset) {
+    final String fileName = getDataFilename(pos);
+    try {
+      return fileManager.readLineViewAt(offset, fileName);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
   @Override
   public Optional<Synset> getSynsetAt(final POS pos, final int offset) {
-    final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
-    Synset synset = (Synset) synsetCache.get(cacheKey);
-    if (synset != null) {
-      getSynsetAtCacheHit++;
-      cacheDebug(synsetCache);
-    } else {
-      getSynsetAtCacheMiss++;
-      cacheDebug(synsetCache);
-      try {
-        synset = new Synset(getSynsetLineAt(pos, offset), this);
-        synsetCache.put(cacheKey, synset);
-      } catch (IllegalArgumentException iae) {
-        synset = null;
+    final long start = metrics.start();
+    try {
+      Synset synset;
+      if (synsetStores != null) {
+        final SynsetStore store = synsetStores[pos.ordinal()];
+        final int index = store == null ? -1 : store.indexOf(offset);
+        synset = index < 0 ? null : store.synset(index, this);
+      } else {
+        final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
+        synset = (Synset) synsetCache.get(cacheKey);
+        if (synset == null) {
+          try {
+            synset = new Synset(getSynsetLineViewAt(pos, offset), this);
+            synsetCache.put(cacheKey, synset);
+          } catch (IllegalArgumentException iae) {
+            synset = null;
+          }
+        }
       }
+      return Optional.ofNullable(synset);
+    } finally {
+      metrics.record(Operation.GET_SYNSET_AT, start);
     }
-    return Optional.ofNullable(synset);
   }
 
   //
   // Lookup functions
   //
 
-  static int lookupIndexWordCacheMiss = 0;
-  static int lookupIndexWordCacheHit = 0;
-  static int weirdLookupIndexWordCacheMiss = 0;
-
-  private static final Map<POS, BloomFilter<CharSequence>> INDEX_DATA_FILTERS;
-  private static final Map<POS, BloomFilter<CharSequence>> EXCEPTIONS_FILTERS;
-  static {
-    INDEX_DATA_FILTERS = Maps.newEnumMap(POS.class);
-    EXCEPTIONS_FILTERS = Maps.newEnumMap(POS.class);
-
-    for (final POS pos : POS.CATS) {
-      // assume WN dict/ is in the classpath
-      final String indexDataResourceName = "dict/" + pos.name() + ".bloom";
-      final BloomFilter<CharSequence> indexDataFilter = getResource(indexDataResourceName);
-      if (indexDataFilter != null) {
-        INDEX_DATA_FILTERS.put(pos, indexDataFilter);
-      }
-      final String exceptionsResourceName = "dict/" + pos.name() + ".exc.bloom";
-      final BloomFilter<CharSequence> exceptionsFilter = getResource(exceptionsResourceName);
-      if (exceptionsFilter != null) {
-        EXCEPTIONS_FILTERS.put(pos, exceptionsFilter);
-      }
-    }
-  }
-
-  // look in classpath for filters
-  private static BloomFilter<CharSequence> getResource(final String resourceName) {
-    try {
-      final URL url = WordNet.class.getClassLoader().getResource(resourceName);
-      if (url == null) {
-        log.info("resourceName: {} not found!", resourceName);
-        return null;
-      }
-      final URLConnection conn = url.openConnection();
-      final InputStream input = conn.getInputStream();
-      // fast CharStream created from InputStream (e.g., could be read from jar file)
-      final ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(input));
-      @SuppressWarnings("unchecked")
-      final BloomFilter<CharSequence> filter = (BloomFilter<CharSequence>) ois.readObject();
-      Closeables.closeQuietly(ois);
-      return filter;
-    } catch (Exception e) {
-      log.info("caught", e);
-      System.err.println("caught!"+e);
-      return null;
-    }
-  }
-
   private boolean maybeDefined(final CharSequence lemma, final POS pos) {
-    if (INDEX_DATA_FILTERS.isEmpty()) {
+    final Set<CharSequence> filter = lemmaFilters.indexFilter(pos);
+    if (filter == null) {
       return true;
     }
-    return INDEX_DATA_FILTERS.get(pos).contains(lemma);
+    return countRejection(filter.contains(lemma));
   }
 
   private boolean maybeException(final CharSequence lemma, final POS pos) {
-    if (EXCEPTIONS_FILTERS.isEmpty()) {
+    final Set<CharSequence> filter = lemmaFilters.exceptionsFilter(pos);
+    if (filter == null) {
       return true;
     }
-    return EXCEPTIONS_FILTERS.get(pos).contains(lemma);
+    return countRejection(filter.contains(lemma));
+  }
+
+  private boolean countRejection(final boolean maybe) {
+    if (! maybe) {
+      metrics.recordBloomFilterRejection();
+    }
+    return maybe;
   }
 
   private static final Object NULL_INDEX_WORD = new Object();
@@ -469,62 +822,102 @@ public final class WordNet implements WordNetInterface {
   @Override
   public Word lookupWord(final CharSequence lemma, final POS pos) {
     checkValidPOS(pos, "by lookupWord(lemma, pos)");
-    final DatabaseKey cacheKey = new StringPOSDatabaseKey(lemma, pos);
-    Object indexWord = indexWordCache.get(cacheKey);
-    if (indexWord != null && indexWord != NULL_INDEX_WORD) {
-      lookupIndexWordCacheHit++;
-      cacheDebug(indexWordCache);
-    } else {
-      indexWord = NULL_INDEX_WORD;
-      // consult the Bloom filter
-      if (maybeDefined(lemma, pos)) {
-        lookupIndexWordCacheMiss++;
-        cacheDebug(indexWordCache);
+    final long start = metrics.start();
+    try {
+      final DatabaseKey cacheKey = new StringPOSDatabaseKey(lemma, pos);
+      Object indexWord = indexWordCache.get(cacheKey);
+      if (indexWord == null) {
+        indexWord = NULL_INDEX_WORD;
         final String fileName = getIndexFileName(pos);
-        final int offset;
-        try {
-          offset = fileManager.getIndexedLinePointer(lemma, fileName);
-        } catch (IOException ioe) {
-          throw new RuntimeException(ioe);
+        // consult the Bloom filter, unless the fileManager can answer exactly in constant time
+        final boolean exact = fileManager.hasExactIndex(fileName);
+        if (exact || maybeDefined(lemma, pos)) {
+          // only misses which would cost a binary search are worth caching
+          if (exact || missingWordCache.get(cacheKey) == null) {
+            final int offset;
+            try {
+              offset = fileManager.getExactLinePointer(lemma, fileName);
+            } catch (IOException ioe) {
+              throw new RuntimeException(ioe);
+            }
+            if (offset >= 0) {
+              indexWord = getIndexWordAt(pos, offset);
+            } else if (! exact) {
+              if (lemmaFilters.indexFilter(pos) != null) {
+                metrics.recordBloomFilterFalsePositive(pos, fileName);
+              }
+              missingWordCache.put(cacheKey, NULL_INDEX_WORD);
+            }
+          }
         }
-        if (offset >= 0) {
-          indexWord = getIndexWordAt(pos, offset);
+        // negative results (indexWord == NULL_INDEX_WORD) aren't added to the indexWordCache; they're
+        // ruled out by the Bloom filter / ! maybeDefined() or the missingWordCache
+        if (indexWord != NULL_INDEX_WORD) {
+          indexWordCache.put(cacheKey, indexWord);
         }
-        //else {
-          // if here && ! INDEX_DATA_FILTERS.isEmpty()
-          //   false positive
-        //}
       }
-      // best not to add negative results (indexWord == NULL_INDEX_WORD)
-      // to the LRU cache - let Bloom filter / ! maybeDefined() handle this
-      if (indexWord != NULL_INDEX_WORD) {
-        indexWordCache.put(cacheKey, indexWord);
+      return indexWord != NULL_INDEX_WORD ? (Word) indexWord : null;
+    } finally {
+      metrics.record(Operation.LOOKUP_WORD, start);
+    }
+  }
+
+  /**
+   * Looks up {@code someString} in each of {@link POS#CATS} (concurrently, if there's an {@link #executor})
+   * and merges the results.
+   */
+  private <T extends Comparable<? super T>> List<T> lookupAllPOS(final String someString, final BiFunction<String, POS, List<T>> lookup) {
+    final List<Iterable<T>> results = this.<Iterable<T>>forEachPOS(POS.CATS, p -> lookup.apply(someString, p));
+    return LightImmutableList.copyOf(uniq(merge(results)));
+  }
+
+  /**
+   * @return {@code lookup} of each of {@code poses}, computed concurrently if there's an {@link #executor}
+   * (in which case the last is computed by the calling thread)
+   */
+  private <R> List<R> forEachPOS(final List<POS> poses, final Function<POS, R> lookup) {
+    final List<R> results = new ArrayList<>(poses.size());
+    if (executor == null || poses.size() == 1) {
+      for (final POS p : poses) {
+        results.add(lookup.apply(p));
       }
+      return results;
     }
-    return indexWord != NULL_INDEX_WORD ? (Word) indexWord : null;
+    final List<CompletableFuture<R>> futures = new ArrayList<>(poses.size() - 1);
+    for (final POS p : poses.subList(0, poses.size() - 1)) {
+      futures.add(CompletableFuture.supplyAsync(() -> lookup.apply(p), executor));
+    }
+    final R last = lookup.apply(poses.get(poses.size() - 1));
+    for (final CompletableFuture<R> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException ce) {
+        Throwables.throwIfUnchecked(ce.getCause());
+        throw ce;
+      }
+    }
+    results.add(last);
+    return results;
   }
 
   @Override
   public List<String> lookupBaseForms(final String someString, final POS pos) {
     if (pos == POS.ALL) {
-      return LightImmutableList.copyOf(uniq(merge(
-        lookupBaseForms(someString, POS.NOUN),
-        lookupBaseForms(someString, POS.VERB),
-        lookupBaseForms(someString, POS.ADJ),
-        lookupBaseForms(someString, POS.ADV))));
+      return lookupAllPOS(someString, this::lookupBaseForms);
     } else {
-      return morphy.morphstr(someString, pos);
+      final long start = metrics.start();
+      try {
+        return morphy.morphstr(someString, pos);
+      } finally {
+        metrics.record(Operation.LOOKUP_BASE_FORMS, start);
+      }
     }
   }
 
   @Override
   public List<Synset> lookupSynsets(final String someString, final POS pos) {
     if (pos == POS.ALL) {
-      return LightImmutableList.copyOf(uniq(merge(
-        lookupSynsets(someString, POS.NOUN),
-        lookupSynsets(someString, POS.VERB),
-        lookupSynsets(someString, POS.ADJ),
-        lookupSynsets(someString, POS.ADV))));
+      return lookupAllPOS(someString, this::lookupSynsets);
     } else {
       return doLookupSynsets(someString, pos);
     }
@@ -564,11 +957,7 @@ public final class WordNet implements WordNetInterface {
   @Override
   public List<WordSense> lookupWordSenses(final String someString, final POS pos) {
     if (pos == POS.ALL) {
-      return LightImmutableList.copyOf(uniq(merge(
-        lookupWordSenses(someString, POS.NOUN),
-        lookupWordSenses(someString, POS.VERB),
-        lookupWordSenses(someString, POS.ADJ),
-        lookupWordSenses(someString, POS.ADV))));
+      return lookupAllPOS(someString, this::lookupWordSenses);
     } else {
       return doLookupWordSenses(someString, pos);
     }
@@ -606,6 +995,64 @@ public final class WordNet implements WordNetInterface {
     return LightImmutableList.copyOf(wordSenses);
   }
 
+  /**
+   * {@inheritDoc}
+   * @see #batchLookup(List, POS, BiFunction)
+   */
+  @Override
+  public List<List<WordSense>> lookupWordSenses(final List<String> someStrings, final POS pos) {
+    return batchLookup(someStrings, pos, this::doLookupWordSenses);
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see #batchLookup(List, POS, BiFunction)
+   */
+  @Override
+  public List<List<Synset>> lookupSynsets(final List<String> someStrings, final POS pos) {
+    return batchLookup(someStrings, pos, this::doLookupSynsets);
+  }
+
+  /**
+   * Applies {@code lookup} to each of {@code someStrings}.  Each distinct string is looked up once, in
+   * {@link WordNetLexicalComparator#TO_LOWERCASE_INSTANCE} order, one {@code POS} at a time (so accesses
+   * of each {@code index.<em>pos</em>} file are roughly sequential and a string's results are shared by
+   * all of its occurrences); {@code POS}s are looked up concurrently if {@link Builder#parallel(boolean) parallel}.
+   */
+  private <T extends Comparable<? super T>> List<List<T>> batchLookup(
+      final List<String> someStrings, final POS pos, final BiFunction<String, POS, List<T>> lookup) {
+    final List<POS> poses = pos == POS.ALL ? POS.CATS : ImmutableList.of(pos);
+    final String[] distinct = new LinkedHashSet<>(someStrings).toArray(new String[0]);
+    Arrays.sort(distinct, WordNetLexicalComparator.TO_LOWERCASE_INSTANCE);
+    // results by POS, then by index into distinct
+    final List<List<List<T>>> resultsByPOS = forEachPOS(poses, p -> {
+      final List<List<T>> results = new ArrayList<>(distinct.length);
+      for (final String someString : distinct) {
+        results.add(lookup.apply(someString, p));
+      }
+      return results;
+    });
+    final Map<String, List<T>> resultsByString = Maps.newHashMapWithExpectedSize(distinct.length);
+    for (int i = 0; i < distinct.length; i++) {
+      final List<T> result;
+      if (poses.size() == 1) {
+        result = resultsByPOS.get(0).get(i);
+      } else {
+        final List<Iterable<T>> bases = new ArrayList<>(poses.size());
+        for (final List<List<T>> results : resultsByPOS) {
+          bases.add(results.get(i));
+        }
+        result = LightImmutableList.copyOf(uniq(merge(bases)));
+      }
+      resultsByString.put(distinct[i], result);
+    }
+    final ImmutableList.Builder<List<T>> inOrder = ImmutableList.builder();
+    for (final String someString : someStrings) {
+      inOrder.add(resultsByString.get(someString));
+    }
+    return inOrder.build();
+  }
+
   @Override
   public Iterable<Synset> synsets(final String query) {
     final EnumMap<Command, String> cmdToValue = Command.getCmdToValue(query);
@@ -678,7 +1125,7 @@ public final class WordNet implements WordNetInterface {
     throw new IllegalArgumentException("unsatisfiable query "+query);
   }
 
-  private final Cache<DatabaseKey, LightImmutableList<String>> exceptionsCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, LightImmutableList<String>> exceptionsCache;
 
   /**
    * <em>looks up</em> word in the appropriate <em>exc</em>eptions file for the given {@code pos}.
@@ -691,6 +1138,15 @@ public final class WordNet implements WordNetInterface {
    */
   LightImmutableList<String> getExceptions(final CharSequence someString, final POS pos) {
     checkValidPOS(pos, "by getExceptions()");
+    final long start = metrics.start();
+    try {
+      return lookupExceptions(someString, pos);
+    } finally {
+      metrics.record(Operation.GET_EXCEPTIONS, start);
+    }
+  }
+
+  private LightImmutableList<String> lookupExceptions(final CharSequence someString, final POS pos) {
     if (! maybeException(someString, pos)) {
       return LightImmutableList.of();
     }
@@ -713,6 +1169,9 @@ public final class WordNet implements WordNetInterface {
         exceptionsCache.put(cacheKey, toReturn);
         return toReturn;
       } else {
+        if (lemmaFilters.exceptionsFilter(pos) != null) {
+          metrics.recordBloomFilterFalsePositive(pos, fileName);
+        }
         exceptionsCache.put(cacheKey, LightImmutableList.of());
       }
     } catch (IOException ioe) {
@@ -905,19 +1364,19 @@ public final class WordNet implements WordNetInterface {
       if (nextOffset != 0) {
         return;
       }
-      String line;
+      CharSequence line;
       int offset = -1;
       do {
         if (nextOffset < 0) {
           throw new NoSuchElementException();
         }
-        line = fileManager.readLineAt(nextOffset, fileName);
+        line = fileManager.readLineViewAt(nextOffset, fileName);
         if (line == null) {
           break;
         }
         offset = nextOffset;
         nextOffset = fileManager.getNextLinePointer(nextOffset, fileName);
-      } while (line.startsWith(TWO_SPACES)); // first few lines start with TWO_SPACES
+      } while (CharSequences.startsWith(line, TWO_SPACES)); // first few lines start with TWO_SPACES
       assert nextOffset != -1;
       nextOffset = offset;
     }
@@ -935,7 +1394,7 @@ public final class WordNet implements WordNetInterface {
       try {
         skipLicenseLines();
         final int offset = nextOffset;
-        final String line = fileManager.readLineAt(nextOffset, fileName);
+        final CharSequence line = fileManager.readLineViewAt(nextOffset, fileName);
         nextOffset = fileManager.getNextLinePointer(nextOffset, fileName);
         if (line == null) {
           return endOfData();
@@ -960,6 +1419,28 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
+  /**
+   * Concatenates the {@code Stream} of each of {@link POS#CATS} (unlike {@code flatMap}, each stays splittable).
+   */
+  private static <T> Stream<T> concatPOS(final Function<POS, Stream<T>> stream) {
+    return POS.CATS.stream().map(stream).reduce(Stream::concat).get();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p> {@link POS#ALL} streams are ordered by {@code POS} first.
+   */
+  @Override
+  public Stream<Word> wordStream(final POS pos) {
+    if (pos == POS.ALL) {
+      return concatPOS(this::wordStream);
+    } else {
+      final String fileName = getIndexFileName(pos);
+      return StreamSupport.stream(LineSpliterator.of(fileManager, fileName,
+          (line, offset) -> new Word(line, offset, this)), false);
+    }
+  }
+
   /**
    * @see WordNetInterface#searchBySubstring
    */
@@ -1142,19 +1623,19 @@ public final class WordNet implements WordNetInterface {
     @Override
     protected Synset computeNext() {
       try {
-        String line;
+        CharSequence line;
         int offset;
         do {
           if (nextOffset < 0) {
             throw new NoSuchElementException();
           }
-          line = fileManager.readLineAt(nextOffset, fileName);
+          line = fileManager.readLineViewAt(nextOffset, fileName);
           offset = nextOffset;
           if (line == null) {
             return endOfData();
           }
           nextOffset = fileManager.getNextLinePointer(nextOffset, fileName);
-        } while (line.startsWith("  ")); // first few lines start with "  "
+        } while (CharSequences.startsWith(line, "  ")); // first few lines start with "  "
         int usedOffset = offset;
         return getSynsetAt(pos, offset).orElseThrow(
             () -> new NoSuchElementException(pos + " " + usedOffset));
@@ -1172,11 +1653,306 @@ public final class WordNet implements WordNetInterface {
         synsets(POS.VERB),
         synsets(POS.ADJ),
         synsets(POS.ADV));
+    } else if (synsetStores != null) {
+      final SynsetStore store = synsetStores[pos.ordinal()];
+      return () -> IntStream.range(0, store.size()).mapToObj(i -> store.synset(i, this)).iterator();
     } else {
       return () -> new POSSynsetsIterator(pos);
     }
   }
 
+  @Override
+  public Stream<Synset> synsetStream(final POS pos) {
+    if (pos == POS.ALL) {
+      return concatPOS(this::synsetStream);
+    } else if (synsetStores != null) {
+      final SynsetStore store = synsetStores[pos.ordinal()];
+      return IntStream.range(0, store.size()).mapToObj(i -> store.synset(i, this));
+    } else {
+      return StreamSupport.stream(LineSpliterator.of(fileManager, getDataFilename(pos),
+          (line, offset) -> getSynsetAt(pos, offset).orElseThrow(
+              () -> new NoSuchElementException(pos + " " + offset))), false);
+    }
+  }
+
+  private SynsetStore[] loadSynsetStores(final Snapshot snapshot) {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final SynsetStore[] stores = new SynsetStore[POS.values().length];
+    int count = 0;
+    for (final POS pos : POS.CATS) {
+      final ByteBuffer section = snapshot == null ? null : snapshot.section(getDataFilename(pos) + SynsetStore.SUFFIX);
+      try {
+        stores[pos.ordinal()] = section == null ? loadSynsetStore(pos) : SynsetStore.read(section);
+      } catch (IOException ioe) {
+        throw new RuntimeException(ioe);
+      }
+      count += stores[pos.ordinal()].size();
+    }
+    log.info("loaded {} synsets in {}", count, stopwatch);
+    return stores;
+  }
+
+  /**
+   * Parses each line of <code>data.<em>pos</em></code> into a {@code Synset}
+   * (bypassing the cache) and accumulates it in a {@link SynsetStore}.
+   */
+  SynsetStore loadSynsetStore(final POS pos) {
+    final SynsetStore.Builder builder = new SynsetStore.Builder(pos);
+    final String fileName = getDataFilename(pos);
+    try {
+      for (int offset = 0; offset >= 0; offset = fileManager.getNextLinePointer(offset, fileName)) {
+        final CharSequence line = fileManager.readLineViewAt(offset, fileName);
+        if (line == null) {
+          break;
+        }
+        if (! CharSequences.startsWith(line, "  ")) { // first few lines start with "  "
+          builder.add(new Synset(line, this, true));
+        }
+      }
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    return builder.build();
+  }
+
+  //
+  // Taxonomy
+  //
+
+  /**
+   * Is-a test of the hypernym taxonomy, without materializing any {@code Synset}s.
+   * @return {@code true} if {@code ancestor} is {@code synset} or one of its direct or inherited
+   * {@link RelationType#HYPERNYM}s or {@link RelationType#INSTANCE_HYPERNYM}s
+   * (e.g., "tiger" is an "animal")
+   */
+  public boolean isA(final Synset synset, final Synset ancestor) {
+    if (synset.getPOS() != ancestor.getPOS()) {
+      return false;
+    }
+    final HypernymIndex index = getHypernymIndex(synset.getPOS());
+    final int synsetIndex = index.indexOf(synset.getOffset());
+    final int ancestorIndex = index.indexOf(ancestor.getOffset());
+    return synsetIndex >= 0 && ancestorIndex >= 0 && index.isA(synsetIndex, ancestorIndex);
+  }
+
+  /**
+   * @return the direct and inherited {@link RelationType#HYPERNYM}s and {@link RelationType#INSTANCE_HYPERNYM}s
+   * of {@code synset}, in offset order (empty for roots)
+   * @throws IllegalArgumentException if {@code synset} isn't in this {@code WordNet}
+   */
+  public List<Synset> ancestors(final Synset synset) {
+    final POS pos = synset.getPOS();
+    final HypernymIndex index = getHypernymIndex(pos);
+    final int synsetIndex = indexOf(index, synset);
+    final int start = index.ancestorStart(synsetIndex);
+    final Synset[] ancestors = new Synset[index.ancestorEnd(synsetIndex) - start];
+    for (int i = 0; i < ancestors.length; i++) {
+      final int offset = index.offset(index.ancestor(start + i));
+      ancestors[i] = getSynsetAt(pos, offset).orElseThrow(() -> new NoSuchElementException(pos + " " + offset));
+    }
+    return ImmutableList.copyOf(ancestors);
+  }
+
+  /**
+   * Passes each {@code Synset} which {@code synset} {@link #isA(Synset, Synset) is} (i.e., {@code synset}
+   * and its {@link #ancestors(Synset) ancestors}), in offset order, to {@code subsumers}, without
+   * materializing any {@code Synset}s; for bulk computations like similarity measures.
+   * @throws IllegalArgumentException if {@code synset} isn't in this {@code WordNet}
+   */
+  public void forEachSubsumer(final Synset synset, final SubsumerConsumer subsumers) {
+    final HypernymIndex index = getHypernymIndex(synset.getPOS());
+    final int synsetIndex = indexOf(index, synset);
+    final int start = index.ancestorStart(synsetIndex);
+    final int[] lengths = index.ancestorLengths(synsetIndex);
+    boolean self = false;
+    for (int i = 0; i < lengths.length; i++) {
+      final int ancestor = index.ancestor(start + i);
+      if (! self && ancestor > synsetIndex) {
+        subsumers.accept(synset.getOffset(), 0, index.maxDepth(synsetIndex));
+        self = true;
+      }
+      // a synset on a hypernym cycle can be its own ancestor
+      if (ancestor != synsetIndex && lengths[i] >= 0) {
+        subsumers.accept(index.offset(ancestor), lengths[i], index.maxDepth(ancestor));
+      }
+    }
+    if (! self) {
+      subsumers.accept(synset.getOffset(), 0, index.maxDepth(synsetIndex));
+    }
+  }
+
+  /**
+   * Receives the {@code Synset}s which a {@code Synset} is from {@link WordNet#forEachSubsumer(Synset, SubsumerConsumer)}.
+   */
+  @FunctionalInterface
+  public interface SubsumerConsumer {
+    /**
+     * @param offset offset of the subsumer
+     * @param length length of the shortest {@link RelationType#HYPERNYM} / {@link RelationType#INSTANCE_HYPERNYM}
+     * path to it (0 for the {@code Synset} itself)
+     * @param maxDepth its {@link WordNet#maxDepth(Synset)}
+     */
+    void accept(int offset, int length, int maxDepth);
+  }
+
+  /**
+   * @return length of the shortest {@link RelationType#HYPERNYM} / {@link RelationType#INSTANCE_HYPERNYM}
+   * path from {@code synset} to a root (a {@code Synset} without any, e.g., "entity"), so roots have
+   * depth 0
+   * @throws IllegalArgumentException if {@code synset} isn't in this {@code WordNet}
+   */
+  public int depth(final Synset synset) {
+    final HypernymIndex index = getHypernymIndex(synset.getPOS());
+    return index.depth(indexOf(index, synset));
+  }
+
+  /**
+   * @return length of the longest {@link RelationType#HYPERNYM} / {@link RelationType#INSTANCE_HYPERNYM}
+   * path from {@code synset} to a root; at least {@link #depth(Synset)}, which it exceeds only for
+   * {@code Synset}s with multiple inheritance along the way
+   * @throws IllegalArgumentException if {@code synset} isn't in this {@code WordNet}
+   */
+  public int maxDepth(final Synset synset) {
+    final HypernymIndex index = getHypernymIndex(synset.getPOS());
+    return index.maxDepth(indexOf(index, synset));
+  }
+
+  /**
+   * @return greatest {@link #maxDepth(Synset)} of any {@code Synset} of {@code pos}, i.e., the depth of its
+   * taxonomy
+   */
+  public int maxDepth(final POS pos) {
+    return getHypernymIndex(pos).maxDepth();
+  }
+
+  /**
+   * @return the {@code Synset}s of {@code pos} without {@link RelationType#HYPERNYM}s or
+   * {@link RelationType#INSTANCE_HYPERNYM}s (e.g., "entity", the single noun root), in offset order
+   */
+  public List<Synset> roots(final POS pos) {
+    final HypernymIndex index = getHypernymIndex(pos);
+    final Synset[] roots = new Synset[index.rootCount()];
+    for (int i = 0; i < roots.length; i++) {
+      final int offset = index.offset(index.root(i));
+      roots[i] = getSynsetAt(pos, offset).orElseThrow(() -> new NoSuchElementException(pos + " " + offset));
+    }
+    return ImmutableList.copyOf(roots);
+  }
+
+  /**
+   * @return length of the shortest path between {@code synset1} and {@code synset2} of {@link RelationType#HYPERNYM},
+   * {@link RelationType#INSTANCE_HYPERNYM}, {@link RelationType#HYPONYM} and {@link RelationType#INSTANCE_HYPONYM}
+   * relations (e.g., 2 for siblings), or -1 if there's no such path (e.g., their {@code POS}s differ, or
+   * one isn't in this {@code WordNet})
+   */
+  public int distance(final Synset synset1, final Synset synset2) {
+    if (synset1.getPOS() != synset2.getPOS()) {
+      return -1;
+    }
+    final HypernymIndex index = getHypernymIndex(synset1.getPOS());
+    final int index1 = index.indexOf(synset1.getOffset());
+    final int index2 = index.indexOf(synset2.getOffset());
+    return index1 < 0 || index2 < 0 ? -1 : index.distance(index1, index2);
+  }
+
+  /**
+   * @return the deepest (see {@link #maxDepth(Synset)}, then {@link #depth(Synset)}) {@code Synset} which both {@code synset1} and {@code synset2}
+   * {@link #isA(Synset, Synset) are} (e.g., "big cat" for "tiger" and "lion"), or empty if there's none
+   * (e.g., their {@code POS}s differ, or one isn't in this {@code WordNet})
+   */
+  public Optional<Synset> leastCommonSubsumer(final Synset synset1, final Synset synset2) {
+    final POS pos = synset1.getPOS();
+    if (pos != synset2.getPOS()) {
+      return Optional.empty();
+    }
+    final HypernymIndex index = getHypernymIndex(pos);
+    final int index1 = index.indexOf(synset1.getOffset());
+    final int index2 = index.indexOf(synset2.getOffset());
+    if (index1 < 0 || index2 < 0) {
+      return Optional.empty();
+    }
+    final int lcs = index.leastCommonSubsumer(index1, index2);
+    return lcs < 0 ? Optional.empty() : getSynsetAt(pos, index.offset(lcs));
+  }
+
+  /**
+   * @return synset number of {@code synset} in {@code index}
+   * @throws IllegalArgumentException if there's none, e.g., {@code synset} is from another version of WordNet
+   */
+  private static int indexOf(final HypernymIndex index, final Synset synset) {
+    final int synsetIndex = index.indexOf(synset.getOffset());
+    if (synsetIndex < 0) {
+      throw new IllegalArgumentException("not in this WordNet: "+synset);
+    }
+    return synsetIndex;
+  }
+
+  /**
+   * @return the {@link HypernymIndex} of {@code pos} from its sidecar or, failing that, built from the
+   * {@code data.<em>pos</em>} file
+   */
+  HypernymIndex getHypernymIndex(final POS pos) {
+    HypernymIndex hypernymIndex = hypernymIndexes.get(pos);
+    if (hypernymIndex == null) {
+      final Stopwatch stopwatch = Stopwatch.createStarted();
+      hypernymIndex = readHypernymIndex(pos);
+      if (hypernymIndex == null) {
+        hypernymIndex = loadHypernymIndex(pos);
+      }
+      log.debug("{} hypernym index: {} {}", pos, hypernymIndex.size(), stopwatch);
+      final HypernymIndex existing = hypernymIndexes.putIfAbsent(pos, hypernymIndex);
+      if (existing != null) {
+        hypernymIndex = existing;
+      }
+    }
+    return hypernymIndex;
+  }
+
+  private HypernymIndex readHypernymIndex(final POS pos) {
+    final String fileName = getDataFilename(pos);
+    final String sidecarName = fileName + HypernymIndex.SUFFIX;
+    try {
+      final InputStream input = fileManager.openSidecar(sidecarName);
+      if (input == null) {
+        return null;
+      }
+      try {
+        final HypernymIndex hypernymIndex = HypernymIndex.read(new BufferedInputStream(input),
+          fileManager.getFileLength(fileName));
+        if (hypernymIndex == null) {
+          log.warn("ignoring stale hypernym index sidecar {}", sidecarName);
+        }
+        return hypernymIndex;
+      } finally {
+        Closeables.closeQuietly(input);
+      }
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * Tokenizes the pointers of each line of <code>data.<em>pos</em></code> into a {@link HypernymIndex}.
+   */
+  HypernymIndex loadHypernymIndex(final POS pos) {
+    final String fileName = getDataFilename(pos);
+    try {
+      final HypernymIndex.Builder builder = new HypernymIndex.Builder(pos, fileManager.getFileLength(fileName));
+      for (int offset = 0; offset >= 0; offset = fileManager.getNextLinePointer(offset, fileName)) {
+        final CharSequence line = fileManager.readLineViewAt(offset, fileName);
+        if (line == null) {
+          break;
+        }
+        if (! CharSequences.startsWith(line, "  ")) { // first few lines start with "  "
+          builder.add(line);
+        }
+      }
+      return builder.build();
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
   /**
    * @see WordNetInterface#wordSenses
    */
@@ -1210,6 +1986,15 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p> {@link POS#ALL} streams are ordered by {@code POS} first.
+   */
+  @Override
+  public Stream<WordSense> wordSenseStream(final POS pos) {
+    return wordStream(pos).flatMap(word -> word.getWordSenses().stream());
+  }
+
   /**
    * @see WordNetInterface#relations
    */
@@ -1260,6 +2045,12 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
+  @Override
+  public Stream<Relation> relationStream(final RelationType relationType, final POS pos) {
+    final SynsetToRelations synsetToRelations = new SynsetToRelations(relationType);
+    return synsetStream(pos).flatMap(synset -> synsetToRelations.apply(synset).stream());
+  }
+
   /**
    * @see WordNetInterface#exceptions
    */
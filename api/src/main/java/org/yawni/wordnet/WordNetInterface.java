@@ -21,6 +21,8 @@ import com.google.common.collect.ImmutableList;
 import java.net.URL;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.yawni.util.EnumAliases;
 
@@ -74,6 +76,40 @@ public interface WordNetInterface {
    */
   List<Synset> lookupSynsets(final String someString, final POS pos);
 
+  /**
+   * Batch variant of {@link #lookupWordSenses(String, POS)}, e.g., for all the tokens of a sentence
+   * or document.  Implementations may amortize work across {@code someStrings} (e.g., looking up
+   * repeated tokens only once, in an order favorable to file access).
+   * @param someStrings Some strings (need <em>not</em> be base forms).
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return an immutable list of the results of {@link #lookupWordSenses(String, POS)} for each
+   * of {@code someStrings}, in the same order
+   */
+  default List<List<WordSense>> lookupWordSenses(final List<String> someStrings, final POS pos) {
+    final ImmutableList.Builder<List<WordSense>> results = ImmutableList.builder();
+    for (final String someString : someStrings) {
+      results.add(lookupWordSenses(someString, pos));
+    }
+    return results.build();
+  }
+
+  /**
+   * Batch variant of {@link #lookupSynsets(String, POS)}, e.g., for all the tokens of a sentence
+   * or document.  Implementations may amortize work across {@code someStrings} (e.g., looking up
+   * repeated tokens only once, in an order favorable to file access).
+   * @param someStrings Some strings (need <em>not</em> be base forms).
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return an immutable list of the results of {@link #lookupSynsets(String, POS)} for each
+   * of {@code someStrings}, in the same order
+   */
+  default List<List<Synset>> lookupSynsets(final List<String> someStrings, final POS pos) {
+    final ImmutableList.Builder<List<Synset>> results = ImmutableList.builder();
+    for (final String someString : someStrings) {
+      results.add(lookupSynsets(someString, pos));
+    }
+    return results.build();
+  }
+
   /**
    * Look up a {@code Word} in the database by its <strong>lemma</strong> (aka baseform).  The search is
    * case-independent and phrases are separated by spaces (e.g., "look up", not
@@ -175,6 +211,48 @@ public interface WordNetInterface {
    */
   Iterable<Relation> relations(final RelationType relationType, final POS pos);
 
+  /**
+   * {@code Stream} variant of {@link #synsets(POS)} whose {@code Spliterator} splits efficiently, so
+   * a {@link Stream#parallel() parallel} stream of it scales across cores.  Its encounter order
+   * is that of {@link #synsets(POS)}.
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return A {@code Stream} of {@code Synset}s.
+   */
+  default Stream<Synset> synsetStream(final POS pos) {
+    return StreamSupport.stream(synsets(pos).spliterator(), false);
+  }
+
+  /**
+   * {@code Stream} variant of {@link #words(POS)} whose {@code Spliterator} splits efficiently, so
+   * a {@link Stream#parallel() parallel} stream of it scales across cores.  Its encounter order
+   * is that of {@link #words(POS)} for each part-of-speech, though implementations may order
+   * {@link POS#ALL} streams by {@code POS} first.
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return A {@code Stream} of {@code Word}s.
+   */
+  default Stream<Word> wordStream(final POS pos) {
+    return StreamSupport.stream(words(pos).spliterator(), false);
+  }
+
+  /**
+   * {@code Stream} variant of {@link #wordSenses(POS)}; see {@link #wordStream(POS)}.
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return A {@code Stream} of {@code WordSense}s.
+   */
+  default Stream<WordSense> wordSenseStream(final POS pos) {
+    return StreamSupport.stream(wordSenses(pos).spliterator(), false);
+  }
+
+  /**
+   * {@code Stream} variant of {@link #relations(RelationType, POS)}; see {@link #synsetStream(POS)}.
+   * @param relationType The {@code RelationType}. {@code null} implies <strong>all</strong> {@code RelationType}s.
+   * @param pos The part-of-speech ({@link POS#ALL} is also supported).
+   * @return A {@code Stream} of {@code Relation}s of type {@code RelationType}.
+   */
+  default Stream<Relation> relationStream(final RelationType relationType, final POS pos) {
+    return StreamSupport.stream(relations(relationType, pos).spliterator(), false);
+  }
+
   /**
    * Returns an iterator of <strong>all</strong> the exceptions for the given part-of-speech.
    * @param pos The part-of-speech ({@link POS#ALL} is also supported).
@@ -72,6 +72,14 @@ public final class WordNetLexicalComparator implements Comparator<CharSequence>,
     return s1Len - s2Len;
   }
 
+  /**
+   * {@inheritDoc}  Both instances hash the same (i.e., case-insensitively).
+   */
+  @Override
+  public String id() {
+    return "wordnet-lexical";
+  }
+
   @Override
   public int hashCode(final Object obj) {
     if (!(obj instanceof CharSequence)) {
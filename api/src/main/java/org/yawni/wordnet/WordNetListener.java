@@ -0,0 +1,41 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import org.yawni.wordnet.WordNetMetrics.Operation;
+
+/**
+ * Receives notifications of the events measured by {@link WordNetMetrics}, e.g., to forward them
+ * to an application's metrics library; see {@link WordNet.Builder#listener(WordNetListener)}.
+ * Methods are called synchronously on the thread performing the operation, so they must be
+ * thread-safe and fast.  All methods do nothing by default.
+ */
+public interface WordNetListener {
+  /**
+   * Called after each {@code operation} completes (or throws).  Operations may be nested
+   * (e.g., {@link Operation#LOOKUP_WORD} usually includes a {@link Operation#GET_INDEX_WORD_AT}).
+   */
+  default void onOperation(Operation operation, long nanos) {
+  }
+
+  /**
+   * Called when the Bloom filter of {@code fileName} reported that it might contain
+   * a lemma that it doesn't contain.
+   */
+  default void onBloomFilterFalsePositive(POS pos, String fileName) {
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.yawni.util.LatencyHistogram;
+import org.yawni.util.cache.CacheStats;
+
+/**
+ * Measurements of a {@link WordNet} instance's hot paths, for sizing its caches and catching performance
+ * regressions: a {@link LatencyHistogram} per {@link Operation}, the statistics of each of its caches,
+ * how effective its Bloom filters are, and how many bytes of WordNet files have been scanned.
+ *
+ * <p> Measurement is off unless enabled via {@link WordNet.Builder#metrics(boolean)} (or system property
+ * {@value #PROPERTY}); when off, only cache statistics are available and the cost is a branch per operation.
+ * Metrics can be read directly, pushed to {@link WordNetListener}s as they happen, or exported via JMX
+ * with {@link #registerMBean(String)}.
+ *
+ * @see WordNet#getMetrics()
+ */
+public final class WordNetMetrics implements WordNetMetricsMXBean {
+  /** System property which, if {@code true}, enables metrics by default */
+  public static final String PROPERTY = "yawni.wordnet.metrics";
+  /** JMX domain of {@link #registerMBean(String)} */
+  public static final String JMX_DOMAIN = "org.yawni.wordnet";
+
+  /** The measured operations */
+  public enum Operation {
+    /** {@link WordNet#lookupWord(CharSequence, POS)} */
+    LOOKUP_WORD,
+    /** {@link WordNet#lookupBaseForms(String, POS)}, per {@code POS} */
+    LOOKUP_BASE_FORMS,
+    /** retrieval of a {@link Word} by its offset in its {@code index.<em>pos</em>} file */
+    GET_INDEX_WORD_AT,
+    /** {@link WordNet#getSynsetAt(POS, int)} */
+    GET_SYNSET_AT,
+    /** lookups of <code><em>pos</em>.exc</code> files */
+    GET_EXCEPTIONS,
+  }
+
+  private final WordNet wordNet;
+  private final boolean enabled;
+  private final WordNetListener[] listeners;
+  private final EnumMap<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+  private final LongAdder bloomFilterFalsePositives = new LongAdder();
+  private final LongAdder bloomFilterRejections = new LongAdder();
+  private final LongAdder bytesScanned = new LongAdder();
+  private volatile ObjectName objectName;
+
+  WordNetMetrics(final WordNet wordNet, final boolean enabled, final List<WordNetListener> listeners) {
+    this.wordNet = wordNet;
+    this.enabled = enabled;
+    this.listeners = listeners.toArray(new WordNetListener[0]);
+    for (final Operation operation : Operation.values()) {
+      latencies.put(operation, new LatencyHistogram());
+    }
+  }
+
+  //
+  // Recording
+  //
+
+  /** @return start time of an operation to pass to {@link #record(Operation, long)} */
+  long start() {
+    return enabled ? System.nanoTime() : 0L;
+  }
+
+  void record(final Operation operation, final long start) {
+    if (enabled) {
+      final long nanos = System.nanoTime() - start;
+      latencies.get(operation).record(nanos);
+      for (final WordNetListener listener : listeners) {
+        listener.onOperation(operation, nanos);
+      }
+    }
+  }
+
+  void recordBloomFilterFalsePositive(final POS pos, final String fileName) {
+    if (enabled) {
+      bloomFilterFalsePositives.increment();
+      for (final WordNetListener listener : listeners) {
+        listener.onBloomFilterFalsePositive(pos, fileName);
+      }
+    }
+  }
+
+  void recordBloomFilterRejection() {
+    if (enabled) {
+      bloomFilterRejections.increment();
+    }
+  }
+
+  /** @return counter for {@link FileManagerInterface#countBytesScanned(LongAdder)}, or {@code null} if not enabled */
+  LongAdder bytesScannedCounter() {
+    return enabled ? bytesScanned : null;
+  }
+
+  //
+  // Reading
+  //
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public LatencyHistogram.Summary getLatency(final Operation operation) {
+    return latencies.get(operation).summary();
+  }
+
+  @Override
+  public Map<String, LatencyHistogram.Summary> getLatencies() {
+    final Map<String, LatencyHistogram.Summary> summaries = new TreeMap<>();
+    for (final Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+      summaries.put(entry.getKey().name(), entry.getValue().summary());
+    }
+    return summaries;
+  }
+
+  /** @see WordNet#getCacheStats() */
+  public Map<WordNet.CacheName, CacheStats> getCacheStats() {
+    return wordNet.getCacheStats();
+  }
+
+  @Override
+  public Map<String, Double> getCacheHitRates() {
+    final Map<String, Double> hitRates = new TreeMap<>();
+    for (final Map.Entry<WordNet.CacheName, CacheStats> entry : getCacheStats().entrySet()) {
+      hitRates.put(entry.getKey().name(), entry.getValue().hitRate());
+    }
+    return hitRates;
+  }
+
+  @Override
+  public Map<String, Long> getCacheEvictions() {
+    final Map<String, Long> evictions = new TreeMap<>();
+    for (final Map.Entry<WordNet.CacheName, CacheStats> entry : getCacheStats().entrySet()) {
+      evictions.put(entry.getKey().name(), entry.getValue().evictionCount());
+    }
+    return evictions;
+  }
+
+  @Override
+  public long getBloomFilterFalsePositives() {
+    return bloomFilterFalsePositives.sum();
+  }
+
+  @Override
+  public long getBloomFilterRejections() {
+    return bloomFilterRejections.sum();
+  }
+
+  @Override
+  public long getBytesScanned() {
+    return bytesScanned.sum();
+  }
+
+  @Override
+  public void reset() {
+    for (final LatencyHistogram histogram : latencies.values()) {
+      histogram.reset();
+    }
+    bloomFilterFalsePositives.reset();
+    bloomFilterRejections.reset();
+    bytesScanned.reset();
+  }
+
+  //
+  // JMX
+  //
+
+  /**
+   * Registers this as an MXBean named {@code org.yawni.wordnet:type=WordNetMetrics,name=<name>} with the
+   * platform {@code MBeanServer}, replacing any previous registration of this instance.
+   * @return the {@code ObjectName} it was registered with
+   * @throws RuntimeException if the registration fails (e.g., the name is already taken)
+   */
+  public synchronized ObjectName registerMBean(final String name) {
+    unregisterMBean();
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      final ObjectName newName = new ObjectName(JMX_DOMAIN + ":type=WordNetMetrics,name=" + ObjectName.quote(name));
+      server.registerMBean(this, newName);
+      objectName = newName;
+      return newName;
+    } catch (JMException jme) {
+      throw new RuntimeException(jme);
+    }
+  }
+
+  /** Undoes {@link #registerMBean(String)}, if it was called. */
+  public synchronized void unregisterMBean() {
+    if (objectName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException jme) {
+      throw new RuntimeException(jme);
+    } finally {
+      objectName = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "[WordNetMetrics enabled: "+enabled+" latencies: "+getLatencies()+
+      " cacheHitRates: "+getCacheHitRates()+
+      " bloomFilterFalsePositives: "+getBloomFilterFalsePositives()+
+      " bloomFilterRejections: "+getBloomFilterRejections()+
+      " bytesScanned: "+getBytesScanned()+"]";
+  }
+}
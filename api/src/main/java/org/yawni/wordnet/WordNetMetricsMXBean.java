@@ -0,0 +1,49 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Map;
+import org.yawni.util.LatencyHistogram;
+
+/**
+ * JMX management interface of {@link WordNetMetrics}.
+ * @see WordNetMetrics#registerMBean(String)
+ */
+public interface WordNetMetricsMXBean {
+  boolean isEnabled();
+
+  /** @return latency statistics keyed by {@link WordNetMetrics.Operation} name */
+  Map<String, LatencyHistogram.Summary> getLatencies();
+
+  /** @return hit rate keyed by {@link WordNet.CacheName} name */
+  Map<String, Double> getCacheHitRates();
+
+  /** @return eviction count keyed by {@link WordNet.CacheName} name */
+  Map<String, Long> getCacheEvictions();
+
+  /** @return number of lemmas a Bloom filter said might be present, but weren't */
+  long getBloomFilterFalsePositives();
+
+  /** @return number of file searches avoided because a Bloom filter said a lemma is absent */
+  long getBloomFilterRejections();
+
+  /** @return number of bytes of WordNet files scanned for line and word boundaries */
+  long getBytesScanned();
+
+  /** Resets latencies and counters (but not cache statistics) */
+  void reset();
+}
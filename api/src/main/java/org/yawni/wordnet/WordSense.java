@@ -30,7 +30,6 @@ import org.yawni.util.CharSequences;
 import org.yawni.util.LightImmutableList;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
-import static org.yawni.util.Utils.add;
 
 /**
  * A {@code WordSense} represents the precise lexical information related to a specific sense of a {@link Word}.
@@ -112,6 +111,10 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
     verbFrameFlags |= 1L << (fnum - 1);
   }
 
+  void setVerbFrameFlags(final long flags) {
+    verbFrameFlags = flags;
+  }
+
   //
   // Accessors
   //
@@ -584,24 +587,9 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
   //
 
   private List<Relation> restrictRelations(final RelationType type) {
-    final List<Relation> relations = synset.getRelations();
-    List<Relation> list = null;
-    for (final Relation relation : relations) {
-      // consider all isSemantic Relations, but only isLexical Relations
-      // which have this as their source
-      if (relation.isLexical() && !relation.getSource().equals(this)) {
-        continue;
-      }
-
-      if (type != null && type != relation.getType()) {
-        continue;
-      }
-      list = add(list, relation);
-    }
-    if (list == null) {
-      return LightImmutableList.of();
-    }
-    return LightImmutableList.copyOf(list);
+    // consider all isSemantic Relations, but only isLexical Relations
+    // which have this as their source
+    return synset.getRelations(this, type);
   }
 
   @Override
@@ -0,0 +1,188 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+import com.google.common.base.Stopwatch;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yawni.wordnet.POS;
+import org.yawni.wordnet.RelationType;
+import org.yawni.wordnet.Synset;
+import org.yawni.wordnet.WordNet;
+import org.yawni.wordnet.WordSense;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Information content (IC) of each noun and verb {@code Synset}: {@code -log(p(s))}, where {@code p(s)} is
+ * the probability of encountering an instance of {@code s} (i.e., {@code s} or any {@code Synset} which
+ * {@link WordNet#isA(Synset, Synset) is} {@code s}) in a sense tagged corpus.  The counts are those of
+ * {@code cntlist.rev} (see {@link WordSense#getSensesTaggedFrequency()}), summed over each {@code Synset}'s
+ * {@code WordSense}s, plus 1 (Laplace smoothing, so every {@code Synset} has a finite IC), and propagated
+ * to each of its ancestors; {@code p(s)} is {@code s}'s count over the total count of its {@code POS}.
+ * So the IC of a root like "entity" is 0, and it increases with specificity.
+ *
+ * <p> Instances are thread-safe.  The IC of each {@code POS} is computed on first use, which reads every
+ * {@code Synset} of that {@code POS}, so share instances, e.g., with
+ * {@link Similarity#Similarity(WordNet, InformationContent)}.
+ */
+public final class InformationContent {
+  private static final Logger log = LoggerFactory.getLogger(InformationContent.class);
+
+  private final WordNet wordNet;
+  private final ConcurrentMap<POS, Table> tables = new ConcurrentHashMap<>();
+
+  private InformationContent(final WordNet wordNet) {
+    this.wordNet = wordNet;
+  }
+
+  /**
+   * @return the IC of the noun and verb {@code Synset}s of {@code wordNet}, from its sense tagged frequencies
+   */
+  public static InformationContent of(final WordNet wordNet) {
+    return new InformationContent(checkNotNull(wordNet));
+  }
+
+  /**
+   * @return the IC of {@code synset}, or {@link Double#NaN} if it isn't a noun or verb
+   */
+  public double get(final Synset synset) {
+    return get(synset.getPOS(), synset.getOffset());
+  }
+
+  /**
+   * @return the IC of the {@code Synset} of {@code pos} at {@code offset}, or {@link Double#NaN} if there's
+   * no such noun or verb
+   */
+  double get(final POS pos, final int offset) {
+    if (pos != POS.NOUN && pos != POS.VERB) {
+      return Double.NaN;
+    }
+    return getTable(pos).get(offset);
+  }
+
+  private Table getTable(final POS pos) {
+    Table table = tables.get(pos);
+    if (table == null) {
+      table = compute(pos);
+      final Table existing = tables.putIfAbsent(pos, table);
+      if (existing != null) {
+        table = existing;
+      }
+    }
+    return table;
+  }
+
+  /** IC of each {@code Synset} of a {@code POS} */
+  private static final class Table {
+    /** sorted */
+    final int[] offsets;
+    final double[] ics;
+
+    Table(final int[] offsets, final double[] ics) {
+      this.offsets = offsets;
+      this.ics = ics;
+    }
+
+    double get(final int offset) {
+      final int index = Arrays.binarySearch(offsets, offset);
+      return index < 0 ? Double.NaN : ics[index];
+    }
+  }
+
+  private Table compute(final POS pos) {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final List<Synset> synsets = wordNet.synsetStream(pos).collect(Collectors.toList());
+    final int size = synsets.size();
+    final int[] offsets = new int[size];
+    for (int i = 0; i < size; i++) {
+      offsets[i] = synsets.get(i).getOffset();
+    }
+    // synsets are in offset order
+    assert isSorted(offsets);
+    final double[] counts = synsets.parallelStream()
+      .mapToDouble(synset -> 1 + synset.getWordSenses().stream().mapToInt(WordSense::getSensesTaggedFrequency).sum())
+      .toArray();
+    final int[][] parents = IntStream.range(0, size).parallel()
+      .mapToObj(i -> parents(synsets.get(i), i, offsets))
+      .toArray(int[][]::new);
+    final double[] frequencies = counts.clone();
+    double total = 0;
+    // depth first search of the ancestors of each synset, each of which is marked with the synset's index
+    // when it's reached (possibly by several paths) so its count is propagated to it once
+    final int[] marks = new int[size];
+    Arrays.fill(marks, -1);
+    final int[] stack = new int[size];
+    for (int i = 0; i < size; i++) {
+      total += counts[i];
+      marks[i] = i;
+      int top = 0;
+      stack[top++] = i;
+      while (top > 0) {
+        for (final int parent : parents[stack[--top]]) {
+          if (marks[parent] != i) {
+            marks[parent] = i;
+            frequencies[parent] += counts[i];
+            stack[top++] = parent;
+          }
+        }
+      }
+    }
+    final double[] ics = new double[size];
+    for (int i = 0; i < size; i++) {
+      // 0 rather than -0 for a root which subsumes every synset
+      ics[i] = Math.max(0, -Math.log(frequencies[i] / total));
+    }
+    log.info("computed {} information content in {}", pos, stopwatch);
+    return new Table(offsets, ics);
+  }
+
+  /**
+   * @return indexes in {@code offsets} of the {@link RelationType#HYPERNYM}s and
+   * {@link RelationType#INSTANCE_HYPERNYM}s of {@code synset}, whose index is {@code index}, without
+   * materializing them
+   */
+  private static int[] parents(final Synset synset, final int index, final int[] offsets) {
+    final IntStream.Builder parents = IntStream.builder();
+    final IntConsumer add = offset -> {
+      final int parent = Arrays.binarySearch(offsets, offset);
+      // skip dangling pointers and self loops
+      if (parent >= 0 && parent != index) {
+        parents.add(parent);
+      }
+    };
+    synset.forEachRelationTarget(RelationType.HYPERNYM, add);
+    synset.forEachRelationTarget(RelationType.INSTANCE_HYPERNYM, add);
+    return parents.build().toArray();
+  }
+
+  private static boolean isSorted(final int[] values) {
+    for (int i = 1; i < values.length; i++) {
+      if (values[i - 1] >= values[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+/**
+ * The standard WordNet similarity measures of two {@code Synset}s, as defined by their authors and implemented
+ * by, e.g., WordNet::Similarity and NLTK.  Each is based on the <em>common subsumers</em> of the two
+ * {@code Synset}s: the {@code Synset}s which both are (i.e., their common ancestors in the
+ * {@link org.yawni.wordnet.RelationType#HYPERNYM HYPERNYM} / {@link org.yawni.wordnet.RelationType#INSTANCE_HYPERNYM
+ * INSTANCE_HYPERNYM} taxonomy, including themselves).  The path length of two {@code Synset}s is that of the
+ * shortest hypernym path between them through a common subsumer.  {@code Synset}s without common subsumers
+ * (e.g., of different {@code POS}s or verb hierarchies) have similarity 0 by every measure.
+ *
+ * @see Similarity
+ */
+public enum Measure {
+  /**
+   * {@code 1 / (path length + 1)}, in (0, 1].
+   */
+  PATH(false),
+  /**
+   * Wu &amp; Palmer (1994): {@code 2 * depth(lcs) / (length(s1, lcs) + length(s2, lcs) + 2 * depth(lcs))}, in (0, 1],
+   * where the <em>lcs</em> (least common subsumer) is the deepest common subsumer and depths count the
+   * {@code Synset}s of the longest hypernym path to a root (so roots have depth 1).
+   */
+  WU_PALMER(false),
+  /**
+   * Leacock &amp; Chodorow (1998): {@code -log((path length + 1) / (2 * D))}, where {@code D} is the depth of the
+   * taxonomy of their {@code POS} (in {@code Synset}s, i.e., {@link org.yawni.wordnet.WordNet#maxDepth(org.yawni.wordnet.POS)} + 1).
+   */
+  LEACOCK_CHODOROW(false),
+  /**
+   * Resnik (1995): the information content of their most informative common subsumer.
+   * @see InformationContent
+   */
+  RESNIK(true),
+  /**
+   * Lin (1998): {@code 2 * IC(mics) / (IC(s1) + IC(s2))}, in [0, 1], where <em>mics</em> is the most informative
+   * common subsumer.
+   * @see InformationContent
+   */
+  LIN(true),
+  /**
+   * Jiang &amp; Conrath (1997): {@code 1 / (IC(s1) + IC(s2) - 2 * IC(mics))}, where <em>mics</em> is the most
+   * informative common subsumer; {@link Double#POSITIVE_INFINITY} if that distance is 0 (e.g., for identical
+   * {@code Synset}s).
+   * @see InformationContent
+   */
+  JIANG_CONRATH(true);
+
+  private final boolean informationContent;
+
+  Measure(final boolean informationContent) {
+    this.informationContent = informationContent;
+  }
+
+  /** @return {@code true} if this measure is based on {@link InformationContent} */
+  public boolean usesInformationContent() {
+    return informationContent;
+  }
+}
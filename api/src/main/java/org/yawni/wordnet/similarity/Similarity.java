@@ -0,0 +1,192 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.yawni.wordnet.POS;
+import org.yawni.wordnet.Synset;
+import org.yawni.wordnet.WordNet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Computes {@link Measure}s of {@code Synset}s of a {@link WordNet}, pairwise or in bulk.
+ *
+ * <p> Each {@code Synset} is first reduced to a <em>profile</em>: its common subsumer candidates (itself
+ * and its ancestors, in offset order) with the length of the shortest hypernym path to each, their
+ * depths and, for IC based measures, their {@link InformationContent}, read as primitives from the
+ * hypernym closure (see {@link WordNet#forEachSubsumer(Synset, WordNet.SubsumerConsumer)}) without
+ * materializing any {@code Synset}s.  Comparing two profiles is a merge of their candidates, so
+ * {@link #matrix(Measure, List, List)} computes a profile per distinct {@code Synset} of its rows and
+ * columns for its {@code N * M} comparisons, which it runs in parallel.
+ *
+ * <p> Instances are thread-safe.
+ */
+public final class Similarity {
+  private final WordNet wordNet;
+  private final InformationContent informationContent;
+
+  public Similarity(final WordNet wordNet) {
+    this(wordNet, InformationContent.of(wordNet));
+  }
+
+  public Similarity(final WordNet wordNet, final InformationContent informationContent) {
+    this.wordNet = checkNotNull(wordNet);
+    this.informationContent = checkNotNull(informationContent);
+  }
+
+  /**
+   * @return the {@code measure} of {@code synset1} and {@code synset2}
+   */
+  public double similarity(final Measure measure, final Synset synset1, final Synset synset2) {
+    return compare(measure, profile(measure, synset1), profile(measure, synset2));
+  }
+
+  /**
+   * Computes the {@code measure} of each pair of a row and column {@code Synset} in parallel.
+   * @return matrix whose element {@code [i][j]} is the {@code measure} of {@code rows.get(i)} and
+   * {@code columns.get(j)}
+   */
+  public double[][] matrix(final Measure measure, final List<Synset> rows, final List<Synset> columns) {
+    // one profile per distinct synset, e.g., of a matrix of a list with itself
+    final Set<Synset> distinct = new HashSet<>(rows);
+    distinct.addAll(columns);
+    final Map<Synset, Profile> profiles = distinct.parallelStream()
+      .collect(Collectors.toConcurrentMap(Function.identity(), synset -> profile(measure, synset)));
+    final Profile[] rowProfiles = rows.stream().map(profiles::get).toArray(Profile[]::new);
+    final Profile[] columnProfiles = columns.stream().map(profiles::get).toArray(Profile[]::new);
+    final double[][] matrix = new double[rowProfiles.length][];
+    IntStream.range(0, rowProfiles.length).parallel().forEach(i -> {
+      final double[] row = new double[columnProfiles.length];
+      for (int j = 0; j < row.length; j++) {
+        row[j] = compare(measure, rowProfiles[i], columnProfiles[j]);
+      }
+      matrix[i] = row;
+    });
+    return matrix;
+  }
+
+  /**
+   * A {@code Synset}'s common subsumer candidates (see {@link Similarity}), each column in offset order.
+   */
+  private static final class Profile {
+    final POS pos;
+    final int[] offsets;
+    /** length of the shortest hypernym path to each candidate */
+    final int[] lengths;
+    final int[] depths;
+    /** {@code null} unless the measure uses {@link InformationContent} */
+    final double[] ics;
+    final double ic;
+
+    Profile(final POS pos, final int[] offsets, final int[] lengths, final int[] depths, final double[] ics, final double ic) {
+      this.pos = pos;
+      this.offsets = offsets;
+      this.lengths = lengths;
+      this.depths = depths;
+      this.ics = ics;
+      this.ic = ic;
+    }
+  }
+
+  private Profile profile(final Measure measure, final Synset synset) {
+    final POS pos = synset.getPOS();
+    final IntStream.Builder offsets = IntStream.builder();
+    final IntStream.Builder lengths = IntStream.builder();
+    final IntStream.Builder depths = IntStream.builder();
+    wordNet.forEachSubsumer(synset, (offset, length, maxDepth) -> {
+      offsets.add(offset);
+      lengths.add(length);
+      depths.add(maxDepth + 1);
+    });
+    final int[] candidates = offsets.build().toArray();
+    final InformationContent ic = measure.usesInformationContent() ? informationContent : null;
+    final double[] ics = ic == null ? null : Arrays.stream(candidates).mapToDouble(offset -> ic.get(pos, offset)).toArray();
+    return new Profile(pos, candidates, lengths.build().toArray(), depths.build().toArray(), ics,
+      ic == null ? Double.NaN : ic.get(pos, synset.getOffset()));
+  }
+
+  private double compare(final Measure measure, final Profile profile1, final Profile profile2) {
+    if (profile1.pos != profile2.pos) {
+      return 0;
+    }
+    // merge of the candidates
+    int minLength = Integer.MAX_VALUE;
+    // deepest common subsumer
+    int lcs1 = -1, lcs2 = -1;
+    double maxIc = Double.NEGATIVE_INFINITY;
+    for (int i = 0, j = 0; i < profile1.offsets.length && j < profile2.offsets.length; ) {
+      final int offset1 = profile1.offsets[i];
+      final int offset2 = profile2.offsets[j];
+      if (offset1 < offset2) {
+        i++;
+      } else if (offset1 > offset2) {
+        j++;
+      } else {
+        final int length = profile1.lengths[i] + profile2.lengths[j];
+        minLength = Math.min(minLength, length);
+        if (lcs1 < 0 || profile1.depths[i] > profile1.depths[lcs1] ||
+            (profile1.depths[i] == profile1.depths[lcs1] && length < profile1.lengths[lcs1] + profile2.lengths[lcs2])) {
+          lcs1 = i;
+          lcs2 = j;
+        }
+        if (profile1.ics != null) {
+          maxIc = Math.max(maxIc, profile1.ics[i]);
+        }
+        i++;
+        j++;
+      }
+    }
+    if (lcs1 < 0) {
+      return 0;
+    }
+    switch (measure) {
+      case PATH:
+        return 1.0 / (minLength + 1);
+      case WU_PALMER:
+        final int depth = profile1.depths[lcs1];
+        return 2.0 * depth / (profile1.lengths[lcs1] + profile2.lengths[lcs2] + 2 * depth);
+      case LEACOCK_CHODOROW:
+        return -Math.log((minLength + 1) / (2.0 * taxonomyDepth(profile1.pos)));
+      case RESNIK:
+        return maxIc;
+      case LIN:
+        final double sum = profile1.ic + profile2.ic;
+        // only roots have IC 0
+        return sum == 0 ? 1 : 2 * maxIc / sum;
+      case JIANG_CONRATH:
+        final double distance = profile1.ic + profile2.ic - 2 * maxIc;
+        return distance <= 0 ? Double.POSITIVE_INFINITY : 1 / distance;
+      default:
+        throw new IllegalArgumentException("unsupported measure "+measure);
+    }
+  }
+
+  /**
+   * @return number of {@code Synset}s of the longest hypernym path of {@code pos}
+   */
+  private int taxonomyDepth(final POS pos) {
+    return wordNet.maxDepth(pos) + 1;
+  }
+}
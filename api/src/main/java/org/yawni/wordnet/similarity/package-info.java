@@ -0,0 +1,23 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+/**
+ * Semantic similarity of {@link org.yawni.wordnet.Synset}s: the standard WordNet measures
+ * ({@link org.yawni.wordnet.similarity.Measure}) computed from the hypernym taxonomy and
+ * {@link org.yawni.wordnet.similarity.InformationContent}, pairwise or in bulk by
+ * {@link org.yawni.wordnet.similarity.Similarity}.
+ */
+package org.yawni.wordnet.similarity;
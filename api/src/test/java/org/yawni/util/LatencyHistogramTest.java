@@ -0,0 +1,54 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+  @Test
+  public void testBuckets() {
+    int previous = -1;
+    for (long nanos = 0; nanos < 1_000_000; nanos++) {
+      final int bucket = LatencyHistogram.bucketOf(nanos);
+      assertTrue(bucket == previous || bucket == previous + 1);
+      assertTrue(nanos <= LatencyHistogram.upperBoundOf(bucket));
+      // within 25%
+      assertTrue(LatencyHistogram.upperBoundOf(bucket) <= nanos + Math.max(1, nanos / 4));
+      previous = bucket;
+    }
+    assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) < 256);
+  }
+
+  @Test
+  public void testPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.summary().getP99Nanos());
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    final LatencyHistogram.Summary summary = histogram.summary();
+    assertEquals(1000, summary.getCount());
+    assertEquals(500_500, summary.getMeanNanos(), 0.1);
+    assertEquals(1_000_000, summary.getMaxNanos());
+    assertEquals(500_000, summary.getP50Nanos(), 500_000 / 4);
+    assertEquals(990_000, summary.getP99Nanos(), 990_000 / 4);
+    assertEquals(1_000_000, summary.percentile(1));
+    histogram.reset();
+    assertEquals(0, histogram.summary().getCount());
+  }
+}
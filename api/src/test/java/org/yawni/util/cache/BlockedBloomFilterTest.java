@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BlockedBloomFilterTest {
+  private static final Hasher<Object> HASHER = new Hasher<Object>() {
+    @Override
+    public int hashCode(Object o) {
+      return o.hashCode();
+    }
+  };
+
+  @Test
+  public void testFalsePositiveRate() {
+    final int size = 100000;
+    for (final double desiredFpRatio : new double[] { 0.1, 0.01, 0.001 }) {
+      final BlockedBloomFilter<Object> filter = new BlockedBloomFilter<>(size, desiredFpRatio, HASHER);
+      assertTrue(filter.probability() <= desiredFpRatio);
+      assertFalse("3 is in this empty filter? "+filter, filter.contains(3));
+
+      final Set<Integer> hard = new HashSet<>(size);
+      final Random rand = new Random(0);
+      while (hard.size() != size) {
+        final int next = rand.nextInt();
+        hard.add(next);
+        filter.add(next);
+      }
+      // no false negatives
+      for (final Integer i : hard) {
+        assertTrue(filter.contains(i));
+      }
+
+      int falsePositives = 0;
+      final int n = 10 * size;
+      for (int i = 0; i < n; i++) {
+        final int next = rand.nextInt();
+        if (! hard.contains(next) && filter.contains(next)) {
+          falsePositives++;
+        }
+      }
+      final double fpRatio = falsePositives / (double)n;
+      System.err.printf("desired: %.3f n: %,d falsePositives: %,d fpRatio: %.5f %s\n",
+        desiredFpRatio, n, falsePositives, fpRatio, filter);
+      assertTrue("fpRatio: "+fpRatio+" desired: "+desiredFpRatio, fpRatio < 1.5 * desiredFpRatio);
+    }
+  }
+
+  @Test
+  public void testBinaryFormat() throws Exception {
+    final int size = 10000;
+    final BlockedBloomFilter<Object> filter = new BlockedBloomFilter<>(size, 0.01, HASHER);
+    for (int i = 0; i < size; i += 2) {
+      filter.add(i);
+    }
+    assertEquals(filter, filter.offHeap());
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    filter.write(bytes);
+    final BlockedBloomFilter<Object> read = BlockedBloomFilter.read(new ByteArrayInputStream(bytes.toByteArray()), HASHER);
+    assertFalse(read.isReadOnly());
+    assertEquals(filter, read);
+    assertEquals(filter.size(), read.size());
+    assertEquals(filter.toString(), read.toString());
+
+    final Path path = Files.createTempFile("yawni", ".blocked.bloom");
+    try {
+      try (OutputStream output = Files.newOutputStream(path)) {
+        filter.write(output);
+      }
+      final BlockedBloomFilter<Object> mapped = BlockedBloomFilter.map(path, HASHER);
+      assertTrue(mapped.isReadOnly());
+      assertEquals(filter, mapped);
+      for (int i = 0; i < size; i += 2) {
+        assertTrue(mapped.contains(i));
+      }
+      try {
+        mapped.add(-1);
+        fail("read-only");
+      } catch (UnsupportedOperationException uoe) {
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+}
@@ -16,6 +16,15 @@
  */
 package org.yawni.util.cache;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
@@ -83,6 +92,99 @@ public class BloomFilterTest {
     //assert fpRatio <
   }
 
+  @Test
+  public void testOffHeap() throws Exception {
+    final int size = 10000;
+    final BloomFilter<CharSequence> filter = new BloomFilter<>(size, 0.01, CHARSEQUENCE_HASHER, true);
+    assertTrue(filter.isOffHeap());
+    final BloomFilter<CharSequence> onHeap = new BloomFilter<>(size, 0.01, CHARSEQUENCE_HASHER);
+    assertFalse(onHeap.isOffHeap());
+    for (int i = 0; i < size; i += 2) {
+      filter.add(String.valueOf(i));
+      onHeap.add(String.valueOf(i));
+    }
+    assertEquals(onHeap, filter);
+    assertEquals(onHeap.hashCode(), filter.hashCode());
+    assertEquals(filter, onHeap.offHeap());
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(filter);
+    }
+    @SuppressWarnings("unchecked")
+    final BloomFilter<CharSequence> read = (BloomFilter<CharSequence>)
+      new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertFalse(read.isOffHeap());
+    assertEquals(filter, read);
+    for (int i = 0; i < size; i += 2) {
+      assertTrue(read.contains(String.valueOf(i)));
+    }
+  }
+
+  @Test
+  public void testBinaryFormat() throws Exception {
+    final int size = 10000;
+    final BloomFilter<CharSequence> filter = new BloomFilter<>(size, 0.01, CHARSEQUENCE_HASHER);
+    for (int i = 0; i < size; i += 2) {
+      filter.add(String.valueOf(i));
+    }
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    filter.write(bytes);
+
+    final BloomFilter<CharSequence> read = BloomFilter.read(new ByteArrayInputStream(bytes.toByteArray()), CHARSEQUENCE_HASHER);
+    assertFalse(read.isReadOnly());
+    assertEquals(filter, read);
+    assertEquals(filter.toString(), read.toString());
+    read.add("-1");
+    assertTrue(read.contains("-1"));
+
+    // as if embedded in a larger file
+    final ByteBuffer buffer = ByteBuffer.allocate(bytes.size() + 3);
+    buffer.put(new byte[3]).put(bytes.toByteArray()).position(3);
+    final BloomFilter<CharSequence> wrapped = BloomFilter.wrap(buffer, CHARSEQUENCE_HASHER);
+    assertTrue(wrapped.isReadOnly());
+    assertEquals(filter, wrapped);
+
+    final Path path = Files.createTempFile("yawni", ".bloom");
+    try {
+      try (OutputStream output = Files.newOutputStream(path)) {
+        filter.write(output);
+      }
+      final BloomFilter<CharSequence> mapped = BloomFilter.map(path, CHARSEQUENCE_HASHER);
+      assertTrue(mapped.isReadOnly());
+      assertTrue(mapped.isOffHeap());
+      assertEquals(filter, mapped);
+      assertEquals(filter.size(), mapped.size());
+      assertEquals(filter.capacity(), mapped.capacity());
+      for (int i = 0; i < size; i += 2) {
+        assertTrue(mapped.contains(String.valueOf(i)));
+      }
+      try {
+        mapped.add("-1");
+        fail("read-only");
+      } catch (UnsupportedOperationException uoe) {
+      }
+    } finally {
+      Files.delete(path);
+    }
+
+    final Hasher<CharSequence> otherHasher = new Hasher<CharSequence>() {
+      @Override
+      public int hashCode(Object o) {
+        return o.hashCode();
+      }
+      @Override
+      public String id() {
+        return "other";
+      }
+    };
+    try {
+      BloomFilter.read(new ByteArrayInputStream(bytes.toByteArray()), otherHasher);
+      fail("different hasher");
+    } catch (IOException ioe) {
+    }
+  }
+
   @Test
   public void testRandomNumericStrings() {
     final int size = 100000;
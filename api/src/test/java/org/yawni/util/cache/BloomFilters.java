@@ -20,8 +20,6 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.List;
 import org.yawni.wordnet.WordNetInterface;
 import org.yawni.wordnet.WordNet;
@@ -30,7 +28,7 @@ import org.yawni.wordnet.Word;
 import org.yawni.wordnet.WordNetLexicalComparator;
 
 /**
- * Utility class to generate and serialize {@link BloomFilter}s representing the
+ * Utility class to generate and {@link BloomFilter#write(java.io.OutputStream) write} {@link BloomFilter}s representing the
  * content of a given WordNet version; these filters are typically packaged in the
  * {@code yawni-wordnet-data*} jar artifact.
  */
@@ -72,7 +70,7 @@ class BloomFilters {
       }
       final String fname = pos.name()+".bloom";
       System.err.println(fname+" "+filter);
-      serialize(filter, fname);
+      write(filter, fname);
     }
     for (final POS pos : POS.CATS) {
       int count = 0;
@@ -93,23 +91,21 @@ class BloomFilters {
       }
       final String fname = pos.name()+".exc.bloom";
       System.err.println(fname+" "+filter);
-      serialize(filter, fname);
+      write(filter, fname);
     }
   }
 
-  private static void serialize(final BloomFilter<CharSequence> filter, final String fname) throws Exception {
-      final ObjectOutputStream oos =
-        new ObjectOutputStream(
-          new BufferedOutputStream(
-            new FileOutputStream(fname)));
-      oos.writeObject(filter);
-      oos.close();
-      final ObjectInputStream ois =
-        new ObjectInputStream(
-          new BufferedInputStream(
-            new FileInputStream(fname)));
-      @SuppressWarnings("unchecked")
-      final BloomFilter<CharSequence> resurrected = (BloomFilter<CharSequence>)ois.readObject();
+  private static void write(final BloomFilter<CharSequence> filter, final String fname) throws Exception {
+      final BufferedOutputStream output =
+        new BufferedOutputStream(
+          new FileOutputStream(fname));
+      filter.write(output);
+      output.close();
+      final BufferedInputStream input =
+        new BufferedInputStream(
+          new FileInputStream(fname));
+      final BloomFilter<CharSequence> resurrected = BloomFilter.read(input, WordNetLexicalComparator.TO_LOWERCASE_INSTANCE);
+      input.close();
       assert resurrected.equals(filter);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.*;
+
+public class CachesTest {
+  @Test
+  public void testStats() {
+    for (final CachePolicy policy : CachePolicy.values()) {
+      final Cache<Integer, String> cache = policy.create(100);
+      assertNull(cache.get(1));
+      cache.put(1, "one");
+      final String got = cache.get(1);
+      final CacheStats stats = cache.stats();
+      assertEquals(policy.toString(), 2, stats.requestCount());
+      if (policy == CachePolicy.DISABLED) {
+        assertNull(got);
+        assertEquals(0, stats.hitCount());
+      } else {
+        assertEquals("one", got);
+        assertEquals(policy.toString(), new CacheStats(1, 1, 0), stats);
+      }
+      cache.clear();
+      assertNull(cache.get(1));
+      // clear() doesn't reset statistics
+      assertEquals(policy.toString(), stats.missCount() + 1, cache.stats().missCount());
+    }
+  }
+
+  @Test
+  public void testEvictions() {
+    final int capacity = 10;
+    final int size = 1000;
+    for (final CachePolicy policy : new CachePolicy[] { CachePolicy.LRU, CachePolicy.FIFO, CachePolicy.TINY_LFU }) {
+      final Cache<Integer, Integer> cache = policy.create(capacity);
+      for (int i = 0; i < size; i++) {
+        cache.put(i, i);
+      }
+      assertEquals(policy.toString(), size - capacity, cache.stats().evictionCount());
+    }
+    final Cache<Integer, Integer> unbounded = CachePolicy.UNBOUNDED.create(capacity);
+    for (int i = 0; i < size; i++) {
+      unbounded.put(i, i);
+    }
+    assertEquals(0, unbounded.stats().evictionCount());
+    assertEquals(Integer.valueOf(0), unbounded.get(0));
+  }
+
+  @Test
+  public void testFromSpec() {
+    assertEquals(CachePolicy.TINY_LFU, Caches.policyOf("tiny_lfu:50000"));
+    assertEquals(CachePolicy.TINY_LFU, Caches.policyOf(" Tiny-LFU "));
+    assertEquals(50000, Caches.capacityOf("tiny_lfu:50000", 7));
+    assertEquals(7, Caches.capacityOf("lru", 7));
+    assertThat(Caches.fromSpec("disabled", 7)).isInstanceOf(DisabledCache.class);
+  }
+
+  @Test
+  public void testMalformedSpecs() {
+    for (final String spec : new String[] { "", "mru", "lru:", "lru:many", "lru:-1" }) {
+      try {
+        Caches.fromSpec(spec, 10);
+        fail("expected IllegalArgumentException for \""+spec+"\"");
+      } catch (IllegalArgumentException iae) {
+        // expected
+      }
+    }
+  }
+}
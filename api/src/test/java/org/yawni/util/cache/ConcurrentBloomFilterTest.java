@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentBloomFilterTest {
+  @Test
+  public void testConcurrentAdds() throws Exception {
+    final int numThreads = 8;
+    final int perThread = 50000;
+    final ConcurrentBloomFilter<Integer> filter = new ConcurrentBloomFilter<>(numThreads * perThread, 0.01f);
+    assertFalse(filter.contains(3));
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger falseNegatives = new AtomicInteger();
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      final int first = t * perThread;
+      final Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException ie) {
+          throw new RuntimeException(ie);
+        }
+        for (int i = first; i < first + perThread; i++) {
+          filter.add(i);
+          // visible to this thread as soon as add returns, despite concurrent adds to the same words
+          if (! filter.contains(i)) {
+            falseNegatives.incrementAndGet();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, falseNegatives.get());
+    for (int i = 0; i < numThreads * perThread; i++) {
+      assertTrue(filter.contains(i));
+    }
+    // adds whose bits were all set by others don't count
+    assertTrue(filter.toString(), filter.size() <= numThreads * perThread);
+    assertTrue(filter.toString(), filter.size() > 0.95 * numThreads * perThread);
+
+    int falsePositives = 0;
+    final int n = 100000;
+    for (int i = -n; i < 0; i++) {
+      if (filter.contains(i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("falsePositives: "+falsePositives, falsePositives < 2 * 0.01 * n);
+
+    filter.clear();
+    assertEquals(0, filter.size());
+    assertFalse(filter.contains(3));
+  }
+}
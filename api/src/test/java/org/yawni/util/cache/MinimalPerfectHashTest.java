@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MinimalPerfectHashTest {
+  @Test
+  public void testBijection() throws Exception {
+    final Random random = new Random(0);
+    for (final int size : new int[] { 0, 1, 2, 3, 17, 1000, 100000 }) {
+      final long[] keys = new long[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = random.nextLong();
+      }
+      final MinimalPerfectHash hash = MinimalPerfectHash.build(keys);
+      assertEquals(size, hash.size());
+      final boolean[] seen = new boolean[size];
+      for (final long key : keys) {
+        final int slot = hash.indexOf(key);
+        assertFalse("slot "+slot+" taken twice", seen[slot]);
+        seen[slot] = true;
+      }
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      hash.write(new DataOutputStream(bytes));
+      final MinimalPerfectHash read = MinimalPerfectHash.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+      for (final long key : keys) {
+        assertEquals(hash.indexOf(key), read.indexOf(key));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicates() {
+    MinimalPerfectHash.build(new long[] { 1, 2, 1 });
+  }
+}
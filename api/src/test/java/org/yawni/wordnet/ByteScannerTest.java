@@ -0,0 +1,69 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ByteScannerTest {
+  @Test
+  public void testSWARAgreesWithScalar() {
+    final Random random = new Random(0);
+    // bytes near the delimiters (and with the high bit set) stress the SWAR bit tricks
+    final byte[] alphabet = { '\n', '\r', ' ', 'a', 0, 1, (byte) 0x8a, (byte) 0xa0, (byte) 0x8d, 0x7f, (byte) 0xff };
+    for (final ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+      for (int trial = 0; trial < 2000; trial++) {
+        final byte[] bytes = new byte[random.nextInt(40)];
+        for (int i = 0; i < bytes.length; i++) {
+          // mostly filler so matches are sparse
+          bytes[i] = random.nextInt(4) == 0 ? alphabet[random.nextInt(alphabet.length)] : (byte) 'x';
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+        for (int from = 0; from <= bytes.length; from++) {
+          for (final int to : new int[] { from, (from + bytes.length) / 2, bytes.length }) {
+            assertEquals(ByteScanner.SCALAR.indexOfLineBreak(buffer, from, to),
+              ByteScanner.SWAR.indexOfLineBreak(buffer, from, to));
+            for (final byte target : alphabet) {
+              assertEquals(ByteScanner.SCALAR.indexOf(buffer, from, to, target),
+                ByteScanner.SWAR.indexOf(buffer, from, to, target));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFromSystemProperty() {
+    final String previous = System.getProperty(ByteScanner.PROPERTY);
+    try {
+      System.clearProperty(ByteScanner.PROPERTY);
+      assertSame(ByteScanner.SWAR, ByteScanner.fromSystemProperty());
+      System.setProperty(ByteScanner.PROPERTY, "scalar");
+      assertSame(ByteScanner.SCALAR, ByteScanner.fromSystemProperty());
+    } finally {
+      if (previous == null) {
+        System.clearProperty(ByteScanner.PROPERTY);
+      } else {
+        System.setProperty(ByteScanner.PROPERTY, previous);
+      }
+    }
+  }
+}
@@ -20,8 +20,16 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
@@ -81,6 +89,86 @@ public class FileManagerTest {
     assertEquals(query(query), -145, fm.getIndexedLinePointer(query, 0, path, false));
   }
 
+  @Test
+  public void testLineIndexSearches() throws IOException {
+    final FileManagerInterface fm = new FileManager(true);
+    String path = "src/test/resources/testFile";
+    assertEquals(4, fm.getIndexedLinePointer("3", 0, path, false));
+    assertEquals(4, fm.getIndexedLinePointer("3", 4, path, false));
+    assertEquals(0, fm.getIndexedLinePointer("1", 0, path, false));
+    assertEquals(8, fm.getIndexedLinePointer("4", 0, path, false));
+    assertEquals(-5, fm.getIndexedLinePointer("2", 0, path, false));
+    assertEquals(-21, fm.getIndexedLinePointer("7", 0, path, false));
+    path = "src/test/resources/harderTestFile";
+    assertEquals(27, fm.getIndexedLinePointer("3", 0, path, false));
+    assertEquals(0, fm.getIndexedLinePointer("1", 0, path, false));
+    assertEquals(81, fm.getIndexedLinePointer("4", 0, path, false));
+    assertEquals(-28, fm.getIndexedLinePointer("2", 0, path, false));
+    assertEquals(-145, fm.getIndexedLinePointer("7", 0, path, false));
+    assertEquals(144, fm.getIndexedLinePointer("88", 0, path, false));
+    assertEquals(-145, fm.getIndexedLinePointer("8", 0, path, false));
+  }
+
+  @Test
+  public void testLineIndexSidecar() throws IOException {
+    final FileManager fm = new FileManager();
+    final FileManager.CharStream stream = fm.getFileStream("src/test/resources/harderTestFile", false);
+    final LineIndex lines = LineIndex.build(stream);
+    assertEquals(6, lines.size());
+    assertEquals(27, lines.lineStart(1));
+    assertEquals(stream.length(), lines.lineStart(lines.size()));
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    lines.write(bytes);
+    final LineIndex read = LineIndex.read(new ByteArrayInputStream(bytes.toByteArray()), stream.length());
+    assertEquals(lines.size(), read.size());
+    for (int i = 0; i <= lines.size(); i++) {
+      assertEquals(lines.lineStart(i), read.lineStart(i));
+    }
+    // sidecar of some other version of the file is rejected
+    assertNull(LineIndex.read(new ByteArrayInputStream(bytes.toByteArray()), stream.length() + 1));
+  }
+
+  /**
+   * Lemma index answers agree with binary search for every lemma in {@code index.verb}
+   * and some non-lemmas.
+   */
+  @Test
+  public void testLemmaIndex() throws IOException {
+    final FileManager fm = new FileManager(false, true);
+    final String fileName = "index.verb";
+    assertTrue(fm.hasExactIndex(fileName));
+    final FileManager.CharStream stream = fm.getFileStream(fileName);
+    int offset = 0;
+    while (offset < stream.length()) {
+      final CharSequence view = stream.lineWordAt(offset, stream.lineEnd(offset));
+      if (view != null && view.length() != 0) {
+        final String word = view.toString();
+        assertEquals(word, fm.getIndexedLinePointer(view, fileName), fm.getExactLinePointer(view, fileName));
+        assertEquals(word, offset, fm.getExactLinePointer(word.toUpperCase(), fileName));
+        assertEquals(word, -1, fm.getExactLinePointer(word + "zzq", fileName));
+      }
+      offset = stream.nextLineOffset(offset);
+    }
+    assertEquals(-1, fm.getExactLinePointer("", fileName));
+    assertFalse(new FileManager(false, false).hasExactIndex(fileName));
+    // no LemmaIndex without the file
+    assertFalse(fm.hasExactIndex("index.nonexistent"));
+  }
+
+  @Test
+  public void testReadLineViewAt() throws IOException {
+    final FileManagerInterface fm = new FileManager();
+    final String path = "src/test/resources/harderTestFile";
+    // load the stream
+    fm.getIndexedLinePointer("3", 0, path, false);
+    final CharSequence view = fm.readLineViewAt(27, path);
+    final String line = fm.readLineAt(27, path);
+    assertEquals(line, view.toString());
+    assertEquals(line.hashCode(), view.hashCode());
+    assertEquals(line.substring(2, 7), view.subSequence(2, 7).toString());
+    assertEquals(81, fm.getNextLinePointer(27, path));
+  }
+
   @Test
   public void testSearchesWithDups() throws IOException {
     final FileManagerInterface fm = new FileManager();
@@ -116,6 +204,41 @@ public class FileManagerTest {
     }
   }
 
+  /**
+   * Searches and line reads share a stream without locking; hammer one from
+   * several threads and verify each gets the single-threaded answers.
+   */
+  @Test
+  public void testConcurrentSearches() throws Exception {
+    final FileManagerInterface fm = new FileManager();
+    final String path = "src/test/resources/harderTestFile";
+    final String[] queries = { "3", "1", "4", "2", "7", "88", "8" };
+    final int[] expected = { 27, 0, 81, -28, -145, 144, -145 };
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            for (int i = 0; i < 2000; i++) {
+              final int q = i % queries.length;
+              assertEquals(query(queries[q]), expected[q], fm.getIndexedLinePointer(queries[q], 0, path, false));
+              final String line = fm.readLineAt(27, path);
+              assertTrue(line, line.startsWith("3 "));
+            }
+            return null;
+          }
+        }));
+      }
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   private static String query(final String query) {
     return String.format("query: \"%s\"", query);
   }
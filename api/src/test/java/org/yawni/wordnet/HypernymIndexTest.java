@@ -0,0 +1,265 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class HypernymIndexTest {
+  private static WordNet WN;
+
+  @BeforeClass
+  public static void init() {
+    WN = WordNet.getInstance();
+  }
+
+  private static List<Synset> hypernyms(final Synset synset) {
+    return Stream.concat(
+        synset.getSemanticRelationTargets(RelationType.HYPERNYM),
+        synset.getSemanticRelationTargets(RelationType.INSTANCE_HYPERNYM))
+      .collect(Collectors.toList());
+  }
+
+  private static void addAncestors(final Synset synset, final Set<Synset> ancestors) {
+    for (final Synset hypernym : hypernyms(synset)) {
+      if (ancestors.add(hypernym)) {
+        addAncestors(hypernym, ancestors);
+      }
+    }
+  }
+
+  /**
+   * The index must agree with a recursive traversal of the hypernym {@code Relation}s of every {@code Synset}.
+   */
+  @Test
+  public void testClosure() {
+    System.err.println("testClosure");
+    final Set<Synset> roots = new HashSet<>();
+    for (final POS pos : POS.CATS) {
+      roots.addAll(WN.roots(pos));
+    }
+    int count = 0;
+    for (final Synset synset : WN.synsets(POS.ALL)) {
+      final Set<Synset> expected = new TreeSet<>();
+      addAncestors(synset, expected);
+      // only on a cycle
+      final boolean cyclic = expected.remove(synset);
+      final List<Synset> actual = WN.ancestors(synset);
+      assertThat(new TreeSet<>(actual)).isEqualTo(expected);
+      assertThat(WN.isA(synset, synset)).isTrue();
+      for (final Synset ancestor : actual) {
+        assertThat(WN.isA(synset, ancestor)).isTrue();
+      }
+      final List<Synset> hypernyms = hypernyms(synset);
+      checkSubsumers(synset, actual, hypernyms);
+      final int depth = WN.depth(synset);
+      if (hypernyms.isEmpty()) {
+        assertThat(depth).isEqualTo(0);
+      } else if (depth != 0) { // 0 only on a cycle
+        final int minParentDepth = hypernyms.stream().mapToInt(WN::depth).min().getAsInt();
+        assertThat(depth).isEqualTo(minParentDepth + 1);
+      }
+      final int maxDepth = WN.maxDepth(synset);
+      assertThat(maxDepth).isGreaterThanOrEqualTo(depth);
+      assertThat(maxDepth).isLessThanOrEqualTo(WN.maxDepth(synset.getPOS()));
+      if (hypernyms.isEmpty()) {
+        assertThat(maxDepth).isEqualTo(0);
+      } else if (! cyclic) {
+        final int maxParentDepth = hypernyms.stream().mapToInt(WN::maxDepth).max().getAsInt();
+        assertThat(maxDepth).isEqualTo(maxParentDepth + 1);
+      }
+      assertThat(roots.contains(synset)).isEqualTo(hypernyms.isEmpty());
+      count++;
+    }
+    System.err.printf("checked %,d synsets.\n", count);
+  }
+
+  /**
+   * {@link WordNet#forEachSubsumer(Synset, WordNet.SubsumerConsumer)} is {@code synset} and its {@code ancestors}.
+   */
+  private static void checkSubsumers(final Synset synset, final List<Synset> ancestors, final List<Synset> hypernyms) {
+    final Set<Synset> expected = new TreeSet<>(ancestors);
+    expected.add(synset);
+    final List<Synset> subsumers = new ArrayList<>();
+    WN.forEachSubsumer(synset, (offset, length, maxDepth) -> {
+      final Synset subsumer = WN.getSynsetAt(synset.getPOS(), offset).get();
+      subsumers.add(subsumer);
+      assertThat(maxDepth).isEqualTo(WN.maxDepth(subsumer));
+      if (subsumer.equals(synset)) {
+        assertThat(length).isEqualTo(0);
+      } else if (hypernyms.contains(subsumer)) {
+        assertThat(length).isEqualTo(1);
+      } else {
+        assertThat(length).isGreaterThan(1);
+      }
+    });
+    assertThat(subsumers).isEqualTo(new ArrayList<>(expected));
+  }
+
+  @Test
+  public void testIsA() {
+    final Synset dog = WN.lookupWord("dog", POS.NOUN).getSense(1).getSynset();
+    final Synset animal = WN.lookupWord("animal", POS.NOUN).getSense(1).getSynset();
+    final Synset entity = WN.lookupWord("entity", POS.NOUN).getSense(1).getSynset();
+    final Synset walk = WN.lookupWord("walk", POS.VERB).getSense(1).getSynset();
+    final Synset travel = WN.lookupWord("travel", POS.VERB).getSense(1).getSynset();
+    assertThat(WN.isA(dog, animal)).isTrue();
+    assertThat(WN.isA(dog, entity)).isTrue();
+    assertThat(WN.isA(animal, dog)).isFalse();
+    assertThat(WN.isA(walk, travel)).isTrue();
+    assertThat(WN.isA(walk, animal)).isFalse();
+    assertThat(WN.ancestors(entity)).isEmpty();
+    assertThat(WN.ancestors(dog)).contains(animal, entity);
+    assertThat(WN.depth(entity)).isEqualTo(0);
+    assertThat(WN.depth(animal)).isLessThan(WN.depth(dog));
+    assertThat(WN.depth(travel)).isEqualTo(0);
+    assertThat(WN.depth(walk)).isEqualTo(1);
+    assertThat(WN.roots(POS.NOUN)).containsOnly(entity);
+    assertThat(WN.maxDepth(entity)).isEqualTo(0);
+    assertThat(WN.maxDepth(dog)).isGreaterThanOrEqualTo(WN.depth(dog));
+    assertThat(WN.maxDepth(POS.NOUN)).isGreaterThan(WN.maxDepth(dog));
+  }
+
+  /**
+   * {@link WordNet#distance} must agree with a breadth first search of the {@code Relation}s, and
+   * {@link WordNet#leastCommonSubsumer} with the deepest (by {@link WordNet#maxDepth(Synset)}) of the common
+   * ancestors.
+   */
+  @Test
+  public void testDistanceAndLeastCommonSubsumer() {
+    final List<Synset> verbs = new ArrayList<>();
+    WN.synsets(POS.VERB).forEach(verbs::add);
+    final Random random = new Random(0);
+    for (int i = 0; i < 200; i++) {
+      final Synset synset1 = verbs.get(random.nextInt(verbs.size()));
+      // half nearby, half random
+      final List<Synset> neighbors = neighbors(synset1);
+      final Synset synset2 = i % 2 == 0 && ! neighbors.isEmpty() ?
+        neighbors(neighbors.get(0)).get(0) : verbs.get(random.nextInt(verbs.size()));
+      assertThat(WN.distance(synset1, synset2)).isEqualTo(distance(synset1, synset2));
+      final Set<Synset> common = new HashSet<>(WN.ancestors(synset1));
+      common.add(synset1);
+      final Set<Synset> ancestors2 = new HashSet<>(WN.ancestors(synset2));
+      ancestors2.add(synset2);
+      common.retainAll(ancestors2);
+      final Optional<Synset> lcs = WN.leastCommonSubsumer(synset1, synset2);
+      assertThat(lcs.isPresent()).isEqualTo(! common.isEmpty());
+      if (lcs.isPresent()) {
+        assertThat(common.contains(lcs.get())).isTrue();
+        assertThat(WN.maxDepth(lcs.get())).isEqualTo(common.stream().mapToInt(WN::maxDepth).max().getAsInt());
+      }
+    }
+    final Synset dog = WN.lookupWord("dog", POS.NOUN).getSense(1).getSynset();
+    final Synset cat = WN.lookupWord("cat", POS.NOUN).getSense(1).getSynset();
+    final Synset carnivore = WN.lookupWord("carnivore", POS.NOUN).getSense(1).getSynset();
+    assertThat(WN.leastCommonSubsumer(dog, cat)).isEqualTo(Optional.of(carnivore));
+    assertThat(WN.leastCommonSubsumer(dog, carnivore)).isEqualTo(Optional.of(carnivore));
+    assertThat(WN.leastCommonSubsumer(dog, dog)).isEqualTo(Optional.of(dog));
+    assertThat(WN.distance(dog, dog)).isEqualTo(0);
+    assertThat(WN.distance(dog, cat)).isEqualTo(distance(dog, cat));
+    final Synset walk = WN.lookupWord("walk", POS.VERB).getSense(1).getSynset();
+    assertThat(WN.distance(dog, walk)).isEqualTo(-1);
+    assertThat(WN.leastCommonSubsumer(dog, walk).isPresent()).isFalse();
+  }
+
+  @Test
+  public void testForeignSynset() {
+    final Synset walk = WN.lookupWord("walk", POS.VERB).getSense(1).getSynset();
+    final Synset foreign = foreignSynset(walk);
+    assertThat(WN.isA(foreign, walk)).isFalse();
+    assertThat(WN.isA(walk, foreign)).isFalse();
+    assertThat(WN.distance(foreign, walk)).isEqualTo(-1);
+    assertThat(WN.leastCommonSubsumer(walk, foreign).isPresent()).isFalse();
+  }
+
+  @Test(expected=IllegalArgumentException.class)
+  public void testForeignSynsetDepth() {
+    WN.depth(foreignSynset(WN.lookupWord("walk", POS.VERB).getSense(1).getSynset()));
+  }
+
+  /** @return a copy of {@code synset} at an offset which isn't in {@code WN}, as if from another version */
+  private static Synset foreignSynset(final Synset synset) {
+    final String line = WN.getSynsetLineAt(synset.getPOS(), synset.getOffset());
+    return new Synset(String.format("%08d", synset.getOffset() + 1) + line.substring(8), WN);
+  }
+
+  private static List<Synset> neighbors(final Synset synset) {
+    return Stream.of(RelationType.HYPERNYM, RelationType.INSTANCE_HYPERNYM, RelationType.HYPONYM, RelationType.INSTANCE_HYPONYM)
+      .flatMap(synset::getSemanticRelationTargets)
+      .collect(Collectors.toList());
+  }
+
+  private static int distance(final Synset from, final Synset to) {
+    final Map<Synset, Integer> distances = new HashMap<>();
+    final Deque<Synset> queue = new ArrayDeque<>();
+    distances.put(from, 0);
+    queue.add(from);
+    while (! queue.isEmpty()) {
+      final Synset synset = queue.remove();
+      if (synset.equals(to)) {
+        return distances.get(synset);
+      }
+      for (final Synset neighbor : neighbors(synset)) {
+        if (! distances.containsKey(neighbor)) {
+          distances.put(neighbor, distances.get(synset) + 1);
+          queue.add(neighbor);
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  public void testSidecar() throws IOException {
+    final FileManager fileManager = new FileManager();
+    for (final POS pos : POS.CATS) {
+      final HypernymIndex expected = WN.loadHypernymIndex(pos);
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      expected.write(bytes);
+      final int dataLength = fileManager.getFileLength(WordNet.getDataFilename(pos));
+      final HypernymIndex actual = HypernymIndex.read(new ByteArrayInputStream(bytes.toByteArray()), dataLength);
+      assertThat(actual.size()).isEqualTo(expected.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertThat(actual.offset(i)).isEqualTo(expected.offset(i));
+        assertThat(actual.depth(i)).isEqualTo(expected.depth(i));
+        assertThat(actual.maxDepth(i)).isEqualTo(expected.maxDepth(i));
+        assertThat(actual.ancestorEnd(i)).isEqualTo(expected.ancestorEnd(i));
+      }
+      assertThat(actual.rootCount()).isEqualTo(expected.rootCount());
+      assertThat(actual.maxDepth()).isEqualTo(expected.maxDepth());
+      assertThat(HypernymIndex.read(new ByteArrayInputStream(bytes.toByteArray()), dataLength + 1)).isNull();
+    }
+  }
+}
@@ -17,6 +17,8 @@
 package org.yawni.wordnet;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import org.hamcrest.MatcherAssert;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -492,6 +494,26 @@ public class IterationTest {
     // and verify their equivalence
   }
 
+  @Test
+  public void parallelStreams() {
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    logTest("parallelStreams");
+    for (final POS pos : POS.CATS) {
+      assertEquals(ImmutableList.copyOf(WN.synsets(pos)),
+          WN.synsetStream(pos).parallel().collect(toImmutableList()));
+      assertEquals(ImmutableList.copyOf(WN.words(pos)),
+          WN.wordStream(pos).parallel().collect(toImmutableList()));
+      assertEquals(size(WN.wordSenses(pos)), WN.wordSenseStream(pos).parallel().count());
+      assertEquals(size(WN.relations(RelationType.HYPERNYM, pos)),
+          WN.relationStream(RelationType.HYPERNYM, pos).parallel().count());
+    }
+    assertEquals(ImmutableList.copyOf(WN.synsets(POS.ALL)),
+        WN.synsetStream(POS.ALL).parallel().collect(toImmutableList()));
+    assertEquals(size(WN.words(POS.ALL)), WN.wordStream(POS.ALL).parallel().count());
+    stopwatch.stop();
+    System.err.println("  "+stopwatch);
+  }
+
   //@Ignore
   @Test
   public void words() {
@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import org.yawni.wordnet.FileManager.CharStream;
+
+/**
+ * Utility class to generate {@link LineIndex} sidecars ({@code <fileName>.lines})
+ * for the sorted files of a given WordNet version, and {@link LemmaIndex} sidecars
+ * ({@code <fileName>.mph}) and {@link MorphIndex} sidecars ({@code <fileName>.morph}) for its
+ * {@code index.<em>pos</em>} files; these sidecars are typically
+ * packaged next to the files they index in the {@code yawni-wordnet-data*} jar artifact.
+ * The optional argument is the output directory (default: current directory).
+ */
+// easy command to run this for a particular $WNHOME, writing directly into a data module
+// mvn -P useWNHOMEDataForTest -DWNHOME=/Users/nezda/code/c/wordnets/WordNet-3.0 exec:java -Dexec.mainClass="org.yawni.wordnet.LineIndexes" -Dexec.classpathScope="test" -Dexec.args="../data30/src/main/resources/dict"
+class LineIndexes {
+  public static void main(String[] args) throws Exception {
+    final File outputDir = new File(args.length > 0 ? args[0] : ".");
+    final FileManager fileManager = new FileManager();
+    for (final POS pos : POS.CATS) {
+      final String name = pos.name().toLowerCase();
+      write(fileManager, "index." + name, true, outputDir);
+      write(fileManager, name + ".exc", false, outputDir);
+    }
+    final WordNet wordNet = WordNet.builder().morphIndex(false).build();
+    for (final POS pos : POS.CATS) {
+      final MorphIndex morphIndex = wordNet.morphy.compileIndex(pos);
+      final File file = new File(outputDir, WordNet.getIndexFileName(pos) + MorphIndex.SUFFIX);
+      try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+        morphIndex.write(output);
+      }
+      System.err.println(file+" base forms: "+morphIndex.size());
+    }
+  }
+
+  private static void write(final FileManager fileManager, final String fileName, final boolean lemmas,
+      final File outputDir) throws Exception {
+    final CharStream stream = fileManager.getFileStream(fileName);
+    if (stream == null) {
+      System.err.println("skipping missing "+fileName);
+      return;
+    }
+    final LineIndex lines = LineIndex.build(stream);
+    File file = new File(outputDir, fileName + LineIndex.SUFFIX);
+    try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+      lines.write(output);
+    }
+    System.err.println(file+" lines: "+lines.size());
+    if (lemmas) {
+      final LemmaIndex lemmaIndex = LemmaIndex.build(stream, lines);
+      file = new File(outputDir, fileName + LemmaIndex.SUFFIX);
+      try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+        lemmaIndex.write(output);
+      }
+      System.err.println(file+" lemmas: "+lemmaIndex.size());
+    }
+  }
+}
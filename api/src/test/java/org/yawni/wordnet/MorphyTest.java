@@ -19,9 +19,13 @@ package org.yawni.wordnet;
 import org.junit.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.*;
 
 import static org.fest.assertions.Assertions.assertThat;
+import org.yawni.util.cache.CachePolicy;
+import org.yawni.util.cache.CacheStats;
 import org.yawni.wordnet.WordNetInterface.WordNetVersion;
 
 /**
@@ -440,6 +444,77 @@ public class MorphyTest {
     return items.size() == new HashSet<>(items).size();
   }
 
+  @Test
+  public void testCacheConfiguration() {
+    final WordNet uncached = WordNet.builder()
+      .cache(WordNet.CacheName.MORPHY, CachePolicy.DISABLED, 0)
+      .cache(WordNet.CacheName.INDEX_WORD, CachePolicy.TINY_LFU, 100)
+      .build();
+    for (int i = 0; i < 3; i++) {
+      assertThat(uncached.lookupBaseForms("wounds", POS.NOUN)).contains("wound");
+    }
+    final Map<WordNet.CacheName, CacheStats> stats = uncached.getCacheStats();
+    assertThat(stats.keySet()).containsOnly((Object[]) WordNet.CacheName.values());
+    final CacheStats morphyStats = stats.get(WordNet.CacheName.MORPHY);
+    assertEquals(3, morphyStats.missCount());
+    assertEquals(0, morphyStats.hitCount());
+    assertTrue(stats.get(WordNet.CacheName.INDEX_WORD).hitCount() > 0);
+  }
+
+  @Test
+  public void testMorphIndex() throws Exception {
+    final WordNet indexed = WordNet.builder().morphIndex(true).build();
+    final List<String> strs = Arrays.asList("geese", "wounds", "boxesful", "ran", "saw", "Saw", "running", "ate",
+      "biggest", "better", "best", "fled", "dies", "xyzzy", "", "  Dogs ", "ran off", "hurried-up", "mice");
+    for (final String str : strs) {
+      for (final POS pos : POS.CATS) {
+        assertEquals(str+" "+pos, WN.lookupBaseForms(str, pos), indexed.lookupBaseForms(str, pos));
+      }
+    }
+    // round trip the sidecar format
+    final MorphIndex morphIndex = indexed.morphy.compileIndex(POS.VERB);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    morphIndex.write(bytes);
+    final FileManager fileManager = new FileManager();
+    final MorphIndex read = MorphIndex.read(new ByteArrayInputStream(bytes.toByteArray()),
+      fileManager.getFileLength("index.verb"), fileManager.getFileLength("verb.exc"));
+    assertEquals(morphIndex.size(), read.size());
+    assertThat(read.lookup("ran")).containsOnly("run", "ran");
+    // base form lists are interned
+    assertThat(read.lookup("ran")).isSameAs(read.lookup("ran"));
+    assertThat(read.lookup("runs")).containsOnly("run");
+    assertThat(read.lookup("xyzzy")).isEmpty();
+    assertNull(MorphIndex.read(new ByteArrayInputStream(bytes.toByteArray()), 0, 0));
+  }
+
+  @Test
+  public void testMissingWordCache() {
+    final WordNet wordNet = WordNet.builder().metrics(true).build();
+    final WordNetMetrics metrics = wordNet.getMetrics();
+    // find a missing word which gets past the Bloom filter
+    String missing = null;
+    for (int i = 0; missing == null; i++) {
+      assertTrue("no Bloom filter false positive", i < 100000);
+      assertNull(wordNet.lookupWord("qzx" + i, POS.NOUN));
+      if (metrics.getBloomFilterFalsePositives() > 0) {
+        missing = "qzx" + i;
+      }
+    }
+    final CacheStats first = wordNet.getCacheStats().get(WordNet.CacheName.MISSING_WORD);
+    assertEquals(1, first.missCount());
+    assertEquals(0, first.hitCount());
+    // it's searched for only once
+    final long bytesScanned = metrics.getBytesScanned();
+    assertNull(wordNet.lookupWord(missing, POS.NOUN));
+    final CacheStats second = wordNet.getCacheStats().get(WordNet.CacheName.MISSING_WORD);
+    assertEquals(1, second.missCount());
+    assertEquals(1, second.hitCount());
+    assertEquals(1, metrics.getBloomFilterFalsePositives());
+    assertEquals(bytesScanned, metrics.getBytesScanned());
+    assertThat(wordNet.lookupBaseForms("qzxes", POS.NOUN)).isEmpty();
+    assertThat(wordNet.lookupBaseForms("wounds", POS.NOUN)).contains("wound");
+  }
+
   //TODO consider moving to Utils
   private static boolean containsIgnoreCase(final String needle, final Iterable<String> haystack) {
     for (final String item : haystack) {
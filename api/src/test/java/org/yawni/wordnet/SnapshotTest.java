@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yawni.wordnet.FileManager.CharStream;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SnapshotTest {
+  private static WordNet WN;
+  private static Path DIR;
+  private static Path SNAPSHOT;
+
+  /**
+   * Compiles a snapshot of the WordNet files Yawni finds by default (typically in the data jar).
+   */
+  @BeforeClass
+  public static void init() throws IOException {
+    WN = WordNet.builder().snapshot(null).build();
+    DIR = Files.createTempDirectory("yawni-snapshot");
+    final File dict = new File(DIR.toFile(), "dict");
+    assertThat(dict.mkdir()).isTrue();
+    final List<String> fileNames = new ArrayList<>();
+    for (final POS pos : POS.CATS) {
+      final String name = pos.name().toLowerCase();
+      fileNames.add("index." + name);
+      fileNames.add("data." + name);
+      fileNames.add(name + ".exc");
+    }
+    for (final WordNet.PlainTextResource resource : WordNet.PlainTextResource.values()) {
+      fileNames.add(resource.getFileName());
+    }
+    final FileManager fileManager = new FileManager();
+    for (final String fileName : fileNames) {
+      final CharStream stream = fileManager.getFileStream(fileName);
+      if (stream != null) {
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(new File(dict, fileName)))) {
+          for (int i = 0, n = stream.length(); i < n; i++) {
+            output.write(stream.charAt(i));
+          }
+        }
+      }
+    }
+    SNAPSHOT = DIR.resolve("wordnet.snapshot");
+    Snapshot.compile(dict, SNAPSHOT.toFile());
+  }
+
+  @AfterClass
+  public static void cleanUp() throws IOException {
+    for (final File file : new File(DIR.toFile(), "dict").listFiles()) {
+      Files.delete(file.toPath());
+    }
+    Files.delete(DIR.resolve("dict"));
+    Files.delete(SNAPSHOT);
+    Files.delete(DIR);
+  }
+
+  @Test
+  public void testSections() throws IOException {
+    final Snapshot snapshot = Snapshot.open(SNAPSHOT);
+    assertThat(snapshot.section("index.noun").capacity()).isEqualTo(new FileManager().getFileStream("index.noun").length());
+    assertThat(snapshot.section("index.noun" + LineIndex.SUFFIX)).isNotNull();
+    assertThat(snapshot.section("index.noun" + LemmaIndex.SUFFIX)).isNotNull();
+    assertThat(snapshot.section("noun.exc" + LineIndex.SUFFIX)).isNotNull();
+    assertThat(snapshot.section("data.noun" + SynsetStore.SUFFIX)).isNotNull();
+    assertThat(snapshot.section("no.such.section")).isNull();
+  }
+
+  @Test
+  public void testNotASnapshot() throws IOException {
+    final Path notASnapshot = DIR.resolve("dict").resolve("index.noun");
+    try {
+      Snapshot.open(notASnapshot);
+      fail("expected IOException");
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test
+  public void testLookups() {
+    final WordNet snapshot = WordNet.builder().snapshot(SNAPSHOT).inMemory(false).build();
+    for (final String lemma : new String[] { "dog", "sentence", "runs", "geese", "wrote", "prettier", "nonexistentword" }) {
+      for (final POS pos : POS.CATS) {
+        assertThat(snapshot.lookupBaseForms(lemma, pos)).isEqualTo(WN.lookupBaseForms(lemma, pos));
+        final Word expected = WN.lookupWord(lemma, pos);
+        final Word actual = snapshot.lookupWord(lemma, pos);
+        assertEquals(expected, actual);
+        if (expected != null) {
+          assertThat(actual.getSynsets()).isEqualTo(expected.getSynsets());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInMemorySynsets() {
+    final WordNet snapshot = WordNet.builder().snapshot(SNAPSHOT).inMemory(true).build();
+    final Iterator<Synset> actual = snapshot.synsets(POS.ALL).iterator();
+    for (final Synset expected : WN.synsets(POS.ALL)) {
+      assertThat(actual.hasNext()).isTrue();
+      final Synset synset = actual.next();
+      assertEquals(expected, synset);
+      assertThat(synset.getWordSenses()).isEqualTo(expected.getWordSenses());
+      assertThat(synset.getRelations()).isEqualTo(expected.getRelations());
+    }
+    assertThat(actual.hasNext()).isFalse();
+    final Synset dog = WN.lookupWord("dog", POS.NOUN).getSense(1).getSynset();
+    assertThat(snapshot.getSynsetAt(POS.NOUN, dog.getOffset()).get().getGloss()).isEqualTo(dog.getGloss());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+public class SynsetStoreTest {
+  private static WordNet WN;
+  private static WordNet IN_MEMORY;
+
+  @BeforeClass
+  public static void init() {
+    WN = WordNet.builder().inMemory(false).build();
+    IN_MEMORY = WordNet.builder().inMemory(true).build();
+  }
+
+  /**
+   * Every materialized {@code Synset} must be indistinguishable from the parsed one.
+   */
+  @Test
+  public void testEquivalence() {
+    System.err.println("testEquivalence");
+    int count = 0;
+    final Iterator<Synset> inMemory = IN_MEMORY.synsets(POS.ALL).iterator();
+    for (final Synset expected : WN.synsets(POS.ALL)) {
+      assertThat(inMemory.hasNext()).isTrue();
+      final Synset actual = inMemory.next();
+      assertEquals(expected, actual);
+      assertThat(actual.toString()).isEqualTo(expected.toString());
+      assertThat(actual.isAdjectiveCluster()).isEqualTo(expected.isAdjectiveCluster());
+      final List<WordSense> expectedSenses = expected.getWordSenses();
+      final List<WordSense> actualSenses = actual.getWordSenses();
+      assertThat(actualSenses).isEqualTo(expectedSenses);
+      for (int i = 0; i < expectedSenses.size(); i++) {
+        assertThat(actualSenses.get(i).getLemma()).isEqualTo(expectedSenses.get(i).getLemma());
+        assertThat(actualSenses.get(i).getSenseKey().toString()).isEqualTo(expectedSenses.get(i).getSenseKey().toString());
+        assertThat(actualSenses.get(i).getAdjPositionFlags()).isEqualTo(expectedSenses.get(i).getAdjPositionFlags());
+        assertThat(actualSenses.get(i).getVerbFrameFlags()).isEqualTo(expectedSenses.get(i).getVerbFrameFlags());
+      }
+      final List<Relation> expectedRelations = expected.getRelations();
+      final List<Relation> actualRelations = actual.getRelations();
+      assertThat(actualRelations).isEqualTo(expectedRelations);
+      for (int i = 0; i < expectedRelations.size(); i++) {
+        final Relation expectedRelation = expectedRelations.get(i);
+        final Relation actualRelation = actualRelations.get(i);
+        assertThat(actualRelation.getClass()).isEqualTo(expectedRelation.getClass());
+        assertThat(actualRelation.getTargetPOS()).isEqualTo(expectedRelation.getTargetPOS());
+        assertThat(actualRelation.getTargetOffset()).isEqualTo(expectedRelation.getTargetOffset());
+        assertThat(actualRelation.getTargetIndex()).isEqualTo(expectedRelation.getTargetIndex());
+      }
+      count++;
+    }
+    assertThat(inMemory.hasNext()).isFalse();
+    System.err.printf("compared %,d synsets.\n", count);
+  }
+
+  @Test
+  public void testGetSynsetAt() {
+    final Synset expected = WN.lookupWord("sentence", POS.NOUN).getSense(1).getSynset();
+    final Optional<Synset> actual = IN_MEMORY.getSynsetAt(POS.NOUN, expected.getOffset());
+    assertThat(actual).isEqualTo(Optional.of(expected));
+    assertThat(actual.get().getGloss()).isEqualTo(expected.getGloss());
+    // materialized on each use, not retained
+    assertThat(IN_MEMORY.getSynsetAt(POS.NOUN, expected.getOffset()).get()).isEqualTo(actual.get());
+    assertThat(IN_MEMORY.synsetStream(POS.NOUN).filter(actual.get()::equals).findFirst().get()).isEqualTo(actual.get());
+    assertThat(IN_MEMORY.getSynsetAt(POS.NOUN, expected.getOffset() + 1).isPresent()).isFalse();
+    assertThat(IN_MEMORY.getSynsetAt(POS.ALL, expected.getOffset()).isPresent()).isFalse();
+  }
+}
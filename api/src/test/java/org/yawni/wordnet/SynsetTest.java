@@ -16,7 +16,11 @@
  */
 package org.yawni.wordnet;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.BeforeClass;
@@ -74,6 +78,62 @@ public class SynsetTest {
     System.err.printf("tested %,d descriptions.\n", count);
   }
 
+  /**
+   * {@code Relation} views of each {@code Synset}'s packed relations must be consistent with each other and with
+   * {@link Synset#forEachRelationTarget}.
+   */
+  @Test
+  public void testRelationViews() {
+    System.err.println("testRelationViews");
+    int count = 0;
+    for (final Synset synset : WN.synsets(POS.ALL)) {
+      final List<Relation> relations = synset.getRelations();
+      for (int i = 0; i < relations.size(); i++) {
+        final Relation relation = relations.get(i);
+        assertThat(relation.getSourceRelationIndex()).isEqualTo(i);
+        assertThat(relation.getSourceOffset()).isEqualTo(synset.getOffset());
+        assertThat(relation.getSourcePOS()).isEqualTo(synset.getPOS());
+        assertThat(relation.isLexical()).isEqualTo(relation.getSourceIndex() != 0);
+        count++;
+      }
+      assertThat(synset.getRelations()).isEqualTo(relations);
+      final List<Integer> expectedOffsets = synset.getSemanticRelations(RelationType.HYPERNYM).stream()
+          .filter(relation -> relation.getTargetPOS() == synset.getPOS())
+          .map(Relation::getTargetOffset)
+          .collect(Collectors.toList());
+      final List<Integer> actualOffsets = new ArrayList<>();
+      synset.forEachRelationTarget(RelationType.HYPERNYM, actualOffsets::add);
+      assertThat(actualOffsets).isEqualTo(expectedOffsets);
+      for (final WordSense wordSense : synset) {
+        for (final Relation relation : wordSense.getRelations()) {
+          assertThat(relations.contains(relation)).isTrue();
+          if (relation.isLexical()) {
+            assertThat(relation.getSource()).isEqualTo(wordSense);
+          }
+        }
+      }
+    }
+    System.err.printf("tested %,d relations.\n", count);
+  }
+
+  /**
+   * Relations decoded on first use must equal those decoded with the rest of the line.
+   */
+  @Test
+  public void testLazyRelations() {
+    System.err.println("testLazyRelations");
+    final WordNet wordNet = (WordNet) WN;
+    for (final Synset synset : WN.synsets(POS.ALL)) {
+      final CharSequence line = wordNet.getSynsetLineViewAt(synset.getPOS(), synset.getOffset());
+      final Synset lazy = new Synset(line, wordNet);
+      final Synset eager = new Synset(line, wordNet, true);
+      assertThat(Arrays.equals(lazy.packedRelations(), eager.packedRelations())).isTrue();
+      for (int i = 0; i < eager.getWordSenses().size(); i++) {
+        assertThat(lazy.getWordSense(i).getVerbFrameFlags()).isEqualTo(eager.getWordSense(i).getVerbFrameFlags());
+      }
+    }
+  }
+
   @Test
   public void getSynsetAt() {
     final Optional<Synset> findable = WN.getSynsetAt(POS.NOUN, 7846);
@@ -21,6 +21,8 @@ import com.google.common.collect.Iterables;
 import static com.google.common.collect.Iterables.isEmpty;
 import static com.google.common.collect.Iterables.size;
 import static org.fest.assertions.Assertions.assertThat;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -37,12 +39,58 @@ public class WordNetInterfaceTest {
     VERSION = WordNetVersion.detect();
   }
 
+  @Test
+  public void testBloomFilterOptions() throws Exception {
+    // filters are only built (and persisted) if the WordNet data doesn't bundle them
+    final Path directory = Files.createTempDirectory("yawni-bloom");
+    final List<String> tokens = ImmutableList.of("geese", "ran", "xyzzy", "take off", "taken", "dog", "better", "quickly");
+    for (final boolean blocked : new boolean[] { false, true }) {
+      // the second WordNet of each kind reads the filters the first persisted
+      for (final boolean offHeap : new boolean[] { false, true }) {
+        final WordNet wn = WordNet.builder().bloomFilterDirectory(directory)
+          .offHeapBloomFilters(offHeap).blockedBloomFilters(blocked).build();
+        for (final String token : tokens) {
+          assertThat(wn.lookupBaseForms(token, POS.ALL)).isEqualTo(WN.lookupBaseForms(token, POS.ALL));
+          assertThat(wn.lookupWordSenses(token, POS.ALL)).isEqualTo(WN.lookupWordSenses(token, POS.ALL));
+        }
+      }
+    }
+  }
+
   @Test
   public void testWordNetVersion() {
     final WordNetVersion version = WordNetVersion.detect();
     System.err.println("WordNetVersion: "+version);
   }
 
+  @Test
+  public void testBatchLookups() {
+    final List<String> tokens = ImmutableList.of("The", "geese", "ran", "", "off", "geese", "xyzzy", "Dog", "dog", "running");
+    for (final POS pos : ImmutableList.of(POS.ALL, POS.NOUN, POS.VERB)) {
+      final List<List<WordSense>> wordSenses = WN.lookupWordSenses(tokens, pos);
+      final List<List<Synset>> synsets = WN.lookupSynsets(tokens, pos);
+      assertThat(wordSenses).hasSize(tokens.size());
+      assertThat(synsets).hasSize(tokens.size());
+      for (int i = 0; i < tokens.size(); i++) {
+        assertThat(wordSenses.get(i)).isEqualTo(WN.lookupWordSenses(tokens.get(i), pos));
+        assertThat(synsets.get(i)).isEqualTo(WN.lookupSynsets(tokens.get(i), pos));
+      }
+    }
+    assertThat(WN.lookupSynsets(ImmutableList.<String>of(), POS.ALL)).isEmpty();
+  }
+
+  @Test
+  public void testParallelLookups() {
+    final WordNet parallel = WordNet.builder().parallel(true).build();
+    final List<String> tokens = ImmutableList.of("geese", "ran", "off", "xyzzy", "dog", "running", "light");
+    for (final String token : tokens) {
+      assertThat(parallel.lookupBaseForms(token, POS.ALL)).isEqualTo(WN.lookupBaseForms(token, POS.ALL));
+      assertThat(parallel.lookupWordSenses(token, POS.ALL)).isEqualTo(WN.lookupWordSenses(token, POS.ALL));
+      assertThat(parallel.lookupSynsets(token, POS.ALL)).isEqualTo(WN.lookupSynsets(token, POS.ALL));
+    }
+    assertThat(parallel.lookupSynsets(tokens, POS.ALL)).isEqualTo(WN.lookupSynsets(tokens, POS.ALL));
+  }
+
   /**
    * test POS.ALL support
    * + {@code List<String> lookupBaseForms(POS pos, String someString)}
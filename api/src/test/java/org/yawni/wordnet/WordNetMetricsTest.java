@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+import org.yawni.wordnet.WordNetMetrics.Operation;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.*;
+
+public class WordNetMetricsTest {
+  @Test
+  public void testDisabled() {
+    final WordNet wordNet = WordNet.builder().metrics(false).build();
+    assertNotNull(wordNet.lookupWord("dog", POS.NOUN));
+    final WordNetMetrics metrics = wordNet.getMetrics();
+    assertFalse(metrics.isEnabled());
+    assertEquals(0, metrics.getLatency(Operation.LOOKUP_WORD).getCount());
+    assertEquals(0, metrics.getBytesScanned());
+    // cache statistics are always available; 1 miss by lemma, 1 by offset
+    assertEquals(2, metrics.getCacheStats().get(WordNet.CacheName.INDEX_WORD).missCount());
+  }
+
+  @Test
+  public void testListener() {
+    final Map<Operation, AtomicInteger> counts = new EnumMap<>(Operation.class);
+    for (final Operation operation : Operation.values()) {
+      counts.put(operation, new AtomicInteger());
+    }
+    final WordNet wordNet = WordNet.builder()
+      .listener(new WordNetListener() {
+        @Override
+        public void onOperation(final Operation operation, final long nanos) {
+          assertTrue(nanos >= 0);
+          counts.get(operation).incrementAndGet();
+        }
+      })
+      .build();
+    final WordNetMetrics metrics = wordNet.getMetrics();
+    assertTrue(metrics.isEnabled());
+    for (int i = 0; i < 2; i++) {
+      assertNotNull(wordNet.lookupWord("dog", POS.NOUN));
+    }
+    assertThat(wordNet.lookupBaseForms("geese", POS.NOUN)).contains("goose");
+    assertThat(counts.get(Operation.LOOKUP_WORD).get()).isGreaterThanOrEqualTo(2);
+    assertEquals(counts.get(Operation.LOOKUP_WORD).get(), metrics.getLatency(Operation.LOOKUP_WORD).getCount());
+    assertEquals(1, counts.get(Operation.LOOKUP_BASE_FORMS).get());
+    assertThat(counts.get(Operation.GET_EXCEPTIONS).get()).isGreaterThan(0);
+    assertThat(metrics.getBytesScanned()).isGreaterThan(0);
+    assertThat(metrics.getCacheHitRates().get(WordNet.CacheName.INDEX_WORD.name())).isGreaterThan(0.0);
+    metrics.reset();
+    assertEquals(0, metrics.getLatency(Operation.LOOKUP_WORD).getCount());
+    assertEquals(0, metrics.getBytesScanned());
+  }
+
+  @Test
+  public void testMBean() throws Exception {
+    final WordNetMetrics metrics = WordNet.builder().metrics(true).build().getMetrics();
+    final ObjectName name = metrics.registerMBean("WordNetMetricsTest");
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      assertTrue(server.isRegistered(name));
+      assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+      assertNotNull(server.getAttribute(name, "Latencies"));
+      assertNotNull(server.getAttribute(name, "CacheHitRates"));
+      assertEquals(0L, server.getAttribute(name, "BytesScanned"));
+    } finally {
+      metrics.unregisterMBean();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+  }
+}
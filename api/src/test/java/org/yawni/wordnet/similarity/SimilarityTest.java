@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yawni.wordnet.POS;
+import org.yawni.wordnet.Synset;
+import org.yawni.wordnet.WordNet;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SimilarityTest {
+  private static WordNet WN;
+  private static Similarity SIMILARITY;
+
+  @BeforeClass
+  public static void init() {
+    WN = WordNet.getInstance();
+    SIMILARITY = new Similarity(WN);
+  }
+
+  private static Synset synset(final String lemma, final POS pos) {
+    return WN.lookupWord(lemma, pos).getSense(1).getSynset();
+  }
+
+  @Test
+  public void testKnownValues() {
+    final Synset dog = synset("dog", POS.NOUN);
+    final Synset cat = synset("cat", POS.NOUN);
+    final Synset walk = synset("walk", POS.VERB);
+    final Synset travel = synset("travel", POS.VERB);
+    // dog -> canine -> carnivore <- feline <- cat
+    assertThat(SIMILARITY.similarity(Measure.PATH, dog, cat)).isEqualTo(0.2);
+    assertThat(SIMILARITY.similarity(Measure.PATH, walk, travel)).isEqualTo(0.5);
+    // travel is a root: 2 * 1 / (1 + 0 + 2 * 1)
+    assertThat(SIMILARITY.similarity(Measure.WU_PALMER, walk, travel)).isEqualTo(2.0 / 3);
+    for (final Measure measure : Measure.values()) {
+      assertThat(SIMILARITY.similarity(measure, dog, walk)).isEqualTo(0.0);
+    }
+    final InformationContent ic = InformationContent.of(WN);
+    final Synset entity = synset("entity", POS.NOUN);
+    final Synset animal = synset("animal", POS.NOUN);
+    assertThat(ic.get(entity)).isEqualTo(0.0);
+    assertThat(ic.get(animal)).isGreaterThan(0.0);
+    assertThat(ic.get(dog)).isGreaterThan(ic.get(animal));
+    assertThat(Double.isNaN(ic.get(synset("red", POS.ADJ)))).isTrue();
+    assertThat(SIMILARITY.similarity(Measure.RESNIK, dog, cat)).isEqualTo(ic.get(synset("carnivore", POS.NOUN)));
+  }
+
+  /**
+   * Every measure is symmetric and maximal for identical {@code Synset}s, and {@link Similarity#matrix}
+   * agrees with {@link Similarity#similarity}.
+   */
+  @Test
+  public void testMatrix() {
+    final List<Synset> verbs = new ArrayList<>();
+    WN.synsets(POS.VERB).forEach(verbs::add);
+    final Random random = new Random(0);
+    final List<Synset> rows = new ArrayList<>();
+    final List<Synset> columns = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      rows.add(verbs.get(random.nextInt(verbs.size())));
+      columns.add(verbs.get(random.nextInt(verbs.size())));
+    }
+    // include some related and identical pairs
+    columns.add(rows.get(0));
+    columns.addAll(WN.ancestors(rows.get(1)));
+    for (final Measure measure : Measure.values()) {
+      final double[][] matrix = SIMILARITY.matrix(measure, rows, columns);
+      assertThat(matrix.length).isEqualTo(rows.size());
+      for (int i = 0; i < rows.size(); i++) {
+        final Synset row = rows.get(i);
+        final double self = SIMILARITY.similarity(measure, row, row);
+        assertThat(matrix[i].length).isEqualTo(columns.size());
+        for (int j = 0; j < columns.size(); j++) {
+          final Synset column = columns.get(j);
+          assertThat(matrix[i][j]).isEqualTo(SIMILARITY.similarity(measure, row, column));
+          assertThat(matrix[i][j]).isEqualTo(SIMILARITY.similarity(measure, column, row));
+          assertThat(matrix[i][j]).isGreaterThanOrEqualTo(0.0);
+          assertThat(matrix[i][j]).isLessThanOrEqualTo(self);
+        }
+      }
+    }
+  }
+}
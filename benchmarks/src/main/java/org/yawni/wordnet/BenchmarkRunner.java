@@ -0,0 +1,63 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the fork, warmup and measurement settings of their annotations and
+ * writes the results as JSON so runs can be compared (e.g., with
+ * <a href="https://jmh.morethan.io/">JMH Visualizer</a>).
+ *
+ * <p> Usage: {@code java -jar benchmarks.jar [benchmark regex] [result file]}; the defaults are
+ * all benchmarks and {@code jmh-result.json}.  {@code yawni.*} system properties (e.g.,
+ * {@code -Dyawni.wordnet.lineIndex=true}) are passed on to the forked benchmark JVMs.
+ * For anything else, JMH's own command line ({@code org.openjdk.jmh.Main}) is also in the jar.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() { }
+
+  public static void main(final String[] args) throws RunnerException {
+    final String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+    final String result = args.length > 1 ? args[1] : "jmh-result.json";
+    final Options options = new OptionsBuilder()
+        .include(include)
+        .shouldDoGC(true)
+        .jvmArgsPrepend(yawniProperties())
+        .resultFormat(ResultFormatType.JSON)
+        .result(result)
+        .build();
+    new Runner(options).run();
+  }
+
+  private static String[] yawniProperties() {
+    final List<String> properties = new ArrayList<>();
+    for (final Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+      if (String.valueOf(property.getKey()).startsWith("yawni.")) {
+        properties.add("-D" + property.getKey() + "=" + property.getValue());
+      }
+    }
+    return properties.toArray(new String[0]);
+  }
+}
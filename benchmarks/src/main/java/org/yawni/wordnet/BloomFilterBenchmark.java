@@ -0,0 +1,115 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yawni.util.cache.BlockedBloomFilter;
+import org.yawni.util.cache.BloomFilter;
+import org.yawni.util.cache.Hasher;
+
+/**
+ * {@link BloomFilter#contains(Object)} vs. {@link BlockedBloomFilter#contains(Object)} of filters of every
+ * lemma of every {@code POS} (like {@link WordNet}'s lemma filters, at the same false positive probability);
+ * each operation is a full pass over the {@link Workload} lemmas ({@code present}) or strings which aren't
+ * lemmas ({@code absent}, the common case of {@code WordNet}'s filters, e.g., Morphy's candidate base forms).
+ * The {@code lexical} hasher is the one {@code WordNet} uses; {@code string} uses {@link String#hashCode()},
+ * which is cached, to measure only the cost of probing the filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BloomFilterBenchmark {
+  private static final Hasher<CharSequence> STRING_HASHER = new Hasher<CharSequence>() {
+    @Override
+    public int hashCode(final Object o) {
+      return o.hashCode();
+    }
+  };
+
+  @State(Scope.Benchmark)
+  public static class Filters {
+    @Param({"standard", "blocked"})
+    public String filter;
+    @Param({"absent", "present"})
+    public String probes;
+    @Param({"lexical", "string"})
+    public String hasher;
+
+    Set<CharSequence> set;
+    String[] strings;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+      final WordNet wordNet = WordNet.builder().build();
+      final Set<String> lemmas = new HashSet<>();
+      for (final POS pos : POS.CATS) {
+        for (final Word word : wordNet.words(pos)) {
+          lemmas.add(word.getLowercasedLemma());
+        }
+      }
+      final Hasher<CharSequence> hash = "lexical".equals(hasher) ? WordNetLexicalComparator.TO_LOWERCASE_INSTANCE : STRING_HASHER;
+      set = "blocked".equals(filter) ?
+        new BlockedBloomFilter<>(lemmas.size(), 0.001, hash) :
+        new BloomFilter<>(lemmas.size(), 0.001, hash);
+      for (final String lemma : lemmas) {
+        set.add(lemma);
+      }
+      final Workload workload = Workload.get();
+      final List<String> selected = new ArrayList<>();
+      for (int i = 0; i < workload.size(); i++) {
+        final String lemma = workload.lemma(i).toLowerCase();
+        if ("present".equals(probes)) {
+          if (lemmas.contains(lemma)) {
+            selected.add(lemma);
+          }
+        } else {
+          // e.g., "timeq" and "timeqs"
+          selected.add(lemma + 'q');
+          selected.add(lemma + "qs");
+        }
+      }
+      strings = selected.toArray(new String[0]);
+    }
+  }
+
+  @Benchmark
+  public void contains(final Filters state, final Blackhole blackhole) {
+    final Set<CharSequence> set = state.set;
+    for (final String string : state.strings) {
+      blackhole.consume(set.contains(string));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * {@link Morphy} stemming ({@link WordNet#lookupBaseForms(String, POS)}) of a regularly
+ * inflected form of each {@link Workload} lemma; each operation is a full pass over the workload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MorphyBenchmark {
+  @Benchmark
+  public void morphstr(final WordNetStates.WarmOrCold state, final Blackhole blackhole) {
+    stemAll(state, 0, blackhole);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void morphstrThreaded(final WordNetStates.Warm state, final ThreadParams thread, final Blackhole blackhole) {
+    stemAll(state, state.workload.start(thread), blackhole);
+  }
+
+  private static void stemAll(final WordNetStates.Warm state, final int start, final Blackhole blackhole) {
+    final Workload workload = state.workload;
+    final int size = workload.size();
+    for (int n = 0, i = start; n < size; n++, i = i + 1 == size ? 0 : i + 1) {
+      blackhole.consume(state.wordNet.lookupBaseForms(workload.inflection(i), workload.pos(i)));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH {@link State}s shared by the benchmarks.  Each trial gets its own {@link WordNet} instance
+ * (not the {@link WordNet#getInstance() singleton}) whose files are loaded up front, so only
+ * lookup costs are measured.
+ */
+public final class WordNetStates {
+  private WordNetStates() { }
+
+  /**
+   * A {@link WordNet} whose caches stay warm across invocations.  Safe to share
+   * between benchmark threads.
+   */
+  @State(Scope.Benchmark)
+  public static class Warm {
+    WordNet wordNet;
+    Workload workload;
+    /** {@link POS} ordinal and offset of each synset of each workload word */
+    byte[] synsetPOSes;
+    int[] synsetOffsets;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+      workload = Workload.get();
+      wordNet = new WordNet();
+      synsetPOSes = new byte[8 * workload.size()];
+      synsetOffsets = new int[8 * workload.size()];
+      int size = 0;
+      for (int i = 0; i < workload.size(); i++) {
+        // loads every file the benchmarks use
+        wordNet.lookupBaseForms(workload.inflection(i), workload.pos(i));
+        final Word word = wordNet.lookupWord(workload.lemma(i), workload.pos(i));
+        if (word == null) {
+          continue;
+        }
+        for (final Synset synset : word.getSynsets()) {
+          if (size == synsetOffsets.length) {
+            synsetPOSes = Arrays.copyOf(synsetPOSes, size << 1);
+            synsetOffsets = Arrays.copyOf(synsetOffsets, size << 1);
+          }
+          synsetPOSes[size] = (byte) synset.getPOS().ordinal();
+          synsetOffsets[size] = synset.getOffset();
+          size++;
+        }
+      }
+      synsetPOSes = Arrays.copyOf(synsetPOSes, size);
+      synsetOffsets = Arrays.copyOf(synsetOffsets, size);
+    }
+  }
+
+  /**
+   * A {@link WordNet} whose caches are either warm or emptied before every invocation.
+   * Emptying shared caches while other threads use them would measure an arbitrary mix of
+   * hits and misses, so this should only be used by single-threaded benchmarks; each
+   * invocation is a full pass over the workload, so the per-invocation setup is negligible.
+   */
+  @State(Scope.Benchmark)
+  public static class WarmOrCold extends Warm {
+    @Param({"warm", "cold"})
+    public String caches;
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+      if ("cold".equals(caches)) {
+        wordNet.clearCaches();
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * The benchmark workload: the ~5000 common words of {@code 5K.clean.txt}, each with its
+ * part of speech, e.g., {@code n [time%1:28:03::] [time] clock time}.  Lemmas are taken from
+ * the sense key and queried with spaces (e.g., "clock time") like typical user input.
+ */
+final class Workload {
+  private static final String RESOURCE = "/5K.clean.txt";
+  private static Workload instance;
+
+  private final List<String> lemmas;
+  private final List<POS> poses;
+  private final List<String> inflections;
+
+  private Workload(final List<String> lemmas, final List<POS> poses) {
+    this.lemmas = lemmas;
+    this.poses = poses;
+    this.inflections = new ArrayList<>(lemmas.size());
+    for (int i = 0; i < lemmas.size(); i++) {
+      inflections.add(inflect(lemmas.get(i), poses.get(i)));
+    }
+  }
+
+  static synchronized Workload get() {
+    if (instance == null) {
+      try (InputStream input = Workload.class.getResourceAsStream(RESOURCE)) {
+        if (input == null) {
+          throw new IllegalStateException("missing resource "+RESOURCE);
+        }
+        instance = read(new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII)));
+      } catch (IOException ioe) {
+        throw new UncheckedIOException(ioe);
+      }
+    }
+    return instance;
+  }
+
+  private static Workload read(final BufferedReader reader) throws IOException {
+    final List<String> lemmas = new ArrayList<>();
+    final List<POS> poses = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      final int start = line.indexOf('[');
+      final int end = line.indexOf('%', start);
+      if (line.isEmpty() || start < 0 || end < 0) {
+        continue;
+      }
+      poses.add(POS.lookup(line.charAt(0)));
+      lemmas.add(line.substring(start + 1, end).replace('_', ' '));
+    }
+    return new Workload(lemmas, poses);
+  }
+
+  /** @return a regularly inflected form of {@code lemma} to give {@link Morphy} something to do */
+  private static String inflect(final String lemma, final POS pos) {
+    switch (pos) {
+      case NOUN: return lemma + "s";
+      case VERB: return lemma + "ing";
+      case ADJ: return lemma + "er";
+      default: return lemma;
+    }
+  }
+
+  int size() {
+    return lemmas.size();
+  }
+
+  String lemma(final int i) {
+    return lemmas.get(i);
+  }
+
+  String inflection(final int i) {
+    return inflections.get(i);
+  }
+
+  POS pos(final int i) {
+    return poses.get(i);
+  }
+
+  /**
+   * @return index of the entry where {@code thread} should start its pass over the workload
+   * so concurrent threads aren't in lockstep
+   */
+  int start(final ThreadParams thread) {
+    return (int) ((long) size() * thread.getThreadIndex() / thread.getThreadCount());
+  }
+}